@@ -3,9 +3,11 @@ package com.yuyuan.literature;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.yuyuan.literature.mapper")
+@EnableScheduling
 public class LiteratureAssistantApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,43 @@
+package com.yuyuan.literature.common.handler;
+
+import com.yuyuan.literature.common.utils.TextCompression;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 压缩文本类型处理器
+ * <p>
+ * 把 String 属性按 {@link TextCompression} 编码后写入 BLOB 列，读取时解码。
+ * 不做全局注册，只在映射文件中对需要压缩的列显式指定。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public class CompressedTextTypeHandler extends BaseTypeHandler<String> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType)
+            throws SQLException {
+        ps.setBytes(i, TextCompression.encode(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return TextCompression.decode(rs.getBytes(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return TextCompression.decode(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return TextCompression.decode(cs.getBytes(columnIndex));
+    }
+}
@@ -27,6 +27,7 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -194,6 +195,16 @@ public class GlobalExceptionHandler {
         return Result.error(ResultCode.BAD_REQUEST.getCode(), e.getMessage());
     }
 
+    /**
+     * 处理流水线排队已满异常
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Result<Void> handleRejectedExecutionException(RejectedExecutionException e, HttpServletRequest request) {
+        log.warn("任务排队已满: {} - {}", request.getRequestURI(), e.getMessage());
+        return Result.error(ResultCode.SERVICE_UNAVAILABLE.getCode(), "系统繁忙，请稍后重试");
+    }
+
     /**
      * 处理空指针异常
      */
@@ -67,12 +67,25 @@ public class PageResult<T> implements Serializable {
     @Schema(description = "是否有上一页", example = "false")
     private Boolean hasPrev;
 
+    /**
+     * 总记录数是否为精确值（按估算方式统计时可能为近似值）
+     */
+    @Schema(description = "总记录数是否为精确值", example = "true")
+    private Boolean totalExact;
+
+    /**
+     * 下一页游标（游标分页时返回，没有下一页时为空）
+     */
+    @Schema(description = "下一页游标，游标分页时返回")
+    private String nextCursor;
+
     /**
      * 构造方法
      */
     public PageResult(List<T> records, Long total, Integer pageNum, Integer pageSize) {
         this.records = records;
         this.total = total;
+        this.totalExact = true;
         this.pageNum = pageNum;
         this.pageSize = pageSize;
         this.totalPages = (int) Math.ceil((double) total / pageSize);
@@ -114,4 +127,34 @@ public class PageResult<T> implements Serializable {
     public static <T> PageResult<T> of(List<T> records, Long total, Integer pageNum, Integer pageSize) {
         return new PageResult<>(records, total, pageNum, pageSize);
     }
+
+    /**
+     * 创建不统计总数的分页结果，是否有下一页按本页是否取满判断
+     */
+    public static <T> PageResult<T> withoutTotal(List<T> records, Integer pageNum, Integer pageSize) {
+        PageResult<T> result = new PageResult<>();
+        result.setRecords(records);
+        result.setPageNum(pageNum);
+        result.setPageSize(pageSize);
+        result.setHasNext(records.size() >= pageSize);
+        result.setHasPrev(pageNum > 1);
+        return result;
+    }
+
+    /**
+     * 创建游标分页结果
+     *
+     * @param total 总记录数，未统计时为 null
+     * @param nextCursor 下一页游标，没有下一页时为 null
+     */
+    public static <T> PageResult<T> ofCursor(List<T> records, Long total, Integer pageSize, String nextCursor) {
+        PageResult<T> result = new PageResult<>();
+        result.setRecords(records);
+        result.setTotal(total);
+        result.setTotalExact(total != null ? Boolean.TRUE : null);
+        result.setPageSize(pageSize);
+        result.setHasNext(nextCursor != null);
+        result.setNextCursor(nextCursor);
+        return result;
+    }
 }
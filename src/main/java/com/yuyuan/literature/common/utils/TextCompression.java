@@ -0,0 +1,201 @@
+package com.yuyuan.literature.common.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 长文本压缩编码
+ * <p>
+ * 编码结果首字节为格式标记，其后为内容：
+ * <ul>
+ *     <li>{@link #RAW}：UTF-8 原文，用于过短的文本、流式生成中逐段追加的内容和迁移的旧数据</li>
+ *     <li>{@link #DEFLATE_V1}：以阅读指南常用 Markdown 结构为预置字典的 Deflate 压缩</li>
+ * </ul>
+ * 已写入的数据依赖字典内容解压，字典不能修改，需要调整时新增格式标记和字典版本。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public final class TextCompression {
+
+    /**
+     * 未压缩
+     */
+    public static final byte RAW = 0;
+
+    /**
+     * Deflate + 阅读指南字典 v1
+     */
+    public static final byte DEFLATE_V1 = 1;
+
+    /**
+     * 低于该字节数的文本压缩收益不足以抵消开销，直接保存原文
+     */
+    private static final int MIN_COMPRESS_BYTES = 256;
+
+    /**
+     * 预置字典：阅读指南提示词要求的章节标题、表格和 Mermaid 代码块骨架。
+     * Deflate 优先匹配字典末尾，因此最常见的片段放在后面
+     */
+    private static final byte[] DICTIONARY_V1 = """
+            ```mermaid
+            graph TD
+                A["
+            "] --> B["
+            "]
+                B --> C["
+            "]
+            ```
+
+            ```mermaid
+            graph LR
+            ```
+
+            ```mermaid
+            mindmap
+              root((
+                "
+            ```
+
+            | 术语 | 通俗解释 |
+            | --- | --- |
+            | **
+            ** |\s
+             |
+
+            - **明确本章目标**:\s
+            - **提炼核心要点**:
+                1.\s
+                2.\s
+                3.\s
+            - **设置引导性问题**:
+                - 作者在这里提出的假设是什么？
+                - 这个实验设计是为了验证什么？
+
+            ## 核心摘要
+
+            - **一句话总结**: 这篇文献
+            - **背景与动机 (Why)**:\s
+            - **核心方法 (How)**:\s
+            - **主要发现 (What)**:\s
+            - **价值与意义**:\s
+
+            ## 关键术语
+
+            ## 分步阅读地图
+
+            ### 第一部分：引言 (Introduction)
+            ### 第二部分：相关工作 (Related Work)
+            ### 第三部分：方法论 (Methodology)
+            ### 第四部分：实验 (Experiments)
+            ### 第五部分：结论 (Conclusion)
+
+            ## 文献结构总览图
+
+            ## 启发性思考
+
+            1. **这项研究的局限性是什么？**
+            2. **如果让你来改进，你会从哪个角度入手？**
+            3. **文中的结论可以被应用到哪些其他场景？**
+
+            # 阅读指南：
+            本文提出了一种
+            研究背景、核心问题、主要方法、关键结论、学术贡献。
+            作者通过实验验证了该方法的有效性，
+            实验结果表明，
+            与现有方法相比，
+            在多个数据集上
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private TextCompression() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * 编码文本，压缩后没有变小时保存原文
+     *
+     * @param text 文本，null 返回 null
+     */
+    public static byte[] encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= MIN_COMPRESS_BYTES) {
+            byte[] compressed = deflate(raw);
+            if (compressed.length < raw.length) {
+                return compressed;
+            }
+        }
+        byte[] encoded = new byte[raw.length + 1];
+        encoded[0] = RAW;
+        System.arraycopy(raw, 0, encoded, 1, raw.length);
+        return encoded;
+    }
+
+    /**
+     * 解码 {@link #encode} 的结果
+     *
+     * @param data 编码内容，null 返回 null
+     * @throws IllegalArgumentException 格式标记未知或内容损坏
+     */
+    public static String decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0) {
+            return "";
+        }
+        return switch (data[0]) {
+            case RAW -> new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE_V1 -> inflate(data);
+            default -> throw new IllegalArgumentException("未知的文本压缩格式: " + data[0]);
+        };
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 16);
+            out.write(DEFLATE_V1);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY_V1);
+                    } else if (inflater.needsInput()) {
+                        throw new IllegalArgumentException("压缩内容不完整");
+                    }
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("压缩内容损坏", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -61,7 +61,8 @@ public class CorsConfig implements WebMvcConfigurer {
                 "X-Requested-With",
                 "X-Request-ID",
                 "X-Client-Version",
-                "X-Device-Type"
+                "X-Device-Type",
+                "Last-Event-ID"
         ));
         
         // 允许的请求方法
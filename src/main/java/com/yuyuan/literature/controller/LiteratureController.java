@@ -5,14 +5,22 @@ import com.yuyuan.literature.common.result.Result;
 import com.yuyuan.literature.dto.BatchLiteratureImportRequest;
 import com.yuyuan.literature.dto.LiteratureQueryRequest;
 import com.yuyuan.literature.dto.LiteratureVO;
+import com.yuyuan.literature.dto.TagFacetVO;
 import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.entity.LiteratureJob;
+import com.yuyuan.literature.pipeline.ImportPipeline;
+import com.yuyuan.literature.pipeline.Lane;
 import com.yuyuan.literature.service.FileProcessingService;
-import com.yuyuan.literature.service.LiteratureAiService;
+import com.yuyuan.literature.service.GuideGenerationService;
+import com.yuyuan.literature.service.LiteratureContentService;
+import com.yuyuan.literature.service.LiteratureJobService;
 import com.yuyuan.literature.service.LiteratureService;
+import com.yuyuan.literature.service.StoredFile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,9 +31,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * 文献助手控制器
@@ -42,11 +51,16 @@ import java.util.List;
 public class LiteratureController {
 
         private final FileProcessingService fileProcessingService;
-        private final LiteratureAiService literatureAiService;
         private final LiteratureService literatureService;
+        private final GuideGenerationService guideGenerationService;
+        private final ImportPipeline importPipeline;
+        private final LiteratureJobService literatureJobService;
+        private final LiteratureContentService literatureContentService;
 
         /**
          * 生成文献阅读指南
+         * <p>
+         * 生成在服务端独立运行，客户端断开后仍会继续，可通过 {@code GET /literature/{id}/stream} 重新接入。
          *
          * @param file 上传的文献文件
          * @return SSE 流式响应
@@ -63,64 +77,15 @@ public class LiteratureController {
 
                         Flux<ServerSentEvent<String>> pipeline = Mono
                                         .fromCallable(() -> fileProcessingService.saveFile(file))
-                                        .subscribeOn(Schedulers.boundedElastic())
-                                        .flatMapMany(filePath -> {
-                                                Flux<ServerSentEvent<String>> progress1 = Flux
-                                                                .just(ServerSentEvent.<String>builder()
-                                                                                .event("progress")
-                                                                                .data("文件保存成功，开始解析内容...").build());
-                                                Flux<ServerSentEvent<String>> sequence = Mono
-                                                                .fromCallable(() -> fileProcessingService
-                                                                                .extractFileContent(filePath))
-                                                                .subscribeOn(Schedulers.boundedElastic())
-                                                                .flatMapMany(fileContent -> Mono
-                                                                                .fromCallable(() -> literatureService
-                                                                                                .createLiterature(file,
-                                                                                                                filePath,
-                                                                                                                fileContent.length()))
-                                                                                .subscribeOn(Schedulers
-                                                                                                .boundedElastic())
-                                                                                .flatMapMany(literatureId -> {
-                                                                                        Flux<ServerSentEvent<String>> progress2 = Flux
-                                                                                                        .just(ServerSentEvent
-                                                                                                                        .<String>builder()
-                                                                                                                        .event("progress")
-                                                                                                                        .data("内容解析成功，开始生成阅读指南...")
-                                                                                                                        .build());
-                                                                                        Flux<ServerSentEvent<String>> contentEvents = literatureAiService
-                                                                                                        .generateReadingGuideFlux(
-                                                                                                                        fileContent,
-                                                                                                                        literatureId,
-                                                                                                                        literatureService)
-                                                                                                        .map(token -> ServerSentEvent
-                                                                                                                        .<String>builder()
-                                                                                                                        .event("content")
-                                                                                                                        .data(token)
-                                                                                                                        .build());
-                                                                                        contentEvents = contentEvents.doOnComplete(() -> {
-                                                                                            String readingGuide = literatureService.getById(literatureId)
-                                                                                                    .getReadingGuide();
-                                                                                            if (readingGuide != null && !readingGuide.trim().isEmpty()) {
-                                                                                                literatureService.updateReadingGuide(literatureId, readingGuide);
-                                                                                                literatureAiService.generateClassificationWithVirtualThread(
-                                                                                                        readingGuide, literatureId, literatureService);
-                                                                                            } else {
-                                                                                                literatureService.updateStatus(literatureId,
-                                                                                                        Literature.Status.COMPLETED.getCode());
-                                                                                            }
-                                                                                        });
-                                                                                        Flux<ServerSentEvent<String>> complete = Flux
-                                                                                                        .just(ServerSentEvent
-                                                                                                                        .<String>builder()
-                                                                                                                        .event("complete")
-                                                                                                                        .data("生成完成")
-                                                                                                                        .build());
-                                                                                        return Flux.concat(progress2,
-                                                                                                        contentEvents,
-                                                                                                        complete);
-                                                                                }));
-                                                return Flux.concat(progress1, sequence);
-                                        })
+                                        .subscribeOn(importPipeline.ingest().scheduler())
+                                        .flatMapMany(storedFile -> Mono
+                                                        .fromCallable(() -> Optional.ofNullable(literatureService
+                                                                        .findReusable(storedFile.contentHash())))
+                                                        .subscribeOn(importPipeline.persist().scheduler())
+                                                        .flatMapMany(reusable -> reusable
+                                                                        .map(source -> reuseReadingGuide(file, source))
+                                                                        .orElseGet(() -> generateFromFile(file,
+                                                                                        storedFile))))
                                         .onErrorResume(error -> Flux
                                                         .just(ServerSentEvent.<String>builder().event("error")
                                                                         .data("处理失败: " + error.getMessage()).build()));
@@ -129,11 +94,91 @@ public class LiteratureController {
                 });
         }
 
+        /**
+         * 内容相同的文献已生成过阅读指南时直接复用，不再调用大模型
+         */
+        private Flux<ServerSentEvent<String>> reuseReadingGuide(MultipartFile file, Literature source) {
+                return Mono.fromCallable(() -> {
+                                        Long literatureId = literatureService.createFromExisting(file, source);
+                                        String readingGuide = literatureContentService.getReadingGuide(literatureId);
+                                        return Map.entry(literatureId, readingGuide != null ? readingGuide : "");
+                                })
+                                .subscribeOn(importPipeline.persist().scheduler())
+                                .flatMapMany(created -> Flux.just(
+                                                ServerSentEvent.<String>builder()
+                                                                .event("created")
+                                                                .data("{\"literatureId\": " + created.getKey() + "}")
+                                                                .build(),
+                                                ServerSentEvent.<String>builder()
+                                                                .event("progress")
+                                                                .data("文件内容已存在，复用已有阅读指南")
+                                                                .build(),
+                                                ServerSentEvent.<String>builder()
+                                                                .event("content")
+                                                                .data(created.getValue())
+                                                                .build(),
+                                                ServerSentEvent.<String>builder()
+                                                                .event("complete")
+                                                                .data("生成完成")
+                                                                .build()));
+        }
+
+        /**
+         * 解析新文件并启动阅读指南生成
+         */
+        private Flux<ServerSentEvent<String>> generateFromFile(MultipartFile file, StoredFile storedFile) {
+                Flux<ServerSentEvent<String>> progress1 = Flux
+                                .just(ServerSentEvent.<String>builder()
+                                                .event("progress")
+                                                .data("文件保存成功，开始解析内容...").build());
+                Flux<ServerSentEvent<String>> sequence = Mono
+                                .fromCallable(() -> fileProcessingService.extractFileContent(storedFile))
+                                .subscribeOn(importPipeline.extract().scheduler())
+                                .flatMap(fileContent -> Mono
+                                                .fromCallable(() -> {
+                                                        Long literatureId = literatureService.createLiterature(file,
+                                                                        storedFile, fileContent);
+                                                        Long jobId = literatureJobService.startInline(literatureId,
+                                                                        LiteratureJob.Type.GUIDE, Lane.INTERACTIVE);
+                                                        guideGenerationService.startForJob(literatureId, jobId,
+                                                                        fileContent, Lane.INTERACTIVE);
+                                                        return literatureId;
+                                                })
+                                                .subscribeOn(importPipeline.persist().scheduler()))
+                                .flatMapMany(literatureId -> Flux.concat(
+                                                Flux.just(ServerSentEvent.<String>builder()
+                                                                .event("created")
+                                                                .data("{\"literatureId\": " + literatureId + "}")
+                                                                .build(),
+                                                                ServerSentEvent.<String>builder()
+                                                                                .event("progress")
+                                                                                .data("内容解析成功，开始生成阅读指南...")
+                                                                                .build()),
+                                                guideGenerationService.attach(literatureId, 0)));
+                return Flux.concat(progress1, sequence);
+        }
+
+        /**
+         * 接入阅读指南生成事件流
+         * <p>
+         * 携带 {@code Last-Event-ID} 时从该事件之后继续推送，更早的内容以 snapshot 事件一次性补发。
+         */
+        @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        @Operation(summary = "接入阅读指南生成流", description = "任意客户端可随时接入或断线重连，按 Last-Event-ID 补发错过的内容")
+        public Flux<ServerSentEvent<String>> streamReadingGuide(
+                        @Parameter(description = "文献ID", required = true) @PathVariable @NotNull(message = "文献ID不能为空") Long id,
+                        @Parameter(description = "已收到的最后一个事件ID") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                        @Parameter(description = "已收到的最后一个事件ID（无法设置请求头时使用）") @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+
+                long offset = lastEventId != null ? lastEventId : (lastEventIdParam != null ? lastEventIdParam : 0L);
+                return guideGenerationService.attach(id, offset);
+        }
+
         /**
          * 分页查询文献
          */
         @PostMapping("/page")
-        @Operation(summary = "分页查询文献", description = "根据条件分页查询文献列表")
+        @Operation(summary = "分页查询文献", description = "根据条件分页查询文献列表，支持按页码或按游标（paginationMode=CURSOR）分页")
         public Result<PageResult<LiteratureVO>> pageLiteratures(
                         @Valid @RequestBody LiteratureQueryRequest request) {
 
@@ -143,6 +188,21 @@ public class LiteratureController {
                 return Result.success(result);
         }
 
+        /**
+         * 标签分面统计
+         */
+        @PostMapping("/tags/facets")
+        @Operation(summary = "标签分面统计", description = "按与分页查询相同的条件统计各标签的文献数")
+        public Result<List<TagFacetVO>> tagFacets(
+                        @Valid @RequestBody LiteratureQueryRequest request,
+                        @Parameter(description = "最多返回的标签数") @RequestParam(defaultValue = "50") @Max(value = 500, message = "最多返回500个标签") int limit) {
+
+                log.info("标签分面统计，条件: {}", request);
+
+                List<TagFacetVO> result = literatureService.tagFacets(request, limit);
+                return Result.success(result);
+        }
+
         /**
          * 获取文献详情
          */
@@ -176,10 +236,12 @@ public class LiteratureController {
         @PostMapping(value = "/batch-import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
         @Operation(summary = "批量导入文献", description = "批量上传文献文件，AI生成阅读指南并实时返回处理状态")
         public Flux<ServerSentEvent<String>> batchImportLiterature(
-                        @Parameter(description = "文献文件列表", required = true) @RequestPart("files") List<MultipartFile> files) {
+                        @Parameter(description = "文献文件列表", required = true) @RequestPart("files") List<MultipartFile> files,
+                        @Parameter(description = "是否按文件顺序推送事件（false 时按完成先后推送）") @RequestParam(value = "ordered", required = false) Boolean ordered) {
 
                 BatchLiteratureImportRequest request = new BatchLiteratureImportRequest();
                 request.setFiles(files);
+                request.setOrdered(ordered);
 
                 return literatureService.batchImportLiterature(request);
         }
@@ -0,0 +1,156 @@
+package com.yuyuan.literature.controller;
+
+import com.yuyuan.literature.common.result.Result;
+import com.yuyuan.literature.entity.LiteratureJob;
+import com.yuyuan.literature.pipeline.ImportMetrics;
+import com.yuyuan.literature.pipeline.ImportPipeline;
+import com.yuyuan.literature.search.LiteratureSearchIndex;
+import com.yuyuan.literature.service.ExtractedTextCache;
+import com.yuyuan.literature.service.LiteratureCountCache;
+import com.yuyuan.literature.service.LiteratureJobService;
+import com.yuyuan.literature.service.LlmGateway;
+import com.yuyuan.literature.service.LlmResilience;
+import com.yuyuan.literature.service.LlmResponseCache;
+import com.yuyuan.literature.service.PdfTextExtractor;
+import com.yuyuan.literature.service.PromptRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 运行监控控制器
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/monitor")
+@Tag(name = "运行监控", description = "导入流水线、后台任务等内部组件的运行指标")
+@RequiredArgsConstructor
+public class MonitorController {
+
+    private final ImportPipeline importPipeline;
+    private final LiteratureJobService literatureJobService;
+    private final ImportMetrics importMetrics;
+    private final LlmResponseCache llmResponseCache;
+    private final LiteratureSearchIndex literatureSearchIndex;
+    private final LiteratureCountCache literatureCountCache;
+    private final ExtractedTextCache extractedTextCache;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final PromptRegistry promptRegistry;
+    private final LlmGateway llmGateway;
+    private final LlmResilience llmResilience;
+
+    /**
+     * 导入流水线各阶段指标
+     */
+    @GetMapping("/pipeline")
+    @Operation(summary = "导入流水线指标", description = "各阶段的容量、执行中、排队、等待数量、平均等待时间及在线与批量任务各自的排队数和等待时间")
+    public Result<List<Map<String, Object>>> pipeline() {
+        return Result.success(importPipeline.snapshot());
+    }
+
+    /**
+     * 后台任务各状态数量
+     */
+    @GetMapping("/jobs")
+    @Operation(summary = "后台任务指标", description = "任务表中各状态的任务数量及当前节点标识")
+    public Result<Map<String, Object>> jobs() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("node", literatureJobService.getNodeId());
+        for (LiteratureJob.Status status : LiteratureJob.Status.values()) {
+            stats.put(status.name().toLowerCase(), literatureJobService.lambdaQuery()
+                    .eq(LiteratureJob::getStatus, status.getCode())
+                    .count());
+        }
+        return Result.success(stats);
+    }
+
+    /**
+     * 导入去重指标
+     */
+    @GetMapping("/imports")
+    @Operation(summary = "导入去重指标", description = "因内容重复而复用的导入次数、省去的大模型调用次数、文件写盘、实际解析次数、长文献分段生成的 token 统计及合并分类的调用次数和篇数")
+    public Result<Map<String, Object>> imports() {
+        return Result.success(importMetrics.snapshot());
+    }
+
+    /**
+     * 大模型响应缓存指标
+     */
+    @GetMapping("/llm-cache")
+    @Operation(summary = "大模型响应缓存指标", description = "缓存条目数、占用大小及命中、未命中、淘汰次数")
+    public Result<Map<String, Object>> llmCache() {
+        return Result.success(llmResponseCache.snapshot());
+    }
+
+    /**
+     * 大模型调用网关指标
+     */
+    @GetMapping("/llm-gateway")
+    @Operation(summary = "大模型调用网关指标", description = "当前自适应并发上限、执行中调用数、令牌桶余量、各来源执行中与排队数、平均与最长等待时间及限流、慢响应次数")
+    public Result<Map<String, Object>> llmGateway() {
+        return Result.success(llmGateway.snapshot());
+    }
+
+    /**
+     * 大模型调用容错指标
+     */
+    @GetMapping("/llm-resilience")
+    @Operation(summary = "大模型调用容错指标", description = "熔断状态、连续失败次数、重试、超时、对冲次数及各类调用的近期耗时分位")
+    public Result<Map<String, Object>> llmResilience() {
+        return Result.success(llmResilience.snapshot());
+    }
+
+    /**
+     * 全文索引指标
+     */
+    @GetMapping("/search-index")
+    @Operation(summary = "全文索引指标", description = "索引是否就绪、文献数、词项数及平均加权长度")
+    public Result<Map<String, Object>> searchIndex() {
+        return Result.success(literatureSearchIndex.snapshot());
+    }
+
+    /**
+     * 列表总数缓存指标
+     */
+    @GetMapping("/count-cache")
+    @Operation(summary = "列表总数缓存指标", description = "缓存条目数、当前代数及命中、未命中、近似返回、失效次数")
+    public Result<Map<String, Object>> countCache() {
+        return Result.success(literatureCountCache.snapshot());
+    }
+
+    /**
+     * 文件解析结果缓存指标
+     */
+    @GetMapping("/extract-cache")
+    @Operation(summary = "文件解析结果缓存指标", description = "内存层和磁盘层的条目数、占用大小及命中、共享解析、实际解析、淘汰次数")
+    public Result<Map<String, Object>> extractCache() {
+        return Result.success(extractedTextCache.snapshot());
+    }
+
+    /**
+     * PDF 文本提取指标
+     */
+    @GetMapping("/pdf-extract")
+    @Operation(summary = "PDF 文本提取指标", description = "按页并行提取的线程数、顺序与并行提取的文档数及页窗口任务数")
+    public Result<Map<String, Object>> pdfExtract() {
+        return Result.success(pdfTextExtractor.snapshot());
+    }
+
+    /**
+     * 提示词模板指标
+     */
+    @GetMapping("/prompts")
+    @Operation(summary = "提示词模板指标", description = "各模板的当前版本ID、来源、长度、加载时间及热加载、校验失败次数")
+    public Result<Map<String, Object>> prompts() {
+        return Result.success(promptRegistry.snapshot());
+    }
+}
@@ -24,4 +24,7 @@ public class BatchLiteratureImportRequest {
     @Schema(description = "文献文件列表", required = true)
     private List<MultipartFile> files;
 
+    @Schema(description = "是否按文件顺序推送处理事件，默认取 literature.batch.ordered 配置", example = "true")
+    private Boolean ordered;
+
 }
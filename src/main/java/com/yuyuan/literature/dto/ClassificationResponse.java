@@ -13,6 +13,11 @@ import java.util.List;
 @Data
 public class ClassificationResponse {
 
+    /**
+     * 批量分类时对应的文献序号，单篇分类时为空
+     */
+    private Integer id;
+
     /**
      * 分类标签
      */
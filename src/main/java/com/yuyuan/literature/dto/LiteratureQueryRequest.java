@@ -1,10 +1,13 @@
 package com.yuyuan.literature.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.yuyuan.literature.common.request.PageRequest;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,7 +22,7 @@ import java.util.List;
 public class LiteratureQueryRequest extends PageRequest {
 
     /**
-     * 关键词搜索（搜索文件名、描述、阅读指南）
+     * 关键词搜索（搜索文件名、描述、阅读指南和全文，未指定排序字段时按相关度排序）
      */
     @Schema(description = "关键词搜索", example = "人工智能")
     private String keyword;
@@ -30,6 +33,18 @@ public class LiteratureQueryRequest extends PageRequest {
     @Schema(description = "分类标签过滤", example = "[\"人工智能\", \"机器学习\"]")
     private List<String> tags;
 
+    /**
+     * 标签匹配方式：OR-包含任一标签（默认），AND-包含全部标签
+     */
+    @Schema(description = "标签匹配方式：OR-包含任一标签，AND-包含全部标签", example = "OR", allowableValues = {"OR", "AND"})
+    private String tagMode;
+
+    /**
+     * 排除标签：带有其中任一标签的文献不返回
+     */
+    @Schema(description = "排除标签", example = "[\"综述\"]")
+    private List<String> excludeTags;
+
     /**
      * 文件类型过滤
      */
@@ -53,4 +68,62 @@ public class LiteratureQueryRequest extends PageRequest {
      */
     @Schema(description = "结束时间", example = "2024-12-31")
     private String endDate;
+
+    /**
+     * 分页方式：OFFSET-按页码分页（默认），CURSOR-按游标分页
+     */
+    @Schema(description = "分页方式：OFFSET-按页码分页，CURSOR-按游标分页", example = "OFFSET", allowableValues = {"OFFSET", "CURSOR"})
+    private String paginationMode;
+
+    /**
+     * 游标分页时上一页返回的 nextCursor，首页不传
+     */
+    @Schema(description = "游标分页时上一页返回的 nextCursor，首页不传")
+    private String cursor;
+
+    /**
+     * 是否统计总数：按页码分页默认统计，按游标分页默认不统计
+     */
+    @Schema(description = "是否统计总数，按页码分页默认 true，按游标分页默认 false", example = "true")
+    private Boolean countTotal;
+
+    /**
+     * 总数统计方式：EXACT-精确统计（默认），ESTIMATED-允许返回近似值以加快响应
+     */
+    @Schema(description = "总数统计方式：EXACT-精确统计，ESTIMATED-允许返回近似值", example = "EXACT", allowableValues = {"EXACT", "ESTIMATED"})
+    private String countMode;
+
+    /**
+     * 是否按游标分页
+     */
+    @JsonIgnore
+    public boolean isCursorPagination() {
+        return "CURSOR".equalsIgnoreCase(paginationMode) || (cursor != null && !cursor.isBlank());
+    }
+
+    /**
+     * 创建时间下界（含），由 startDate 换算，SQL 直接与 create_time 比较
+     */
+    @JsonIgnore
+    public LocalDateTime getCreateTimeFrom() {
+        return startDate != null && !startDate.isBlank() ? LocalDate.parse(startDate.trim()).atStartOfDay() : null;
+    }
+
+    /**
+     * 创建时间上界（不含），为 endDate 次日零点
+     */
+    @JsonIgnore
+    public LocalDateTime getCreateTimeTo() {
+        return endDate != null && !endDate.isBlank()
+                ? LocalDate.parse(endDate.trim()).plusDays(1).atStartOfDay()
+                : null;
+    }
+
+    /**
+     * 是否允许返回近似总数
+     */
+    @JsonIgnore
+    public boolean isEstimatedCount() {
+        return "ESTIMATED".equalsIgnoreCase(countMode);
+    }
 }
@@ -0,0 +1,27 @@
+package com.yuyuan.literature.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 标签分面统计 VO
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Data
+@Schema(description = "标签分面统计")
+public class TagFacetVO {
+
+    /**
+     * 标签
+     */
+    @Schema(description = "标签")
+    private String tag;
+
+    /**
+     * 带有该标签的文献数
+     */
+    @Schema(description = "带有该标签的文献数")
+    private Long count;
+}
@@ -0,0 +1,60 @@
+package com.yuyuan.literature.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文献内容实体类
+ * <p>
+ * 解析出的全文和阅读指南体积大、读取少，与列表和过滤使用的 {@link Literature} 元数据分表保存，
+ * 只在查看详情、重新生成或重建索引时按文献ID读取。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Data
+@TableName("literature_content")
+@Schema(description = "文献内容")
+public class LiteratureContent {
+
+    /**
+     * 文献ID
+     */
+    @TableId(value = "literature_id", type = IdType.INPUT)
+    @Schema(description = "文献ID")
+    private Long literatureId;
+
+    /**
+     * 解析出的文献全文
+     */
+    @TableField("full_text")
+    @Schema(description = "文献全文")
+    private String fullText;
+
+    /**
+     * 阅读指南内容
+     */
+    @TableField("reading_guide")
+    @Schema(description = "阅读指南内容")
+    private String readingGuide;
+
+    /**
+     * 生成阅读指南所用的提示词模板ID
+     */
+    @TableField("guide_prompt")
+    @Schema(description = "生成阅读指南所用的提示词模板ID")
+    private String guidePrompt;
+
+    /**
+     * 更新时间
+     */
+    @TableField("update_time")
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+}
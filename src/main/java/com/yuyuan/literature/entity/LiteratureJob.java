@@ -0,0 +1,148 @@
+package com.yuyuan.literature.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文献处理任务实体类
+ * <p>
+ * 任务持久化在数据库中，由工作节点以租约方式领取，节点重启后未完成的任务会在租约过期后被重新领取。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("literature_job")
+@Schema(description = "文献处理任务")
+public class LiteratureJob {
+
+    /**
+     * 主键ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    @Schema(description = "主键ID")
+    private Long id;
+
+    /**
+     * 文献ID
+     */
+    @TableField("literature_id")
+    @Schema(description = "文献ID")
+    private Long literatureId;
+
+    /**
+     * 任务类型：GUIDE-生成阅读指南，CLASSIFY-生成分类
+     */
+    @TableField("job_type")
+    @Schema(description = "任务类型：GUIDE-生成阅读指南，CLASSIFY-生成分类")
+    private String jobType;
+
+    /**
+     * 调度来源：INTERACTIVE-在线请求，BATCH-批量导入与后台任务
+     */
+    @TableField("lane")
+    @Schema(description = "调度来源：INTERACTIVE-在线请求，BATCH-批量导入与后台任务")
+    private String lane;
+
+    /**
+     * 状态：0-待执行，1-执行中，2-已完成，3-已失败
+     */
+    @TableField("status")
+    @Schema(description = "状态：0-待执行，1-执行中，2-已完成，3-已失败")
+    private Integer status;
+
+    /**
+     * 已尝试次数
+     */
+    @TableField("attempts")
+    @Schema(description = "已尝试次数")
+    private Integer attempts;
+
+    /**
+     * 租约持有者（节点标识）
+     */
+    @TableField("lease_owner")
+    @Schema(description = "租约持有者")
+    private String leaseOwner;
+
+    /**
+     * 租约过期时间
+     */
+    @TableField("lease_expire_time")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @Schema(description = "租约过期时间")
+    private LocalDateTime leaseExpireTime;
+
+    /**
+     * 最近心跳时间
+     */
+    @TableField("heartbeat_time")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @Schema(description = "最近心跳时间")
+    private LocalDateTime heartbeatTime;
+
+    /**
+     * 最早可执行时间（失败重试退避）
+     */
+    @TableField("next_run_time")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @Schema(description = "最早可执行时间")
+    private LocalDateTime nextRunTime;
+
+    /**
+     * 最近一次失败原因
+     */
+    @TableField("last_error")
+    @Schema(description = "最近一次失败原因")
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @Schema(description = "创建时间")
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "update_time", fill = FieldFill.INSERT_UPDATE)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+
+    /**
+     * 任务类型枚举
+     */
+    public enum Type {
+        GUIDE,
+        CLASSIFY
+    }
+
+    /**
+     * 状态枚举
+     */
+    @Getter
+    public enum Status {
+        PENDING(0, "待执行"),
+        RUNNING(1, "执行中"),
+        DONE(2, "已完成"),
+        FAILED(3, "已失败");
+
+        private final Integer code;
+        private final String desc;
+
+        Status(Integer code, String desc) {
+            this.code = code;
+            this.desc = desc;
+        }
+    }
+}
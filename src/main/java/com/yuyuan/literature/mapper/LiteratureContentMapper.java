@@ -0,0 +1,91 @@
+package com.yuyuan.literature.mapper;
+
+import com.yuyuan.literature.entity.LiteratureContent;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 文献内容 Mapper 接口
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Mapper
+public interface LiteratureContentMapper {
+
+    /**
+     * 写入新文献的全文
+     *
+     * @param literatureId 文献ID
+     * @param fullText     全文
+     * @return 影响行数
+     */
+    int insertContent(@Param("literatureId") Long literatureId, @Param("fullText") String fullText);
+
+    /**
+     * 复制已有文献的全文和阅读指南
+     *
+     * @param sourceId 来源文献ID
+     * @param targetId 新文献ID
+     * @return 影响行数，来源没有内容时为 0
+     */
+    int copyContent(@Param("sourceId") Long sourceId, @Param("targetId") Long targetId);
+
+    /**
+     * 查询阅读指南（只填充 literatureId 和 readingGuide）
+     *
+     * @param literatureId 文献ID
+     * @return 文献内容，没有内容行时为 null
+     */
+    LiteratureContent selectReadingGuide(@Param("literatureId") Long literatureId);
+
+    /**
+     * 查询全文（只填充 literatureId 和 fullText）
+     *
+     * @param literatureId 文献ID
+     * @return 文献内容，没有内容行时为 null
+     */
+    LiteratureContent selectFullText(@Param("literatureId") Long literatureId);
+
+    /**
+     * 批量查询阅读指南（只填充 literatureId 和 readingGuide）
+     *
+     * @param ids 文献ID
+     * @return 有阅读指南的文献内容
+     */
+    List<LiteratureContent> selectReadingGuides(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 写入或覆盖阅读指南
+     *
+     * @param literatureId 文献ID
+     * @param readingGuide 阅读指南，为 null 时清空
+     * @param promptId     生成所用的提示词模板ID，清空时为 null
+     * @return 影响行数
+     */
+    int mergeReadingGuide(@Param("literatureId") Long literatureId, @Param("readingGuide") String readingGuide,
+                          @Param("promptId") String promptId);
+
+    /**
+     * 写入或覆盖全文
+     *
+     * @param literatureId 文献ID
+     * @param fullText     全文
+     * @return 影响行数
+     */
+    int mergeFullText(@Param("literatureId") Long literatureId, @Param("fullText") String fullText);
+
+    /**
+     * 追加阅读指南内容（流式写入），内容行不存在时新建
+     * <p>
+     * 追加的内容不压缩，生成完成后需调用 {@link #mergeReadingGuide} 重写为压缩格式
+     *
+     * @param literatureId 文献ID
+     * @param chunk        追加的内容
+     * @return 影响行数
+     */
+    int appendReadingGuide(@Param("literatureId") Long literatureId, @Param("chunk") String chunk);
+}
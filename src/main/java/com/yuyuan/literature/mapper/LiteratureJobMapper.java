@@ -0,0 +1,73 @@
+package com.yuyuan.literature.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.yuyuan.literature.entity.LiteratureJob;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 文献处理任务 Mapper 接口
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Mapper
+public interface LiteratureJobMapper extends BaseMapper<LiteratureJob> {
+
+    /**
+     * 查询可领取的任务ID：到期的待执行任务，或租约已过期的执行中任务
+     *
+     * @param now   当前时间
+     * @param limit 最大数量
+     * @return 任务ID列表
+     */
+    List<Long> selectClaimableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 领取任务，仅当任务仍处于可领取状态时成功
+     *
+     * @param id          任务ID
+     * @param owner       租约持有者
+     * @param leaseExpire 租约过期时间
+     * @param now         当前时间
+     * @return 影响行数，1 表示领取成功
+     */
+    int claim(@Param("id") Long id, @Param("owner") String owner,
+              @Param("leaseExpire") LocalDateTime leaseExpire, @Param("now") LocalDateTime now);
+
+    /**
+     * 续约当前节点持有的任务
+     *
+     * @param owner       租约持有者
+     * @param ids         任务ID集合
+     * @param leaseExpire 新的租约过期时间
+     * @param now         当前时间
+     * @return 影响行数
+     */
+    int heartbeat(@Param("owner") String owner, @Param("ids") Collection<Long> ids,
+                  @Param("leaseExpire") LocalDateTime leaseExpire, @Param("now") LocalDateTime now);
+
+    /**
+     * 结束当前节点持有的任务
+     *
+     * @param id          任务ID
+     * @param owner       租约持有者
+     * @param status      结束后的状态
+     * @param lastError   失败原因
+     * @param nextRunTime 重试时间
+     * @return 影响行数
+     */
+    int finish(@Param("id") Long id, @Param("owner") String owner, @Param("status") Integer status,
+               @Param("lastError") String lastError, @Param("nextRunTime") LocalDateTime nextRunTime);
+
+    /**
+     * 查询处于处理中但没有未完成任务的文献，以及各自需要补建的任务类型
+     *
+     * @return 只填充文献ID和任务类型的任务列表
+     */
+    List<LiteratureJob> selectOrphanJobs();
+}
@@ -8,6 +8,9 @@ import com.yuyuan.literature.entity.Literature;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 文献 Mapper 接口
  *
@@ -22,7 +25,52 @@ public interface LiteratureMapper extends BaseMapper<Literature> {
      *
      * @param page    分页参数
      * @param request 查询条件
+     * @param ids     全文索引命中的文献ID，为 null 时按关键词模糊匹配
      * @return 分页结果
      */
-    IPage<Literature> selectLiteraturePage(Page<Literature> page, @Param("req") LiteratureQueryRequest request);
+    IPage<Literature> selectLiteraturePage(Page<Literature> page, @Param("req") LiteratureQueryRequest request,
+                                           @Param("ids") Collection<Long> ids);
+
+    /**
+     * 游标分页查询文献，从上一页最后一条记录之后继续读取
+     *
+     * @param request 查询条件
+     * @param ids     全文索引命中的文献ID，为 null 时按关键词模糊匹配
+     * @param column  排序列，只能是固定的列名
+     * @param desc    是否降序
+     * @param value   上一页最后一条记录的排序列值，首页为 null
+     * @param lastId  上一页最后一条记录的ID
+     * @param limit   读取条数
+     * @return 文献列表
+     */
+    List<Literature> selectLiteratureSeek(@Param("req") LiteratureQueryRequest request,
+                                          @Param("ids") Collection<Long> ids,
+                                          @Param("column") String column, @Param("desc") boolean desc,
+                                          @Param("value") Object value, @Param("lastId") Long lastId,
+                                          @Param("limit") int limit);
+
+    /**
+     * 统计满足条件的文献数
+     *
+     * @param request 查询条件
+     * @param ids     全文索引命中的文献ID，为 null 时按关键词模糊匹配
+     * @return 文献数
+     */
+    long selectLiteratureCount(@Param("req") LiteratureQueryRequest request, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 读取数据库维护的文献表行数估计值，不扫描数据
+     *
+     * @return 行数估计值（包含已逻辑删除的记录），数据库未提供时为 null
+     */
+    Long selectLiteratureEstimate();
+
+    /**
+     * 查询满足条件的文献ID
+     *
+     * @param request 查询条件
+     * @param ids     全文索引命中的文献ID，为 null 时按关键词模糊匹配
+     * @return 文献ID
+     */
+    List<Long> selectLiteratureIds(@Param("req") LiteratureQueryRequest request, @Param("ids") Collection<Long> ids);
 }
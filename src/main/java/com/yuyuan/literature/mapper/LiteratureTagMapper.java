@@ -0,0 +1,47 @@
+package com.yuyuan.literature.mapper;
+
+import com.yuyuan.literature.dto.LiteratureQueryRequest;
+import com.yuyuan.literature.dto.TagFacetVO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 文献标签关联 Mapper 接口
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Mapper
+public interface LiteratureTagMapper {
+
+    /**
+     * 删除文献的全部标签
+     *
+     * @param literatureId 文献ID
+     * @return 影响行数
+     */
+    int deleteByLiteratureId(@Param("literatureId") Long literatureId);
+
+    /**
+     * 批量写入文献标签
+     *
+     * @param literatureId 文献ID
+     * @param tags         已去重的标签
+     * @return 影响行数
+     */
+    int insertTags(@Param("literatureId") Long literatureId, @Param("tags") Collection<String> tags);
+
+    /**
+     * 统计满足查询条件的文献中各标签出现的次数
+     *
+     * @param request 查询条件
+     * @param ids     全文索引命中的文献ID，为 null 时按关键词模糊匹配
+     * @param limit   最多返回的标签数
+     * @return 按次数从多到少排列的标签
+     */
+    List<TagFacetVO> selectFacets(@Param("req") LiteratureQueryRequest request, @Param("ids") Collection<Long> ids,
+                                  @Param("limit") int limit);
+}
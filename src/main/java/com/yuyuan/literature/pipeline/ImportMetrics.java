@@ -0,0 +1,103 @@
+package com.yuyuan.literature.pipeline;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文献导入计数器
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Component
+public class ImportMetrics {
+
+    private final AtomicLong deduplicatedImports = new AtomicLong();
+    private final AtomicLong llmCallsSaved = new AtomicLong();
+    private final AtomicLong filesSaved = new AtomicLong();
+    private final AtomicLong extractions = new AtomicLong();
+    private final AtomicLong mapReduceGuides = new AtomicLong();
+    private final AtomicLong mapReduceChunks = new AtomicLong();
+    private final AtomicLong mapPromptTokens = new AtomicLong();
+    private final AtomicLong reducePromptTokens = new AtomicLong();
+    private final AtomicLong promptTokensSaved = new AtomicLong();
+    private final AtomicLong batchClassifications = new AtomicLong();
+    private final AtomicLong batchClassifiedItems = new AtomicLong();
+    private final AtomicLong batchFallbackItems = new AtomicLong();
+
+    /**
+     * 记录一次按内容哈希复用已有结果的导入
+     *
+     * @param savedLlmCalls 因复用而省去的大模型调用次数
+     */
+    public void recordDeduplicated(int savedLlmCalls) {
+        deduplicatedImports.incrementAndGet();
+        llmCallsSaved.addAndGet(savedLlmCalls);
+    }
+
+    /**
+     * 记录一次上传文件写盘
+     */
+    public void recordFileSaved() {
+        filesSaved.incrementAndGet();
+    }
+
+    /**
+     * 记录一次实际执行的文件解析（未命中解析结果缓存）
+     */
+    public void recordExtraction() {
+        extractions.incrementAndGet();
+    }
+
+    /**
+     * 记录一次分段摘要后汇总生成的阅读指南，token 数均为估算值
+     *
+     * @param chunks             分块数
+     * @param fullPromptTokens   整篇一次提交时的用户内容 token 数
+     * @param mapPromptTokens    各分块摘要调用的用户内容 token 数之和
+     * @param reducePromptTokens 汇总生成调用的用户内容 token 数
+     */
+    public void recordMapReduce(int chunks, long fullPromptTokens, long mapPromptTokens, long reducePromptTokens) {
+        mapReduceGuides.incrementAndGet();
+        mapReduceChunks.addAndGet(chunks);
+        this.mapPromptTokens.addAndGet(mapPromptTokens);
+        this.reducePromptTokens.addAndGet(reducePromptTokens);
+        promptTokensSaved.addAndGet(fullPromptTokens - reducePromptTokens);
+    }
+
+    /**
+     * 记录一次多篇合并的分类调用
+     *
+     * @param items      本批提交给模型的篇数
+     * @param classified 从响应中解析出分类的篇数，其余篇逐篇单独分类
+     */
+    public void recordBatchClassification(int items, int classified) {
+        batchClassifications.incrementAndGet();
+        batchClassifiedItems.addAndGet(classified);
+        batchFallbackItems.addAndGet(items - classified);
+    }
+
+    /**
+     * 计数快照
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("deduplicatedImports", deduplicatedImports.get());
+        stats.put("llmCallsSaved", llmCallsSaved.get());
+        stats.put("filesSaved", filesSaved.get());
+        stats.put("extractions", extractions.get());
+        stats.put("mapReduceGuides", mapReduceGuides.get());
+        stats.put("mapReduceChunks", mapReduceChunks.get());
+        stats.put("mapPromptTokens", mapPromptTokens.get());
+        stats.put("reducePromptTokens", reducePromptTokens.get());
+        // 最终生成指南的调用比整篇一次提交少带的 token 数
+        stats.put("promptTokensSaved", promptTokensSaved.get());
+        stats.put("batchClassifications", batchClassifications.get());
+        stats.put("batchClassifiedItems", batchClassifiedItems.get());
+        stats.put("batchFallbackItems", batchFallbackItems.get());
+        return stats;
+    }
+}
@@ -0,0 +1,116 @@
+package com.yuyuan.literature.pipeline;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文献导入流水线
+ * <p>
+ * 导入按 接收 → 解析 →（长文献分段摘要）→ 生成指南 → 分类 → 落库 分阶段执行，每个阶段使用独立的执行器：
+ * 文件写盘使用小线程池，PDF/Word 解析使用与 CPU 核数相同的线程池，
+ * 大模型调用使用虚拟线程，数据库写入使用不超过连接池大小的线程池。
+ * <p>
+ * 在线上传与批量导入/后台任务共用各阶段，每个阶段按 {@link Lane} 加权轮流放行并为在线请求保留位置，
+ * 各来源的排队等待时间见 {@link #snapshot()}。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ImportPipeline {
+
+    private final PipelineStage ingest;
+    private final PipelineStage extract;
+    private final PipelineStage summarize;
+    private final PipelineStage guide;
+    private final PipelineStage classify;
+    private final PipelineStage persist;
+
+    public ImportPipeline(@Value("${literature.pipeline.ingest-threads:2}") int ingestThreads,
+                          @Value("${literature.pipeline.extract-threads:0}") int extractThreads,
+                          @Value("${literature.pipeline.persist-threads:4}") int persistThreads,
+                          @Value("${literature.pipeline.llm-max-in-flight:16}") int llmMaxInFlight,
+                          @Value("${literature.pipeline.queue-capacity:32}") int queueCapacity,
+                          @Value("${literature.pipeline.waiting-capacity:1024}") int waitingCapacity,
+                          @Value("${literature.pipeline.interactive-weight:3}") int interactiveWeight,
+                          @Value("${literature.pipeline.batch-weight:1}") int batchWeight,
+                          @Value("${literature.pipeline.interactive-reserve:1}") int interactiveReserve) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        PipelineStage.Sharing sharing = new PipelineStage.Sharing(interactiveWeight, batchWeight, interactiveReserve);
+        this.ingest = PipelineStage.platform("ingest", ingestThreads, queueCapacity, waitingCapacity, sharing);
+        this.extract = PipelineStage.platform("extract", extractThreads > 0 ? extractThreads : cores, queueCapacity,
+                waitingCapacity, sharing);
+        this.summarize = PipelineStage.virtual("summarize", llmMaxInFlight, waitingCapacity, sharing);
+        this.guide = PipelineStage.virtual("guide", llmMaxInFlight, waitingCapacity, sharing);
+        this.classify = PipelineStage.virtual("classify", llmMaxInFlight, waitingCapacity, sharing);
+        this.persist = PipelineStage.platform("persist", persistThreads, queueCapacity, waitingCapacity, sharing);
+        log.info("导入流水线初始化完成，解析线程数: {}, 落库线程数: {}, 大模型最大并发: {}, 在线/批量权重: {}/{}, 在线保留: {}",
+                extractThreads > 0 ? extractThreads : cores, persistThreads, llmMaxInFlight,
+                interactiveWeight, batchWeight, interactiveReserve);
+    }
+
+    /**
+     * 接收阶段：上传文件写盘
+     */
+    public PipelineStage ingest() {
+        return ingest;
+    }
+
+    /**
+     * 解析阶段：PDF/Word/Markdown 文本提取
+     */
+    public PipelineStage extract() {
+        return extract;
+    }
+
+    /**
+     * 分段摘要阶段：长文献各分块的大模型调用
+     * <p>
+     * 与生成指南阶段分开计数，指南阶段的任务等待分段摘要结果时不会占满自己所在阶段的容量。
+     */
+    public PipelineStage summarize() {
+        return summarize;
+    }
+
+    /**
+     * 阅读指南生成阶段：大模型调用
+     */
+    public PipelineStage guide() {
+        return guide;
+    }
+
+    /**
+     * 分类阶段：大模型调用
+     */
+    public PipelineStage classify() {
+        return classify;
+    }
+
+    /**
+     * 落库阶段：数据库写入
+     */
+    public PipelineStage persist() {
+        return persist;
+    }
+
+    /**
+     * 各阶段运行指标
+     */
+    public List<Map<String, Object>> snapshot() {
+        return List.of(ingest.snapshot(), extract.snapshot(), summarize.snapshot(), guide.snapshot(), classify.snapshot(),
+                persist.snapshot());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (PipelineStage stage : List.of(ingest, extract, summarize, guide, classify, persist)) {
+            stage.shutdown();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.yuyuan.literature.pipeline;
+
+/**
+ * 工作来源
+ * <p>
+ * 流水线各阶段和大模型调用网关按来源分别排队、加权轮流放行，并为在线请求保留少量位置，
+ * 大批量导入不会让正在等待页面结果的用户一直排在后面。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public enum Lane {
+    /**
+     * 用户在线上传，等待结果的是正在查看页面的用户
+     */
+    INTERACTIVE,
+    /**
+     * 批量导入与后台任务
+     */
+    BATCH
+}
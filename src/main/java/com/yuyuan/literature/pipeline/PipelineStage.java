@@ -0,0 +1,344 @@
+package com.yuyuan.literature.pipeline;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导入流水线中的一个阶段
+ * <p>
+ * 每个阶段拥有独立的执行器，同时在途（排队 + 执行中）的任务数不超过 {@code capacity}。
+ * 超出容量的任务不会阻塞提交线程，而是停放在阶段入口等待空位，
+ * 这样上下游阶段互相提交时不会因为线程互相等待而死锁。入口每个来源最多停放 {@code waitingCapacity} 个任务，
+ * 已满时提交以 {@link RejectedExecutionException} 失败（经调度器提交的 Reactor 流以该异常结束），不会无限堆积。
+ * <p>
+ * 入口按 {@link Lane} 分别排队，有空位时按权重做平滑加权轮询；批量任务同时在途的数量另有上限，
+ * 为在线请求留出 interactive-reserve 个位置（平台线程阶段按线程数计，批量任务不会停在执行器队列里），
+ * 未指定来源的任务按在线请求排队。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+public final class PipelineStage implements Executor {
+
+    /**
+     * 未指定时每个来源在入口最多停放的任务数
+     */
+    public static final int DEFAULT_WAITING_CAPACITY = 1024;
+
+    @Getter
+    private final String name;
+    private final ExecutorService executor;
+    private final int capacity;
+    private final int batchCapacity;
+    private final int waitingCapacity;
+    private final EnumMap<Lane, Integer> weights = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, Scheduler> schedulers = new EnumMap<>(Lane.class);
+
+    /**
+     * 以下状态都在 lock 上同步
+     */
+    private final Object lock = new Object();
+    private final EnumMap<Lane, ArrayDeque<Runnable>> waiting = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, Integer> credits = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, Integer> laneInFlight = new EnumMap<>(Lane.class);
+    private int waitingCount;
+    private int maxWaiting;
+    private int inFlight;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final EnumMap<Lane, AtomicLong> started = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, AtomicLong> laneWaitNanos = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, AtomicLong> laneMaxWaitNanos = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, AtomicLong> rejected = new EnumMap<>(Lane.class);
+
+    private PipelineStage(String name, ExecutorService executor, int capacity, int batchCapacity,
+                          int waitingCapacity, Sharing sharing) {
+        this.name = name;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.batchCapacity = Math.max(1, Math.min(capacity, batchCapacity));
+        this.waitingCapacity = Math.max(1, waitingCapacity);
+        weights.put(Lane.INTERACTIVE, Math.max(1, sharing.interactiveWeight()));
+        weights.put(Lane.BATCH, Math.max(1, sharing.batchWeight()));
+        for (Lane lane : Lane.values()) {
+            waiting.put(lane, new ArrayDeque<>());
+            credits.put(lane, 0);
+            laneInFlight.put(lane, 0);
+            started.put(lane, new AtomicLong());
+            laneWaitNanos.put(lane, new AtomicLong());
+            laneMaxWaitNanos.put(lane, new AtomicLong());
+            rejected.put(lane, new AtomicLong());
+            schedulers.put(lane, Schedulers.fromExecutor(task -> execute(lane, task)));
+        }
+    }
+
+    /**
+     * 各来源的权重与为在线请求保留的位置数
+     *
+     * @param interactiveWeight  在线请求的权重
+     * @param batchWeight        批量任务的权重
+     * @param interactiveReserve 批量任务不能占用的位置数
+     */
+    public record Sharing(int interactiveWeight, int batchWeight, int interactiveReserve) {
+
+        /**
+         * 不区分来源：权重相同，不保留位置
+         */
+        public static final Sharing NONE = new Sharing(1, 1, 0);
+    }
+
+    /**
+     * 固定大小平台线程池阶段，适用于 CPU 密集或连接数受限的工作
+     *
+     * @param name          阶段名称
+     * @param threads       线程数
+     * @param queueCapacity 执行器队列容量
+     */
+    public static PipelineStage platform(String name, int threads, int queueCapacity) {
+        return platform(name, threads, queueCapacity, Sharing.NONE);
+    }
+
+    /**
+     * 固定大小平台线程池阶段，按来源分配位置
+     *
+     * @param name          阶段名称
+     * @param threads       线程数
+     * @param queueCapacity 执行器队列容量
+     * @param sharing       各来源的权重与保留位置
+     */
+    public static PipelineStage platform(String name, int threads, int queueCapacity, Sharing sharing) {
+        return platform(name, threads, queueCapacity, DEFAULT_WAITING_CAPACITY, sharing);
+    }
+
+    /**
+     * 固定大小平台线程池阶段，按来源分配位置并限制入口排队数
+     *
+     * @param name            阶段名称
+     * @param threads         线程数
+     * @param queueCapacity   执行器队列容量
+     * @param waitingCapacity 每个来源在入口最多停放的任务数
+     * @param sharing         各来源的权重与保留位置
+     */
+    public static PipelineStage platform(String name, int threads, int queueCapacity, int waitingCapacity,
+                                         Sharing sharing) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pipeline-" + name + "-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        int batchCapacity = sharing.interactiveReserve() > 0
+                ? threads - sharing.interactiveReserve()
+                : threads + queueCapacity;
+        return new PipelineStage(name, executor, threads + queueCapacity, batchCapacity, waitingCapacity, sharing);
+    }
+
+    /**
+     * 虚拟线程阶段，适用于等待远程响应的 I/O 工作
+     *
+     * @param name        阶段名称
+     * @param maxInFlight 同时在途的最大任务数
+     */
+    public static PipelineStage virtual(String name, int maxInFlight) {
+        return virtual(name, maxInFlight, Sharing.NONE);
+    }
+
+    /**
+     * 虚拟线程阶段，按来源分配位置
+     *
+     * @param name        阶段名称
+     * @param maxInFlight 同时在途的最大任务数
+     * @param sharing     各来源的权重与保留位置
+     */
+    public static PipelineStage virtual(String name, int maxInFlight, Sharing sharing) {
+        return virtual(name, maxInFlight, DEFAULT_WAITING_CAPACITY, sharing);
+    }
+
+    /**
+     * 虚拟线程阶段，按来源分配位置并限制入口排队数
+     *
+     * @param name            阶段名称
+     * @param maxInFlight     同时在途的最大任务数
+     * @param waitingCapacity 每个来源在入口最多停放的任务数
+     * @param sharing         各来源的权重与保留位置
+     */
+    public static PipelineStage virtual(String name, int maxInFlight, int waitingCapacity, Sharing sharing) {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("pipeline-" + name + "-", 1).factory());
+        return new PipelineStage(name, executor, maxInFlight, maxInFlight - sharing.interactiveReserve(),
+                waitingCapacity, sharing);
+    }
+
+    /**
+     * 本阶段对应的 Reactor 调度器，用于 {@code subscribeOn} / {@code publishOn}，任务按在线请求排队
+     */
+    public Scheduler scheduler() {
+        return schedulers.get(Lane.INTERACTIVE);
+    }
+
+    /**
+     * 按来源排队的 Reactor 调度器
+     */
+    public Scheduler scheduler(Lane lane) {
+        return schedulers.get(lane);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        execute(Lane.INTERACTIVE, task);
+    }
+
+    /**
+     * 提交任务，在所属来源的队列中等待空位
+     *
+     * @throws RejectedExecutionException 该来源在入口停放的任务已达到 waitingCapacity
+     */
+    public void execute(Lane lane, Runnable task) {
+        long enqueuedAt = System.nanoTime();
+        Runnable timed = () -> {
+            long waited = System.nanoTime() - enqueuedAt;
+            waitNanos.addAndGet(waited);
+            started.get(lane).incrementAndGet();
+            laneWaitNanos.get(lane).addAndGet(waited);
+            laneMaxWaitNanos.get(lane).accumulateAndGet(waited, Math::max);
+            task.run();
+        };
+        synchronized (lock) {
+            if (waiting.get(lane).size() >= waitingCapacity) {
+                rejected.get(lane).incrementAndGet();
+                throw new RejectedExecutionException("流水线阶段 " + name + " 排队已满（"
+                        + lane.name().toLowerCase(Locale.ROOT) + "，" + waitingCapacity + "）");
+            }
+            waiting.get(lane).add(timed);
+            maxWaiting = Math.max(maxWaiting, ++waitingCount);
+        }
+        drain();
+    }
+
+    private void drain() {
+        List<Map.Entry<Lane, Runnable>> ready = new ArrayList<>();
+        synchronized (lock) {
+            while (inFlight < capacity) {
+                Lane lane = nextLane();
+                if (lane == null) {
+                    break;
+                }
+                ready.add(Map.entry(lane, waiting.get(lane).poll()));
+                waitingCount--;
+                inFlight++;
+                laneInFlight.merge(lane, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<Lane, Runnable> next : ready) {
+            executor.execute(() -> run(next.getKey(), next.getValue()));
+        }
+    }
+
+    /**
+     * 平滑加权轮询：每轮给有排队且未达到占用上限的来源加上各自的权重，选累计最高者并减去本轮权重总和
+     */
+    private Lane nextLane() {
+        int total = 0;
+        Lane selected = null;
+        for (Lane lane : Lane.values()) {
+            if (waiting.get(lane).isEmpty() || lane == Lane.BATCH && laneInFlight.get(lane) >= batchCapacity) {
+                continue;
+            }
+            int weight = weights.get(lane);
+            total += weight;
+            credits.merge(lane, weight, Integer::sum);
+            if (selected == null || credits.get(lane) > credits.get(selected)) {
+                selected = lane;
+            }
+        }
+        if (selected != null) {
+            credits.merge(selected, -total, Integer::sum);
+        }
+        return selected;
+    }
+
+    private void run(Lane lane, Runnable task) {
+        active.incrementAndGet();
+        try {
+            task.run();
+            completed.incrementAndGet();
+        } catch (Throwable e) {
+            failed.incrementAndGet();
+            log.warn("流水线阶段 {} 执行任务失败", name, e);
+        } finally {
+            active.decrementAndGet();
+            synchronized (lock) {
+                inFlight--;
+                laneInFlight.merge(lane, -1, Integer::sum);
+            }
+            drain();
+        }
+    }
+
+    /**
+     * 阶段运行指标快照
+     */
+    public Map<String, Object> snapshot() {
+        long finished = completed.get() + failed.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("stage", name);
+        stats.put("capacity", capacity);
+        stats.put("batchCapacity", batchCapacity);
+        stats.put("waitingCapacity", waitingCapacity);
+        synchronized (lock) {
+            stats.put("active", active.get());
+            stats.put("queued", inFlight - active.get());
+            stats.put("waiting", waitingCount);
+            stats.put("maxWaiting", maxWaiting);
+        }
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("avgWaitMillis", finished == 0 ? 0 : waitNanos.get() / finished / 1_000_000);
+        for (Lane lane : Lane.values()) {
+            String prefix = lane.name().toLowerCase(Locale.ROOT);
+            long count = started.get(lane).get();
+            synchronized (lock) {
+                stats.put(prefix + "Waiting", waiting.get(lane).size());
+                stats.put(prefix + "InFlight", laneInFlight.get(lane));
+            }
+            stats.put(prefix + "Started", count);
+            stats.put(prefix + "AvgWaitMillis", count == 0 ? 0 : laneWaitNanos.get(lane).get() / count / 1_000_000);
+            stats.put(prefix + "MaxWaitMillis", laneMaxWaitNanos.get(lane).get() / 1_000_000);
+            stats.put(prefix + "Rejected", rejected.get(lane).get());
+        }
+        return stats;
+    }
+
+    /**
+     * 停止接收任务并关闭执行器
+     */
+    public void shutdown() {
+        schedulers.values().forEach(Scheduler::dispose);
+        executor.shutdown();
+    }
+}
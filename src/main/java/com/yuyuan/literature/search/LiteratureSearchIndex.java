@@ -0,0 +1,278 @@
+package com.yuyuan.literature.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 文献全文倒排索引
+ * <p>
+ * 对文件名、描述、阅读指南和解析出的全文分字段建立词频，检索时按字段权重合并后以 BM25 打分。
+ * 索引只保存在内存中，随文献创建、阅读指南生成和分类更新增量维护，启动时由
+ * {@link SearchIndexLoader} 从数据库和原始文件重建。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Component
+public class LiteratureSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * 索引字段及其权重
+     */
+    public enum Field {
+        NAME(3.0),
+        DESCRIPTION(2.0),
+        GUIDE(1.0),
+        TEXT(1.0);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 检索结果
+     *
+     * @param ids       按相关度从高到低排列的文献ID
+     * @param truncated 命中数超过 {@code literature.search.max-hits}，只保留了相关度最高的部分
+     */
+    public record Hits(List<Long> ids, boolean truncated) {
+
+        private static final Hits EMPTY = new Hits(List.of(), false);
+    }
+
+    private final int maxHits;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+    private volatile boolean ready;
+
+    public LiteratureSearchIndex(@Value("${literature.search.max-hits:1000}") int maxHits) {
+        this.maxHits = maxHits;
+    }
+
+    /**
+     * 替换文献某个字段的索引内容
+     *
+     * @param id    文献ID
+     * @param field 字段
+     * @param text  字段内容，null 表示清空
+     */
+    public void index(Long id, Field field, String text) {
+        index(id, field, new Terms().add(text));
+    }
+
+    /**
+     * 用逐段累计的词频替换文献某个字段的索引内容
+     *
+     * @param id    文献ID
+     * @param field 字段
+     * @param terms 累计的词频，可以用于多篇文献
+     */
+    public void index(Long id, Field field, Terms terms) {
+        lock.writeLock().lock();
+        try {
+            replace(id, field, new HashMap<>(terms.frequencies));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 把来源文献某个字段的索引复制给另一篇文献，用于内容相同的导入
+     */
+    public void copy(Long sourceId, Long targetId, Field field) {
+        lock.writeLock().lock();
+        try {
+            Document source = documents.get(sourceId);
+            if (source != null && source.frequencies.containsKey(field)) {
+                replace(targetId, field, new HashMap<>(source.frequencies.get(field)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 检索包含关键词全部词项的文献
+     *
+     * @param keyword 关键词
+     * @return 相关度最高的至多 {@code literature.search.max-hits} 篇文献
+     */
+    public Hits search(String keyword) {
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(keyword));
+        if (terms.isEmpty()) {
+            return Hits.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Set<Long> docs = postings.get(term);
+                if (docs == null) {
+                    return Hits.EMPTY;
+                }
+                matches.add(docs);
+            }
+            // 从最短的倒排表开始求交集
+            matches.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            Set<Long> candidates = new HashSet<>(matches.get(0));
+            for (int i = 1; i < matches.size() && !candidates.isEmpty(); i++) {
+                candidates.retainAll(matches.get(i));
+            }
+
+            double avgLength = documents.isEmpty() ? 1 : Math.max(totalLength / documents.size(), 1);
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                int df = postings.get(term).size();
+                double idf = Math.log(1 + (documents.size() - df + 0.5) / (df + 0.5));
+                for (Long id : candidates) {
+                    Document document = documents.get(id);
+                    double tf = document.weightedFrequency(term);
+                    double norm = K1 * (1 - B + B * document.length / avgLength);
+                    scores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            List<Long> ids = scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(maxHits)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            return new Hits(ids, scores.size() > maxHits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 启动重建是否已完成；未完成前检索结果可能不全，调用方应退回数据库查询
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        this.ready = true;
+    }
+
+    /**
+     * 索引规模
+     */
+    public Map<String, Object> snapshot() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("documents", documents.size());
+            stats.put("terms", postings.size());
+            stats.put("avgLength", documents.isEmpty() ? 0 : Math.round(totalLength / documents.size()));
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(Long id, Field field, Map<String, Integer> frequencies) {
+        Document document = documents.computeIfAbsent(id, key -> new Document());
+        Map<String, Integer> previous = document.frequencies.remove(field);
+        if (previous != null) {
+            document.length -= field.weight * sum(previous);
+            totalLength -= field.weight * sum(previous);
+            for (String term : previous.keySet()) {
+                if (!document.contains(term)) {
+                    removePosting(term, id);
+                }
+            }
+        }
+        if (!frequencies.isEmpty()) {
+            document.frequencies.put(field, frequencies);
+            document.length += field.weight * sum(frequencies);
+            totalLength += field.weight * sum(frequencies);
+            for (String term : frequencies.keySet()) {
+                postings.computeIfAbsent(term, key -> new HashSet<>()).add(id);
+            }
+        }
+    }
+
+    private void removePosting(String term, Long id) {
+        Set<Long> docs = postings.get(term);
+        if (docs != null && docs.remove(id) && docs.isEmpty()) {
+            postings.remove(term);
+        }
+    }
+
+    private static int sum(Map<String, Integer> frequencies) {
+        int total = 0;
+        for (int count : frequencies.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * 逐段累计的词频，用于边解析边建索引而不必先拼出整篇文本
+     * <p>
+     * 每段单独分词，片段应在分隔字符处结束（流式解析出的页、段落和块都以换行结尾），否则跨段的词项会被切开。
+     */
+    public static final class Terms {
+        private final Map<String, Integer> frequencies = new HashMap<>();
+
+        /**
+         * 加入一段文本
+         */
+        public Terms add(String text) {
+            for (String token : SearchTokenizer.tokenize(text)) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * 单篇文献各字段的词频及加权长度
+     */
+    private static final class Document {
+        private final Map<Field, Map<String, Integer>> frequencies = new EnumMap<>(Field.class);
+        private double length;
+
+        private boolean contains(String term) {
+            for (Map<String, Integer> values : frequencies.values()) {
+                if (values.containsKey(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private double weightedFrequency(String term) {
+            double tf = 0;
+            for (Map.Entry<Field, Map<String, Integer>> entry : frequencies.entrySet()) {
+                Integer count = entry.getValue().get(term);
+                if (count != null) {
+                    tf += entry.getKey().weight * count;
+                }
+            }
+            return tf;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.yuyuan.literature.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.mapper.LiteratureMapper;
+import com.yuyuan.literature.service.FileProcessingService;
+import com.yuyuan.literature.service.LiteratureContentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 启动时重建全文索引
+ * <p>
+ * 先按批读取文件名、描述和阅读指南建立索引并开放检索，再逐个读取已保存的全文补充索引。
+ * 没有保存全文的旧文献按页、段落流式解析原始文件，每解析出一段就累计索引词频，解析结束后补存全文；
+ * 解析一次只占用解析阶段的一个位置，不影响同时进行的导入。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchIndexLoader implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final LiteratureSearchIndex literatureSearchIndex;
+    private final LiteratureMapper literatureMapper;
+    private final LiteratureContentService literatureContentService;
+    private final FileProcessingService fileProcessingService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("search-index-loader").start(this::rebuild);
+    }
+
+    private void rebuild() {
+        long startTime = System.currentTimeMillis();
+        // 内容相同的文献共用一个文件，全文只解析一次
+        Map<String, List<Long>> idsByFile = new HashMap<>();
+        long lastId = 0;
+        int count = 0;
+        try {
+            while (true) {
+                List<Literature> batch = literatureMapper.selectList(new LambdaQueryWrapper<Literature>()
+                        .select(Literature::getId, Literature::getOriginalName, Literature::getFilePath,
+                                Literature::getDescription)
+                        .gt(Literature::getId, lastId)
+                        .orderByAsc(Literature::getId)
+                        .last("LIMIT " + BATCH_SIZE));
+                Map<Long, String> guides = literatureContentService.getReadingGuides(
+                        batch.stream().map(Literature::getId).toList());
+                for (Literature literature : batch) {
+                    literatureSearchIndex.index(literature.getId(), LiteratureSearchIndex.Field.NAME,
+                            literature.getOriginalName());
+                    literatureSearchIndex.index(literature.getId(), LiteratureSearchIndex.Field.DESCRIPTION,
+                            literature.getDescription());
+                    literatureSearchIndex.index(literature.getId(), LiteratureSearchIndex.Field.GUIDE,
+                            guides.get(literature.getId()));
+                    if (literature.getFilePath() != null) {
+                        idsByFile.computeIfAbsent(literature.getFilePath(), key -> new ArrayList<>())
+                                .add(literature.getId());
+                    }
+                    lastId = literature.getId();
+                }
+                count += batch.size();
+                if (batch.size() < BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("重建全文索引失败，关键词检索将继续使用数据库查询", e);
+            return;
+        }
+        literatureSearchIndex.markReady();
+        log.info("全文索引元数据加载完成，文献数: {}, 耗时: {} ms", count, System.currentTimeMillis() - startTime);
+
+        int parsed = 0;
+        for (Map.Entry<String, List<Long>> entry : idsByFile.entrySet()) {
+            try {
+                List<Long> ids = entry.getValue();
+                String text = literatureContentService.getFullText(ids.get(0));
+                LiteratureSearchIndex.Terms terms = new LiteratureSearchIndex.Terms();
+                if (text == null) {
+                    // 早于内容分表导入的文献没有保存全文，流式解析一次，边解析边分词，结束后补存
+                    StringBuilder fullText = new StringBuilder();
+                    fileProcessingService.streamFileContent(entry.getKey())
+                            .doOnNext(chunk -> {
+                                fullText.append(chunk.text());
+                                terms.add(chunk.text());
+                            })
+                            .blockLast();
+                    text = fullText.toString();
+                    for (Long id : ids) {
+                        literatureContentService.saveFullText(id, text);
+                    }
+                    parsed++;
+                } else {
+                    terms.add(text);
+                }
+                for (Long id : ids) {
+                    literatureSearchIndex.index(id, LiteratureSearchIndex.Field.TEXT, terms);
+                }
+            } catch (Exception e) {
+                log.warn("全文索引解析文件失败，跳过: {}", entry.getKey(), e);
+            }
+        }
+        log.info("全文索引重建完成，解析文件数: {}, 总耗时: {} ms", parsed, System.currentTimeMillis() - startTime);
+    }
+}
@@ -0,0 +1,82 @@
+package com.yuyuan.literature.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 检索分词器
+ * <p>
+ * 中日韩文字按相邻两字切分（单字成段时保留单字），其他字母和数字按连续片段切分并转为小写，
+ * 其余字符视为分隔符。查询与建索引使用同一套规则，因此中文关键词无需词典即可命中。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 切分文本，结果按出现顺序保留重复词项
+     *
+     * @param text 文本，null 时返回空列表
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        int cjkStart = -1;
+        int i = 0;
+        while (i <= text.length()) {
+            int codePoint = i < text.length() ? text.codePointAt(i) : -1;
+            boolean cjk = codePoint >= 0 && isCjk(codePoint);
+            boolean wordChar = codePoint >= 0 && !cjk && Character.isLetterOrDigit(codePoint);
+
+            if (!wordChar && word.length() > 0) {
+                tokens.add(word.toString().toLowerCase(Locale.ROOT));
+                word.setLength(0);
+            }
+            if (!cjk && cjkStart >= 0) {
+                addBigrams(text, cjkStart, i, tokens);
+                cjkStart = -1;
+            }
+            if (codePoint < 0) {
+                break;
+            }
+            if (wordChar) {
+                word.appendCodePoint(codePoint);
+            } else if (cjk && cjkStart < 0) {
+                cjkStart = i;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return tokens;
+    }
+
+    private static void addBigrams(String text, int start, int end, List<String> tokens) {
+        int first = start;
+        int second = text.offsetByCodePoints(first, 1);
+        if (second >= end) {
+            tokens.add(text.substring(first, end));
+            return;
+        }
+        while (second < end) {
+            int next = text.offsetByCodePoints(second, 1);
+            tokens.add(text.substring(first, next));
+            first = second;
+            second = next;
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,111 @@
+package com.yuyuan.literature.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuyuan.literature.common.utils.JSONRepairUtil;
+import com.yuyuan.literature.dto.ClassificationResponse;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量分类的请求内容与响应解析
+ * <p>
+ * 多篇阅读指南以「## 文献 序号」分隔拼成一条用户消息，序号从 1 开始；模型返回带 id 的 JSON 数组，按序号对应回各篇。
+ * 序号越界、重复、字段无法解析或标签与描述都为空的条目视为缺失，由调用方逐篇单独分类。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+final class ClassificationBatch {
+
+    private ClassificationBatch() {
+    }
+
+    /**
+     * 用户消息的说明前缀
+     */
+    static String prefix(int size) {
+        return "请为以下 " + size + " 篇文献阅读指南分别生成分类和描述，按序号返回 JSON 数组：\n";
+    }
+
+    /**
+     * 按顺序拼接各篇阅读指南，第 i 篇的序号为 i + 1
+     */
+    static String content(List<String> readingGuides) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < readingGuides.size(); i++) {
+            content.append("\n## 文献 ").append(i + 1).append("\n\n").append(readingGuides.get(i).trim()).append('\n');
+        }
+        return content.toString();
+    }
+
+    /**
+     * 解析模型响应
+     *
+     * @param size 本批篇数，只接受 1 到 size 的序号
+     * @return 序号到分类结果，缺失的序号不在其中
+     * @throws IOException 修复后仍无法解析或其中没有 JSON 数组
+     */
+    static Map<Integer, ClassificationResponse> parse(ObjectMapper objectMapper, String content, int size)
+            throws IOException {
+        JsonNode items = array(readTree(objectMapper, content));
+        if (items == null) {
+            throw new IOException("批量分类响应中没有 JSON 数组");
+        }
+        Map<Integer, ClassificationResponse> results = new LinkedHashMap<>();
+        for (JsonNode item : items) {
+            int id = item.path("id").asInt(0);
+            if (!item.isObject() || id < 1 || id > size || results.containsKey(id)) {
+                continue;
+            }
+            try {
+                ClassificationResponse classification = objectMapper.treeToValue(item, ClassificationResponse.class);
+                boolean hasTags = classification.getTags() != null && !classification.getTags().isEmpty();
+                if (hasTags || StringUtils.hasText(classification.getDesc())) {
+                    results.put(id, classification);
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                // 单个条目格式不对时只丢弃该条，其余结果照常使用
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 先截取首尾方括号之间的内容直接解析，失败时（例如输出被截断）再交给 JSON 修复
+     */
+    private static JsonNode readTree(ObjectMapper objectMapper, String content) throws JsonProcessingException {
+        int start = content.indexOf('[');
+        int end = content.lastIndexOf(']');
+        if (start >= 0 && end > start) {
+            try {
+                return objectMapper.readTree(content.substring(start, end + 1));
+            } catch (JsonProcessingException e) {
+                // 交给下面的修复
+            }
+        }
+        return objectMapper.readTree(JSONRepairUtil.repair(content));
+    }
+
+    /**
+     * 响应本身是数组时直接使用，被包在对象里时取第一个数组字段
+     */
+    private static JsonNode array(JsonNode root) {
+        if (root == null || root.isArray()) {
+            return root;
+        }
+        for (Iterator<JsonNode> fields = root.elements(); fields.hasNext(); ) {
+            JsonNode field = fields.next();
+            if (field.isArray()) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
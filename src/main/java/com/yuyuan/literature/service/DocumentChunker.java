@@ -0,0 +1,211 @@
+package com.yuyuan.literature.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 长文本分块
+ * <p>
+ * 先按识别出的章节标题把全文切成章节，再把相邻章节依次装入不超过 chunk-tokens 的块，
+ * 只有单个章节装不下时才在段落、句子处继续切分。除第一块外，每块开头带上前一块末尾约 overlap-tokens 的内容，
+ * 避免跨块的句子和上下文丢失。token 数按中日韩字符每个计 1、其他字符每 4 个计 1 估算，不依赖具体模型的分词器。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Component
+public class DocumentChunker {
+
+    /**
+     * 章节标题：Markdown 标题、编号标题（1 / 2.1 / IV. / 一、/ 第三章）及论文常见的独立小节名
+     */
+    private static final Pattern HEADING = Pattern.compile(
+            "#{1,6}\\s+\\S.*"
+                    + "|(\\d{1,2}(\\.\\d{1,2}){0,3}\\.?|[IVX]{1,5}\\.)\\s*[\\p{Lu}\\p{IsHan}].*"
+                    + "|[一二三四五六七八九十]{1,3}[、．.]\\s*\\S.*"
+                    + "|第[一二三四五六七八九十百\\d]{1,4}[章节部分篇].*"
+                    + "|(?i:abstract|introduction|background|related work|methods?|methodology|materials and methods"
+                    + "|experiments?|results?|discussion|conclusions?|references|acknowledge?ments?|appendix)"
+                    + "|(摘\\s*要|引\\s*言|前\\s*言|绪\\s*论|结\\s*论|讨\\s*论|参考文献|致\\s*谢|附\\s*录)");
+    private static final int MAX_HEADING_LENGTH = 80;
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[。！？；.!?;])");
+
+    private final int chunkTokens;
+    private final int overlapTokens;
+
+    public DocumentChunker(@Value("${literature.guide.map-reduce.chunk-tokens:6000}") int chunkTokens,
+                           @Value("${literature.guide.map-reduce.overlap-tokens:200}") int overlapTokens) {
+        this.chunkTokens = Math.max(1, chunkTokens);
+        this.overlapTokens = Math.max(0, Math.min(overlapTokens, chunkTokens / 2));
+    }
+
+    /**
+     * 估算文本的 token 数
+     */
+    public static int estimateTokens(CharSequence text) {
+        long quarters = 0;
+        for (int i = 0; i < text.length(); i++) {
+            quarters += quarters(text.charAt(i));
+        }
+        return (int) ((quarters + 3) / 4);
+    }
+
+    /**
+     * 截取估算 token 数不超过 maxTokens 的开头部分
+     */
+    public static String head(String text, int maxTokens) {
+        long budget = (long) maxTokens * 4;
+        long quarters = 0;
+        for (int i = 0; i < text.length(); i++) {
+            quarters += quarters(text.charAt(i));
+            if (quarters > budget) {
+                return text.substring(0, i);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * 把全文切分为按顺序排列的块
+     *
+     * @param text 全文
+     * @return 每块不超过 chunk-tokens（不含开头的重叠部分），文本为空时返回空列表
+     */
+    public List<String> chunk(String text) {
+        List<String> units = new ArrayList<>();
+        for (String section : sections(text)) {
+            split(section, units);
+        }
+
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int currentTokens = 0;
+        for (String unit : units) {
+            int tokens = estimateTokens(unit);
+            if (currentTokens > 0 && currentTokens + tokens > chunkTokens) {
+                chunks.add(current.toString());
+                current.setLength(0);
+                currentTokens = 0;
+            }
+            current.append(unit);
+            currentTokens += tokens;
+        }
+        if (!current.toString().isBlank()) {
+            chunks.add(current.toString());
+        }
+
+        if (overlapTokens > 0) {
+            for (int i = chunks.size() - 1; i > 0; i--) {
+                chunks.set(i, tail(chunks.get(i - 1)) + chunks.get(i));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * 判断一行是否为章节标题
+     */
+    static boolean isHeading(String line) {
+        String trimmed = line.strip();
+        return !trimmed.isEmpty() && trimmed.length() <= MAX_HEADING_LENGTH
+                && !trimmed.endsWith("。") && !trimmed.endsWith(",") && !trimmed.endsWith("，")
+                && HEADING.matcher(trimmed).matches();
+    }
+
+    /**
+     * 在标题行处切分，每个章节以标题行开头（第一个标题之前的内容单独成一节）
+     */
+    private static List<String> sections(String text) {
+        List<String> sections = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : text.split("(?<=\n)")) {
+            if (isHeading(line) && !current.toString().isBlank()) {
+                sections.add(current.toString());
+                current.setLength(0);
+            }
+            current.append(line);
+        }
+        if (!current.isEmpty()) {
+            sections.add(current.toString());
+        }
+        return sections;
+    }
+
+    /**
+     * 超过块大小的文本依次按段落、行、句子切分，仍然超过时按字符数硬切
+     */
+    private void split(String text, List<String> units) {
+        if (estimateTokens(text) <= chunkTokens) {
+            units.add(text);
+            return;
+        }
+        for (String separator : new String[]{"(?<=\n\n)", "(?<=\n)"}) {
+            String[] parts = text.split(separator);
+            if (parts.length > 1) {
+                for (String part : parts) {
+                    split(part, units);
+                }
+                return;
+            }
+        }
+        String[] sentences = SENTENCE_END.split(text);
+        if (sentences.length > 1) {
+            for (String sentence : sentences) {
+                split(sentence, units);
+            }
+            return;
+        }
+        int start = 0;
+        while (start < text.length()) {
+            int end = start;
+            long quarters = 0;
+            while (end < text.length() && quarters + quarters(text.charAt(end)) <= chunkTokens * 4L) {
+                quarters += quarters(text.charAt(end++));
+            }
+            end = Math.max(end, start + 1);
+            units.add(text.substring(start, end));
+            start = end;
+        }
+    }
+
+    /**
+     * 取文本末尾约 overlap-tokens 的内容，前半段内有行尾或句尾时从其后开始
+     */
+    private String tail(String text) {
+        int start = text.length();
+        long quarters = 0;
+        while (start > 0 && quarters < overlapTokens * 4L) {
+            quarters += quarters(text.charAt(--start));
+        }
+        int boundaryLimit = start + (text.length() - start) / 2;
+        for (int i = start; i < boundaryLimit; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '。' || c == '.' || c == '！' || c == '？') {
+                return text.substring(i + 1);
+            }
+        }
+        return text.substring(start);
+    }
+
+    /**
+     * 单个字符折合的 1/4 token 数：中日韩字符计 4，其他字符计 1
+     */
+    private static int quarters(char c) {
+        return isCjk(c) ? 4 : 1;
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        return block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+                || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
+                || block == Character.UnicodeBlock.CJK_SYMBOLS_AND_PUNCTUATION
+                || block == Character.UnicodeBlock.HALFWIDTH_AND_FULLWIDTH_FORMS
+                || block == Character.UnicodeBlock.HIRAGANA
+                || block == Character.UnicodeBlock.KATAKANA
+                || block == Character.UnicodeBlock.HANGUL_SYLLABLES;
+    }
+}
@@ -0,0 +1,296 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.common.utils.TextCompression;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 文件解析结果缓存
+ * <p>
+ * 以文件内容的 SHA-256 为键缓存解析出的文本，内容相同的文件不论路径如何只解析一次。
+ * 分两级：内存中按最近访问保留总大小不超过上限的条目，磁盘上以压缩格式保存并按最近访问时间淘汰。
+ * 同一键的并发请求只有一个真正执行解析，其余等待其结果。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ExtractedTextCache {
+
+    private static final String SUFFIX = ".txt.z";
+
+    /**
+     * 写入时先写临时文件再原子替换，中断后残留的临时文件以此结尾
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final boolean enabled;
+    private final long memoryMaxBytes;
+    private final Path directory;
+    private final long diskMaxBytes;
+
+    /**
+     * 内存层，按访问顺序排列，读写都在 memory 上同步
+     */
+    private final LinkedHashMap<String, String> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+
+    private final Map<String, DiskEntry> disk = new ConcurrentHashMap<>();
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong sharedLoads = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong memoryEvictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    public ExtractedTextCache(@Value("${literature.extract-cache.enabled:true}") boolean enabled,
+                              @Value("${literature.extract-cache.memory-max-size:64MB}") DataSize memoryMaxSize,
+                              @Value("${literature.extract-cache.path:./data/extract-cache}") String path,
+                              @Value("${literature.extract-cache.max-size:1GB}") DataSize diskMaxSize) {
+        this.enabled = enabled;
+        this.memoryMaxBytes = memoryMaxSize.toBytes();
+        this.directory = Paths.get(path);
+        this.diskMaxBytes = diskMaxSize.toBytes();
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * 取缓存的解析结果，两级都未命中时调用 loader 解析并写入缓存
+     *
+     * @param key    内容指纹
+     * @param loader 实际解析，异常原样抛出且不缓存
+     */
+    public String get(String key, Supplier<String> loader) {
+        if (!enabled) {
+            loads.incrementAndGet();
+            return loader.get();
+        }
+        String cached = fromMemory(key);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return cached;
+        }
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            sharedLoads.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+        try {
+            String text = fromDisk(key);
+            if (text != null) {
+                diskHits.incrementAndGet();
+            } else {
+                loads.incrementAndGet();
+                text = loader.get();
+                toDisk(key, text);
+            }
+            toMemory(key, text);
+            created.complete(text);
+            return text;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 缓存运行指标，loads 为实际执行解析的次数
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (memory) {
+            stats.put("memoryEntries", memory.size());
+            stats.put("memoryBytes", memoryBytes);
+        }
+        stats.put("memoryMaxBytes", memoryMaxBytes);
+        stats.put("diskEntries", disk.size());
+        stats.put("diskBytes", diskBytes.get());
+        stats.put("diskMaxBytes", diskMaxBytes);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("sharedLoads", sharedLoads.get());
+        stats.put("loads", loads.get());
+        stats.put("memoryEvictions", memoryEvictions.get());
+        stats.put("diskEvictions", diskEvictions.get());
+        return stats;
+    }
+
+    private String fromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void toMemory(String key, String text) {
+        long size = weight(text);
+        if (size > memoryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            String previous = memory.put(key, text);
+            memoryBytes += size - (previous != null ? weight(previous) : 0);
+            var eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                memoryBytes -= weight(eldest.next().getValue());
+                eldest.remove();
+                memoryEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    private String fromDisk(String key) {
+        DiskEntry entry = disk.get(key);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            String text = TextCompression.decode(Files.readAllBytes(file(key)));
+            entry.lastAccessMillis = System.currentTimeMillis();
+            return text;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("读取解析结果缓存失败，丢弃该条目: {}", key, e);
+            remove(key);
+            return null;
+        }
+    }
+
+    private void toDisk(String key, String text) {
+        try {
+            Files.createDirectories(directory);
+            byte[] bytes = TextCompression.encode(text);
+            Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            Files.write(temp, bytes);
+            Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            DiskEntry previous = disk.put(key, new DiskEntry(bytes.length, System.currentTimeMillis()));
+            diskBytes.addAndGet(bytes.length - (previous != null ? previous.size : 0));
+        } catch (IOException e) {
+            log.warn("写入解析结果缓存失败: {}", key, e);
+            return;
+        }
+        if (diskBytes.get() > diskMaxBytes) {
+            evictDisk();
+        }
+    }
+
+    /**
+     * 按最近访问时间从旧到新淘汰磁盘条目，直到总大小回到上限以内
+     */
+    private synchronized void evictDisk() {
+        List<Map.Entry<String, DiskEntry>> candidates = new ArrayList<>(disk.entrySet());
+        candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccessMillis));
+        for (Map.Entry<String, DiskEntry> candidate : candidates) {
+            if (diskBytes.get() <= diskMaxBytes) {
+                break;
+            }
+            remove(candidate.getKey());
+            diskEvictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String key) {
+        DiskEntry entry = disk.remove(key);
+        if (entry == null) {
+            return;
+        }
+        diskBytes.addAndGet(-entry.size);
+        try {
+            Files.deleteIfExists(file(key));
+        } catch (IOException e) {
+            log.warn("删除解析结果缓存失败: {}", key, e);
+        }
+    }
+
+    /**
+     * 启动时扫描缓存目录重建磁盘层索引，以文件修改时间作为最近访问时间
+     */
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                try {
+                    if (name.endsWith(TEMP_SUFFIX)) {
+                        // 写入中断留下的临时文件
+                        Files.deleteIfExists(path);
+                        return;
+                    }
+                    if (!name.endsWith(SUFFIX) || !Files.isRegularFile(path)) {
+                        // 目录可能被配置成与其他数据共用，不认识的文件只跳过不删除
+                        log.warn("跳过解析结果缓存目录中的未知文件: {}", path);
+                        return;
+                    }
+                    long size = Files.size(path);
+                    disk.put(name.substring(0, name.length() - SUFFIX.length()),
+                            new DiskEntry(size, Files.getLastModifiedTime(path).toMillis()));
+                    diskBytes.addAndGet(size);
+                } catch (IOException e) {
+                    log.warn("加载解析结果缓存条目失败: {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("扫描解析结果缓存目录失败: {}", directory, e);
+        }
+        if (diskBytes.get() > diskMaxBytes) {
+            evictDisk();
+        }
+        log.info("解析结果缓存加载完成，条目数: {}, 大小: {} bytes", disk.size(), diskBytes.get());
+    }
+
+    /**
+     * 内存占用按 UTF-16 字符数估算
+     */
+    private static long weight(String text) {
+        return (long) text.length() * 2;
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static final class DiskEntry {
+        private final long size;
+        private volatile long lastAccessMillis;
+
+        private DiskEntry(long size, long lastAccessMillis) {
+            this.size = size;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+    }
+}
@@ -2,12 +2,14 @@ package com.yuyuan.literature.service;
 
 import com.yuyuan.literature.common.exception.BusinessException;
 import com.yuyuan.literature.common.result.ResultCode;
+import com.yuyuan.literature.pipeline.ImportMetrics;
+import com.yuyuan.literature.pipeline.ImportPipeline;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.hwpf.HWPFDocument;
 import org.apache.poi.hwpf.extractor.WordExtractor;
+import org.apache.poi.hwpf.usermodel.Range;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.commonmark.node.Node;
@@ -16,17 +18,27 @@ import org.commonmark.renderer.text.TextContentRenderer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * 文件处理服务
@@ -36,8 +48,24 @@ import java.util.UUID;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileProcessingService {
 
+    /**
+     * 解析逻辑的版本，参与解析结果缓存的键；解析结果会因代码修改而变化时递增
+     */
+    private static final int EXTRACTOR_VERSION = 1;
+
+    /**
+     * saveFile 保存的文件以内容哈希命名
+     */
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final ExtractedTextCache extractedTextCache;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final ImportMetrics importMetrics;
+    private final ImportPipeline importPipeline;
+
     @Value("${literature.file.upload-path:./uploads/documents}")
     private String uploadPath;
 
@@ -48,12 +76,14 @@ public class FileProcessingService {
     private String maxFileSize;
 
     /**
-     * 保存上传的文件并返回文件路径
+     * 保存上传的文件
+     * <p>
+     * 写盘的同时计算内容的 SHA-256，文件以哈希值命名；相同内容的文件只保存一份。
      *
      * @param file 上传的文件
-     * @return 保存后的文件路径
+     * @return 保存后的文件路径及内容哈希
      */
-    public String saveFile(MultipartFile file) {
+    public StoredFile saveFile(MultipartFile file) {
         try {
             // 验证文件
             validateFile(file);
@@ -64,39 +94,118 @@ public class FileProcessingService {
                 Files.createDirectories(uploadDir);
             }
 
-            // 生成唯一文件名
-            String originalFilename = file.getOriginalFilename();
-            String extension = FilenameUtils.getExtension(originalFilename);
-            String uniqueFilename = UUID.randomUUID().toString() + "." + extension;
-            
-            // 保存文件
-            Path filePath = uploadDir.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath);
-            
-            log.info("文件保存成功: {}", filePath);
-            return filePath.toString();
-            
-        } catch (IOException e) {
+            // 先写入临时文件，边写边计算内容哈希
+            Path tempFile = Files.createTempFile(uploadDir, "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+
+            // 以内容哈希命名，已存在相同内容的文件时直接复用
+            String extension = FilenameUtils.getExtension(file.getOriginalFilename()).toLowerCase();
+            Path filePath = uploadDir.resolve(contentHash + "." + extension);
+            if (Files.exists(filePath)) {
+                Files.deleteIfExists(tempFile);
+                log.info("文件内容已存在，复用: {}", filePath);
+            } else {
+                Files.move(tempFile, filePath, StandardCopyOption.ATOMIC_MOVE);
+                log.info("文件保存成功: {}", filePath);
+            }
+            importMetrics.recordFileSaved();
+            return new StoredFile(filePath.toString(), contentHash);
+
+        } catch (IOException | NoSuchAlgorithmException e) {
             log.error("文件保存失败", e);
             throw new BusinessException(ResultCode.FILE_UPLOAD_ERROR);
         }
     }
 
+    /**
+     * 解析刚保存的文件，内容哈希已知，不必再读取文件计算
+     *
+     * @param storedFile saveFile 的结果
+     * @return 文件内容
+     */
+    public String extractFileContent(StoredFile storedFile) {
+        return extractFileContent(storedFile.path(), storedFile.contentHash());
+    }
+
     /**
      * 解析文件内容
+     * <p>
+     * 结果按文件内容缓存，内容相同的文件只解析一次。
      *
      * @param filePath 文件路径
      * @return 文件内容
      */
     public String extractFileContent(String filePath) {
+        return extractFileContent(filePath, null);
+    }
+
+    private String extractFileContent(String filePath, String contentHash) {
         try {
             File file = new File(filePath);
             if (!file.exists()) {
                 throw new BusinessException(ResultCode.FILE_NOT_EXIST);
             }
-
             String extension = FilenameUtils.getExtension(filePath).toLowerCase();
-            
+            String hash = contentHash != null ? contentHash : contentHash(file);
+            return extractedTextCache.get(hash + "-" + extension + "-v" + EXTRACTOR_VERSION, () -> {
+                importMetrics.recordExtraction();
+                return parse(file, extension);
+            });
+        } catch (Exception e) {
+            log.error("文件内容解析失败: {}", filePath, e);
+            if (e instanceof BusinessException) {
+                throw (BusinessException) e;
+            }
+            Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+            throw new BusinessException("文件内容解析失败: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * 流式解析文件内容
+     * <p>
+     * 按文档结构逐段产出文本：PDF 按页、Word 按段落、Markdown 按顶层块，下游请求一段才解析一段，
+     * 可以在整篇解析完成前开始分块、统计或建立索引。PDF 逐页提取，文本部分的峰值内存与单页相当；
+     * Word 和 Markdown 需要先载入整个文档结构，逐段转换为文本。解析在解析阶段的线程上进行，取消订阅时释放文档。
+     * 该方式不经过解析结果缓存，需要整篇文本时使用 {@link #extractFileContent(String)}。
+     *
+     * @param filePath 文件路径
+     * @return 按文档顺序排列的文本片段
+     */
+    public Flux<TextChunk> streamFileContent(String filePath) {
+        return Flux.defer(() -> {
+                    File file = new File(filePath);
+                    if (!file.exists()) {
+                        return Flux.error(new BusinessException(ResultCode.FILE_NOT_EXIST));
+                    }
+                    return switch (FilenameUtils.getExtension(filePath).toLowerCase()) {
+                        case "pdf" -> pdfTextExtractor.pages(file);
+                        case "doc" -> streamDocContent(file);
+                        case "docx" -> streamDocxContent(file);
+                        case "md", "markdown" -> streamMarkdownContent(file);
+                        default -> Flux.error(new BusinessException(ResultCode.FILE_TYPE_NOT_SUPPORTED));
+                    };
+                })
+                .onErrorMap(e -> !(e instanceof BusinessException), e -> {
+                    log.error("文件内容解析失败: {}", filePath, e);
+                    Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+                    return new BusinessException("文件内容解析失败: " + cause.getMessage());
+                })
+                .subscribeOn(importPipeline.extract().scheduler());
+    }
+
+    /**
+     * 按扩展名选择解析方式
+     */
+    private String parse(File file, String extension) {
+        try {
             return switch (extension) {
                 case "pdf" -> extractPdfContent(file);
                 case "doc" -> extractDocContent(file);
@@ -104,16 +213,26 @@ public class FileProcessingService {
                 case "md", "markdown" -> extractMarkdownContent(file);
                 default -> throw new BusinessException(ResultCode.FILE_TYPE_NOT_SUPPORTED);
             };
-            
-        } catch (Exception e) {
-            log.error("文件内容解析失败: {}", filePath, e);
-            if (e instanceof BusinessException) {
-                throw (BusinessException) e;
-            }
-            throw new BusinessException("文件内容解析失败: " + e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * 取文件内容哈希：以内容哈希命名的文件直接取文件名，其他文件读取内容计算
+     */
+    private String contentHash(File file) throws IOException, NoSuchAlgorithmException {
+        String baseName = FilenameUtils.getBaseName(file.getName());
+        if (CONTENT_HASH.matcher(baseName).matches()) {
+            return baseName;
+        }
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(new FileInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     /**
      * 验证上传的文件
      */
@@ -144,13 +263,10 @@ public class FileProcessingService {
     }
 
     /**
-     * 解析 PDF 文件内容
+     * 解析 PDF 文件内容，页数多时按页并行提取
      */
     private String extractPdfContent(File file) throws IOException {
-        try (PDDocument document = PDDocument.load(file)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
-        }
+        return pdfTextExtractor.extract(file);
     }
 
     /**
@@ -178,6 +294,69 @@ public class FileProcessingService {
         }
     }
 
+    /**
+     * 按段落流式解析 DOC 文件
+     */
+    private Flux<TextChunk> streamDocContent(File file) {
+        return Flux.using(() -> {
+                    try (FileInputStream fis = new FileInputStream(file)) {
+                        return new HWPFDocument(fis);
+                    }
+                },
+                document -> {
+                    Range range = document.getRange();
+                    return Flux.range(0, range.numParagraphs())
+                            .map(i -> new TextChunk(i, TextChunk.Unit.PARAGRAPH,
+                                    Range.stripFields(range.getParagraph(i).text()).replace('\r', '\n')));
+                },
+                document -> closeQuietly(document, file));
+    }
+
+    /**
+     * 按段落流式解析 DOCX 文件
+     */
+    private Flux<TextChunk> streamDocxContent(File file) {
+        return Flux.using(() -> {
+                    try (FileInputStream fis = new FileInputStream(file)) {
+                        return new XWPFDocument(fis);
+                    }
+                },
+                document -> Flux.fromIterable(document.getParagraphs())
+                        .index((i, paragraph) -> new TextChunk(i.intValue(), TextChunk.Unit.PARAGRAPH,
+                                paragraph.getText() + "\n")),
+                document -> closeQuietly(document, file));
+    }
+
+    /**
+     * 按顶层块流式解析 Markdown 文件
+     */
+    private Flux<TextChunk> streamMarkdownContent(File file) {
+        return Flux.defer(() -> {
+            Node document;
+            try {
+                document = Parser.builder().build().parse(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                return Flux.error(e);
+            }
+            TextContentRenderer renderer = TextContentRenderer.builder().build();
+            List<Node> blocks = new ArrayList<>();
+            for (Node node = document.getFirstChild(); node != null; node = node.getNext()) {
+                blocks.add(node);
+            }
+            return Flux.fromIterable(blocks)
+                    .index((i, node) -> new TextChunk(i.intValue(), TextChunk.Unit.BLOCK,
+                            renderer.render(node) + "\n"));
+        });
+    }
+
+    private void closeQuietly(AutoCloseable document, File file) {
+        try {
+            document.close();
+        } catch (Exception e) {
+            log.warn("关闭文档失败: {}", file, e);
+        }
+    }
+
     /**
      * 解析 Markdown 文件内容
      */
@@ -0,0 +1,171 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.entity.LiteratureJob;
+import com.yuyuan.literature.pipeline.ImportPipeline;
+import com.yuyuan.literature.pipeline.Lane;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 阅读指南生成服务
+ * <p>
+ * 流式生成作为服务端任务运行并按文献ID登记，客户端断开不会取消生成；
+ * 任意数量的客户端可以通过 {@link #attach(Long, long)} 随时接入或断线重连。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class GuideGenerationService {
+
+    private final LiteratureAiService literatureAiService;
+    private final LiteratureService literatureService;
+    private final LiteratureContentService literatureContentService;
+    private final LiteratureJobService literatureJobService;
+    private final ReadingGuideWriteBuffer readingGuideWriteBuffer;
+    private final ImportPipeline importPipeline;
+    private final int replayLimit;
+    private final long retentionMillis;
+
+    private final Map<Long, GuideStream> streams = new ConcurrentHashMap<>();
+
+    public GuideGenerationService(LiteratureAiService literatureAiService, LiteratureService literatureService,
+                                  LiteratureContentService literatureContentService,
+                                  LiteratureJobService literatureJobService,
+                                  ReadingGuideWriteBuffer readingGuideWriteBuffer, ImportPipeline importPipeline,
+                                  @Value("${literature.guide.replay-limit:2048}") int replayLimit,
+                                  @Value("${literature.guide.stream-retention:5m}") Duration retention) {
+        this.literatureAiService = literatureAiService;
+        this.literatureService = literatureService;
+        this.literatureContentService = literatureContentService;
+        this.literatureJobService = literatureJobService;
+        this.readingGuideWriteBuffer = readingGuideWriteBuffer;
+        this.importPipeline = importPipeline;
+        this.replayLimit = replayLimit;
+        this.retentionMillis = retention.toMillis();
+    }
+
+    /**
+     * 启动阅读指南生成；同一文献已有进行中的生成时直接返回该生成
+     *
+     * @param literatureId 文献ID
+     * @param fileContent 文献内容
+     * @param lane 调用来源，决定在流水线各阶段和大模型调用网关中的排队
+     * @return 生成事件流
+     */
+    public GuideStream start(Long literatureId, String fileContent, Lane lane) {
+        GuideStream created = new GuideStream(literatureId, replayLimit);
+        GuideStream stream = streams.compute(literatureId,
+                (id, existing) -> existing != null && !existing.isFinished() ? existing : created);
+        if (stream != created) {
+            return stream;
+        }
+
+        literatureAiService.generateReadingGuideFlux(fileContent, literatureId, lane)
+                .subscribe(stream::publish,
+                        error -> {
+                            log.error("阅读指南生成失败，ID: {}", literatureId, error);
+                            stream.fail(error);
+                        },
+                        () -> {
+                            try {
+                                stream.complete(finish(literatureId, lane));
+                            } catch (Exception e) {
+                                log.error("阅读指南生成后处理失败，ID: {}", literatureId, e);
+                                stream.fail(e);
+                            }
+                        });
+        return stream;
+    }
+
+    /**
+     * 启动阅读指南生成，并在生成结束时完成或失败对应的任务
+     *
+     * @param literatureId 文献ID
+     * @param jobId 当前节点持有的任务ID
+     * @param fileContent 文献内容
+     * @param lane 调用来源，决定在流水线各阶段和大模型调用网关中的排队
+     * @return 生成事件流
+     */
+    public GuideStream startForJob(Long literatureId, Long jobId, String fileContent, Lane lane) {
+        GuideStream stream = start(literatureId, fileContent, lane);
+        stream.result().subscribe(
+                readingGuide -> literatureJobService.complete(jobId),
+                error -> literatureJobService.fail(jobId, error));
+        return stream;
+    }
+
+    /**
+     * 接入文献的生成事件流
+     * <p>
+     * 生成仍在本节点进行（或刚结束不久）时从 {@code lastEventId} 之后继续推送；
+     * 否则以数据库中已保存的阅读指南作为快照返回。
+     *
+     * @param literatureId 文献ID
+     * @param lastEventId 客户端已收到的最后一个事件ID，没有时传 0
+     */
+    public Flux<ServerSentEvent<String>> attach(Long literatureId, long lastEventId) {
+        GuideStream stream = streams.get(literatureId);
+        if (stream != null) {
+            return stream.attach(lastEventId);
+        }
+
+        return Flux.defer(() -> {
+            Literature literature = literatureService.getById(literatureId);
+            if (literature == null) {
+                return Flux.just(ServerSentEvent.<String>builder().event("error").data("处理失败: 文献不存在").build());
+            }
+            String readingGuide = literatureContentService.getReadingGuide(literatureId);
+            if (readingGuide == null) {
+                readingGuide = "";
+            }
+            ServerSentEvent<String> snapshot = GuideStream.snapshotEvent(0, readingGuide);
+            boolean guidePending = literatureJobService.lambdaQuery()
+                    .eq(LiteratureJob::getLiteratureId, literatureId)
+                    .eq(LiteratureJob::getJobType, LiteratureJob.Type.GUIDE.name())
+                    .in(LiteratureJob::getStatus, LiteratureJob.Status.PENDING.getCode(),
+                            LiteratureJob.Status.RUNNING.getCode())
+                    .count() > 0;
+            if (guidePending) {
+                return Flux.just(snapshot, ServerSentEvent.<String>builder()
+                        .event("progress")
+                        .data("阅读指南正在后台排队生成，请稍后重新连接")
+                        .build());
+            }
+            return Flux.just(snapshot, ServerSentEvent.<String>builder().event("complete").data("生成完成").build());
+        }).subscribeOn(importPipeline.persist().scheduler());
+    }
+
+    /**
+     * 清理已结束超过保留时间的事件流
+     */
+    @Scheduled(fixedDelayString = "${literature.guide.stream-sweep-interval:60000}")
+    public void evictFinished() {
+        long deadline = System.currentTimeMillis() - retentionMillis;
+        streams.values().removeIf(stream -> stream.isFinished() && stream.getFinishedAtMillis() < deadline);
+    }
+
+    /**
+     * 生成结束：写入剩余内容，有内容时按同一来源追加分类任务，否则直接标记完成
+     */
+    private String finish(Long literatureId, Lane lane) {
+        String readingGuide = readingGuideWriteBuffer.complete(literatureId);
+        literatureService.completeReadingGuide(literatureId, readingGuide);
+        if (!readingGuide.trim().isEmpty()) {
+            literatureJobService.enqueue(literatureId, LiteratureJob.Type.CLASSIFY, lane);
+        } else {
+            literatureService.updateStatus(literatureId, Literature.Status.COMPLETED.getCode());
+        }
+        return readingGuide;
+    }
+}
@@ -0,0 +1,161 @@
+package com.yuyuan.literature.service;
+
+import lombok.Getter;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 一次阅读指南生成的服务端事件流
+ * <p>
+ * 生成由服务端订阅驱动，与任何客户端连接无关。每个 token 按顺序编号作为 SSE 事件ID，
+ * 最近的 token 保存在有界回放缓冲中；客户端携带 {@code Last-Event-ID} 重新连接时，
+ * 缓冲内的 token 逐个补发，更早的部分合并为一个 {@code snapshot} 事件发送。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public final class GuideStream {
+
+    @Getter
+    private final Long literatureId;
+    private final int replayLimit;
+
+    private final StringBuilder content = new StringBuilder();
+    private final Deque<String> replay = new ArrayDeque<>();
+    private final List<FluxSink<ServerSentEvent<String>>> listeners = new ArrayList<>();
+    private final Sinks.One<String> result = Sinks.one();
+
+    /**
+     * 最后一个 token 的序号，从 1 开始
+     */
+    private long lastSeq;
+    /**
+     * 回放缓冲中第一个 token 的序号
+     */
+    private long replayFirstSeq = 1;
+    /**
+     * 回放缓冲之前的内容长度
+     */
+    private int replayStartOffset;
+    private ServerSentEvent<String> terminal;
+    @Getter
+    private volatile long finishedAtMillis;
+
+    GuideStream(Long literatureId, int replayLimit) {
+        this.literatureId = literatureId;
+        this.replayLimit = replayLimit;
+    }
+
+    /**
+     * 生成结果：成功时为完整阅读指南，失败时为对应异常
+     */
+    public Mono<String> result() {
+        return result.asMono();
+    }
+
+    /**
+     * 是否已结束
+     */
+    public synchronized boolean isFinished() {
+        return terminal != null;
+    }
+
+    /**
+     * 订阅事件流，先补发 {@code lastEventId} 之后的内容，再接收实时 token
+     *
+     * @param lastEventId 客户端已收到的最后一个事件ID，没有时传 0
+     */
+    public Flux<ServerSentEvent<String>> attach(long lastEventId) {
+        return Flux.create(sink -> {
+            synchronized (this) {
+                replayAfter(sink, lastEventId);
+                if (terminal != null) {
+                    sink.next(terminal);
+                    sink.complete();
+                    return;
+                }
+                listeners.add(sink);
+            }
+            sink.onDispose(() -> {
+                synchronized (this) {
+                    listeners.remove(sink);
+                }
+            });
+        });
+    }
+
+    synchronized void publish(String token) {
+        if (terminal != null || token == null || token.isEmpty()) {
+            return;
+        }
+        long seq = ++lastSeq;
+        content.append(token);
+        replay.addLast(token);
+        if (replay.size() > replayLimit) {
+            replayStartOffset += replay.removeFirst().length();
+            replayFirstSeq++;
+        }
+        ServerSentEvent<String> event = contentEvent(seq, token);
+        for (FluxSink<ServerSentEvent<String>> listener : listeners) {
+            listener.next(event);
+        }
+    }
+
+    void complete(String readingGuide) {
+        finish(ServerSentEvent.<String>builder().event("complete").data("生成完成").build());
+        result.tryEmitValue(readingGuide);
+    }
+
+    void fail(Throwable error) {
+        finish(ServerSentEvent.<String>builder().event("error").data("处理失败: " + error.getMessage()).build());
+        result.tryEmitError(error);
+    }
+
+    private synchronized void finish(ServerSentEvent<String> event) {
+        if (terminal != null) {
+            return;
+        }
+        terminal = event;
+        finishedAtMillis = System.currentTimeMillis();
+        for (FluxSink<ServerSentEvent<String>> listener : listeners) {
+            listener.next(event);
+            listener.complete();
+        }
+        listeners.clear();
+    }
+
+    private void replayAfter(FluxSink<ServerSentEvent<String>> sink, long lastEventId) {
+        long next = Math.max(lastEventId, 0) + 1;
+        if (next > lastSeq) {
+            return;
+        }
+        if (next < replayFirstSeq) {
+            // 请求的位置已滑出回放缓冲，先把缓冲之前的全部内容作为快照发送
+            sink.next(snapshotEvent(replayFirstSeq - 1, content.substring(0, replayStartOffset)));
+            next = replayFirstSeq;
+        }
+        long seq = replayFirstSeq;
+        for (String token : replay) {
+            if (seq >= next) {
+                sink.next(contentEvent(seq, token));
+            }
+            seq++;
+        }
+    }
+
+    static ServerSentEvent<String> contentEvent(long seq, String token) {
+        return ServerSentEvent.<String>builder().id(String.valueOf(seq)).event("content").data(token).build();
+    }
+
+    static ServerSentEvent<String> snapshotEvent(long seq, String text) {
+        return ServerSentEvent.<String>builder().id(String.valueOf(seq)).event("snapshot").data(text).build();
+    }
+}
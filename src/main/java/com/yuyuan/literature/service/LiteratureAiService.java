@@ -4,20 +4,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yuyuan.literature.common.exception.BusinessException;
 import com.yuyuan.literature.common.result.ResultCode;
 import com.yuyuan.literature.common.utils.JSONRepairUtil;
+import com.yuyuan.literature.dto.ClassificationResponse;
+import com.yuyuan.literature.pipeline.ImportMetrics;
+import com.yuyuan.literature.pipeline.ImportPipeline;
+import com.yuyuan.literature.pipeline.Lane;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 文献 AI 服务
@@ -28,29 +34,87 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 @Slf4j
 @Service
 public class LiteratureAiService {
-    @Value("classpath:prompts/literature-guide-system-prompt.txt")
-    private Resource systemPromptResource;
-    @Value("classpath:prompts/literature-classification-system-prompt.txt")
-    private Resource classificationPromptResource;
+    private static final String GUIDE_USER_PREFIX = "请为以下文献生成阅读指南：\n\n";
+    private static final String CLASSIFICATION_USER_PREFIX = "请为以下文献阅读指南生成分类和描述：\n\n";
+    /**
+     * 未配置 max-tokens 时按常见阅读指南的长度估算输出 token 数
+     */
+    private static final int DEFAULT_GUIDE_OUTPUT_TOKENS = 4096;
+    private static final double CLASSIFICATION_TEMPERATURE = 0.3;
+
+    @Value("${spring.ai.openai.chat.options.model:}")
+    private String model;
+    @Value("${spring.ai.openai.chat.options.temperature:}")
+    private String temperature;
+    @Value("${spring.ai.openai.chat.options.max-tokens:}")
+    private String maxTokens;
+    @Value("${literature.guide.map-reduce.enabled:true}")
+    private boolean mapReduceEnabled;
+    @Value("${literature.guide.map-reduce.threshold-tokens:24000}")
+    private int mapReduceThresholdTokens;
+    @Value("${literature.guide.map-reduce.parallelism:4}")
+    private int mapReduceParallelism;
+    @Value("${literature.guide.map-reduce.notes-max-tokens:1024}")
+    private int notesMaxTokens;
+    @Value("${literature.classification.batch.item-max-tokens:3000}")
+    private int batchItemMaxTokens;
+    @Value("${literature.classification.batch.item-output-tokens:400}")
+    private int batchItemOutputTokens;
 
     private final ObjectMapper objectMapper;
     private final ChatClient chatClient;
+    private final ReadingGuideWriteBuffer readingGuideWriteBuffer;
+    private final ImportPipeline importPipeline;
+    private final LlmResponseCache llmResponseCache;
+    private final DocumentChunker documentChunker;
+    private final ImportMetrics importMetrics;
+    private final PromptRegistry promptRegistry;
+    private final LlmResilience llmResilience;
 
-    public LiteratureAiService(ObjectMapper objectMapper, ChatClient.Builder builder) {
+    public LiteratureAiService(ObjectMapper objectMapper, ChatClient.Builder builder,
+                               ReadingGuideWriteBuffer readingGuideWriteBuffer, ImportPipeline importPipeline,
+                               LlmResponseCache llmResponseCache, DocumentChunker documentChunker,
+                               ImportMetrics importMetrics, PromptRegistry promptRegistry,
+                               LlmResilience llmResilience) {
         this.objectMapper = objectMapper;
         this.chatClient = builder.build();
+        this.readingGuideWriteBuffer = readingGuideWriteBuffer;
+        this.importPipeline = importPipeline;
+        this.llmResponseCache = llmResponseCache;
+        this.documentChunker = documentChunker;
+        this.importMetrics = importMetrics;
+        this.promptRegistry = promptRegistry;
+        this.llmResilience = llmResilience;
     }
 
-    public String generateReadingGuide(String fileContent) {
+    /**
+     * 生成阅读指南，阻塞到生成完成，调用方应在虚拟线程上执行
+     *
+     * @param lane 调用来源，决定在流水线各阶段和大模型调用网关中的排队
+     */
+    public String generateReadingGuide(String fileContent, Lane lane) {
         try {
-            String content = chatClient.prompt()
-                    .system(systemPromptResource.getContentAsString(UTF_8))
-                    .user("请为以下文献生成阅读指南：\n\n" + fileContent)
-                    .call()
-                    .content();
+            PromptRegistry.Prompt system = promptRegistry.get(PromptRegistry.GUIDE);
+            UserPrompt user = guideUserPrompt(fileContent, lane).block();
+            String key = user.fingerprint(system, model, temperature, maxTokens);
+            Optional<List<String>> cached = llmResponseCache.get(key);
+            if (cached.isPresent()) {
+                String content = String.join("", cached.get());
+                log.info("阅读指南命中缓存，内容长度: {}", content.length());
+                return content;
+            }
+
+            String content = llmResilience.call(LlmResilience.Call.GUIDE, lane,
+                    system.tokens() + user.tokens() + guideOutputTokens(),
+                    () -> chatClient.prompt()
+                            .system(system.text())
+                            .user(user.text())
+                            .call()
+                            .content());
             if (content == null || content.trim().isEmpty()) {
                 throw new BusinessException(ResultCode.THIRD_PARTY_SERVICE_ERROR, "AI 返回内容为空");
             }
+            llmResponseCache.put(key, List.of(content));
             log.info("阅读指南生成成功，内容长度: {}", content.length());
             return content;
         } catch (Exception e) {
@@ -62,99 +126,322 @@ public class LiteratureAiService {
         }
     }
 
-    public Flux<String> generateReadingGuideFlux(String fileContent, Long literatureId,
-                                                 LiteratureService literatureService) {
-        String system = null;
-        try {
-            system = systemPromptResource.getContentAsString(StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        String user = "请为以下文献生成阅读指南：\n\n" + fileContent;
-        return chatClient.prompt()
-                .system(system)
-                .user(user)
-                .stream()
-                .content()
+    /**
+     * 流式生成阅读指南，生成过程中按阈值增量落库
+     * <p>
+     * 流正常结束后由调用方通过 {@link ReadingGuideWriteBuffer#complete(Long)} 取回完整内容；
+     * 出错或被取消时已生成的部分会被写入数据库。命中缓存时按缓存的分片重新推送。
+     *
+     * @param lane 调用来源，决定在流水线各阶段和大模型调用网关中的排队
+     */
+    public Flux<String> generateReadingGuideFlux(String fileContent, Long literatureId, Lane lane) {
+        PromptRegistry.Prompt systemPrompt = promptRegistry.get(PromptRegistry.GUIDE);
+        Flux<String> tokens = guideUserPrompt(fileContent, lane).flatMapMany(user -> {
+            String key = user.fingerprint(systemPrompt, model, temperature, maxTokens);
+            return Mono.fromCallable(() -> llmResponseCache.get(key))
+                    .subscribeOn(importPipeline.guide().scheduler(lane))
+                    .flatMapMany(cached -> cached
+                            .map(chunks -> {
+                                log.info("阅读指南命中缓存，ID: {}, 分片数: {}", literatureId, chunks.size());
+                                return Flux.fromIterable(chunks);
+                            })
+                            .orElseGet(() -> streamAndCache(systemPrompt, user, key, lane)));
+        });
+        return tokens
+                // token 回调发生在 HTTP 客户端线程上，切换到落库阶段再写数据库
+                .publishOn(importPipeline.persist().scheduler(lane))
                 .doOnNext(token -> {
                     try {
-                        literatureService.updateReadingGuideAppend(literatureId, token);
+                        readingGuideWriteBuffer.append(literatureId, token);
                     } catch (Exception ex) {
                         log.warn("阅读指南追加写库失败，ID: {}", literatureId, ex);
                     }
-                });
+                })
+                .doOnError(e -> readingGuideWriteBuffer.abort(literatureId))
+                .doOnCancel(() -> readingGuideWriteBuffer.abort(literatureId));
     }
 
-    public void generateClassificationWithVirtualThread(String readingGuide, Long literatureId,
-            LiteratureService literatureService) {
-        // 使用虚拟线程
-        Thread.startVirtualThread(() -> {
-            try {
-                String content = chatClient.prompt()
-                        .system(classificationPromptResource.getContentAsString(StandardCharsets.UTF_8))
-                        .user("请为以下文献阅读指南生成分类和描述：\n\n" + readingGuide)
-                        .options(OpenAiChatOptions.builder().temperature(0.3).maxTokens(500).build())
+    /**
+     * 生成阅读指南的用户内容
+     * <p>
+     * 估算 token 数不超过 threshold-tokens 时直接提交全文；否则按章节分块，各块在分段摘要阶段并发整理成阅读笔记
+     * （每块的结果单独缓存），再按原顺序汇总为用户内容，由最终的生成调用基于笔记写出整篇的阅读指南。
+     */
+    private Mono<UserPrompt> guideUserPrompt(String fileContent, Lane lane) {
+        UserPrompt direct = new UserPrompt(GUIDE_USER_PREFIX, fileContent);
+        int fullTokens = direct.tokens();
+        if (!mapReduceEnabled || fullTokens <= mapReduceThresholdTokens) {
+            return Mono.just(direct);
+        }
+        return Mono.fromCallable(() -> documentChunker.chunk(fileContent))
+                .flatMap(chunks -> Flux.fromIterable(chunks)
+                        .index()
+                        .flatMapSequential(chunk -> Mono.fromCallable(
+                                        () -> chunkNotes(chunk.getT1().intValue() + 1, chunks.size(), chunk.getT2(), lane))
+                                .subscribeOn(importPipeline.summarize().scheduler(lane)), mapReduceParallelism)
+                        .collectList()
+                        .map(notes -> {
+                            String prefix = "以下是一篇长文献按原文顺序分 " + notes.size()
+                                    + " 段整理的阅读笔记，请据此为整篇文献生成阅读指南：\n";
+                            StringBuilder content = new StringBuilder();
+                            for (int i = 0; i < notes.size(); i++) {
+                                content.append("\n## 第 ").append(i + 1).append(" 段\n\n").append(notes.get(i).trim())
+                                        .append('\n');
+                            }
+                            long mapTokens = chunks.stream().mapToLong(DocumentChunker::estimateTokens).sum();
+                            UserPrompt reduce = new UserPrompt(prefix, content.toString());
+                            importMetrics.recordMapReduce(chunks.size(), fullTokens, mapTokens, reduce.tokens());
+                            log.info("长文献分段生成阅读指南，估算 token: {}, 分块数: {}, 汇总 token: {}",
+                                    fullTokens, chunks.size(), reduce.tokens());
+                            return reduce;
+                        }));
+    }
+
+    /**
+     * 整理单个分块的阅读笔记，命中缓存时不调用模型
+     */
+    private String chunkNotes(int index, int total, String chunk, Lane lane) {
+        PromptRegistry.Prompt system = promptRegistry.get(PromptRegistry.CHUNK_NOTES);
+        UserPrompt user = new UserPrompt("以下是文献第 " + index + "/" + total + " 段的内容：\n\n", chunk);
+        OpenAiChatOptions options = OpenAiChatOptions.builder().maxTokens(notesMaxTokens).build();
+        String key = user.fingerprint(system, model, temperature, notesMaxTokens);
+        Optional<List<String>> cached = llmResponseCache.get(key);
+        if (cached.isPresent()) {
+            return String.join("", cached.get());
+        }
+        String notes = llmResilience.call(LlmResilience.Call.NOTES, lane,
+                system.tokens() + user.tokens() + notesMaxTokens,
+                () -> chatClient.prompt()
+                        .system(system.text())
+                        .user(user.text())
+                        .options(options)
                         .call()
-                        .content();
-
-                if (content == null || content.trim().isEmpty()) {
-                    log.error("AI 返回的分类内容为空");
-                    literatureService.updateStatus(literatureId,
-                            com.yuyuan.literature.entity.Literature.Status.COMPLETED.getCode());
-                    return;
-                }
-
-                try {
-                    String repaired = JSONRepairUtil.repair(content);
-                    com.yuyuan.literature.dto.ClassificationResponse classification = objectMapper
-                            .readValue(repaired, com.yuyuan.literature.dto.ClassificationResponse.class);
-                    literatureService.updateClassification(literatureId, classification.getTags(),
-                            classification.getDesc());
-                    log.info("文献分类生成并保存成功，ID: {}, 标签数量: {}", literatureId,
-                            classification.getTags() != null ? classification.getTags().size() : 0);
-                } catch (Exception e) {
-                    log.error("解析分类结果失败: {}", content, e);
-                    literatureService.updateStatus(literatureId,
-                            com.yuyuan.literature.entity.Literature.Status.COMPLETED.getCode());
-                }
+                        .content());
+        if (notes == null || notes.isBlank()) {
+            throw new BusinessException(ResultCode.THIRD_PARTY_SERVICE_ERROR, "AI 返回的分段笔记为空");
+        }
+        llmResponseCache.put(key, List.of(notes));
+        return notes;
+    }
 
-            } catch (Exception e) {
-                log.error("生成文献分类失败", e);
-                literatureService.updateStatus(literatureId,
-                        com.yuyuan.literature.entity.Literature.Status.COMPLETED.getCode());
-            }
+    /**
+     * 调用模型流式生成，完整结束后把各分片写入缓存
+     */
+    private Flux<String> streamAndCache(PromptRegistry.Prompt system, UserPrompt user, String key,
+                                        Lane lane) {
+        return Flux.defer(() -> {
+            List<String> chunks = new ArrayList<>();
+            return llmResilience.stream(lane, system.tokens() + user.tokens() + guideOutputTokens(),
+                            () -> chatClient.prompt()
+                                    .system(system.text())
+                                    .user(user.text())
+                                    .stream()
+                                    .content())
+                    .doOnNext(chunks::add)
+                    .doOnComplete(() -> cacheQuietly(key, chunks, lane));
         });
     }
 
+    /**
+     * 在落库阶段写入缓存。缓存写入是尽力而为的，落库阶段排队已满时只记录日志，不能让已经成功的流以错误结束
+     */
+    private void cacheQuietly(String key, List<String> chunks, Lane lane) {
+        try {
+            importPipeline.persist().execute(lane, () -> llmResponseCache.put(key, chunks));
+        } catch (RejectedExecutionException e) {
+            log.warn("落库阶段排队已满，跳过大模型响应缓存写入: {}", key, e);
+        }
+    }
+
+    /**
+     * 生成分类：大模型调用在分类阶段的虚拟线程上执行，结果在落库阶段写入
+     * <p>
+     * 只有模型返回了无法使用的内容时才把文献标记为完成；调用本身失败（超时、重试耗尽、熔断）时以错误结束，
+     * 由任务按退避重试，次数用尽后标记为处理失败。
+     *
+     * @param lane 分类任务记录的来源：在线上传生成阅读指南后的分类仍按在线请求排队
+     */
     public Mono<String> generateClassificationMono(String readingGuide, Long literatureId,
-                                                   LiteratureService literatureService) {
+                                                   LiteratureService literatureService, Lane lane) {
+        UserPrompt user = new UserPrompt(CLASSIFICATION_USER_PREFIX, readingGuide);
+        OpenAiChatOptions options = OpenAiChatOptions.builder()
+                .temperature(CLASSIFICATION_TEMPERATURE)
+                .maxTokens(500)
+                .build();
+        AtomicReference<String> key = new AtomicReference<>();
         return Mono.fromCallable(() -> {
-            String content = chatClient.prompt()
-                    .system(classificationPromptResource.getContentAsString(StandardCharsets.UTF_8))
-                    .user("请为以下文献阅读指南生成分类和描述：\n\n" + readingGuide)
-                    .options(OpenAiChatOptions.builder().temperature(0.3).maxTokens(500).build())
-                    .call()
-                    .content();
+                    PromptRegistry.Prompt system = promptRegistry.get(PromptRegistry.CLASSIFICATION);
+                    key.set(user.fingerprint(system, model, options.getTemperature(), options.getMaxTokens()));
+                    Optional<List<String>> cached = llmResponseCache.get(key.get());
+                    if (cached.isPresent()) {
+                        log.info("文献分类命中缓存，ID: {}", literatureId);
+                        return String.join("", cached.get());
+                    }
+                    return llmResilience.call(LlmResilience.Call.CLASSIFICATION, lane,
+                            system.tokens() + user.tokens() + options.getMaxTokens(),
+                            () -> chatClient.prompt()
+                                    .system(system.text())
+                                    .user(user.text())
+                                    .options(options)
+                                    .call()
+                                    .content());
+                })
+                .subscribeOn(importPipeline.classify().scheduler(lane))
+                .defaultIfEmpty("")
+                .publishOn(importPipeline.persist().scheduler(lane))
+                .map(content -> {
+                    if (content.trim().isEmpty()) {
+                        log.error("AI 返回的分类内容为空");
+                        literatureService.updateStatus(literatureId,
+                                com.yuyuan.literature.entity.Literature.Status.COMPLETED.getCode());
+                        return "分类生成失败：AI 返回内容为空";
+                    }
 
-            if (content == null || content.trim().isEmpty()) {
-                literatureService.updateStatus(literatureId,
-                        com.yuyuan.literature.entity.Literature.Status.COMPLETED.getCode());
-                return "分类生成失败：AI 返回内容为空";
+                    try {
+                        String repaired = JSONRepairUtil.repair(content);
+                        ClassificationResponse classification = objectMapper
+                                .readValue(repaired, ClassificationResponse.class);
+                        literatureService.updateClassification(literatureId, classification.getTags(),
+                                classification.getDesc());
+                        // 只缓存能够解析的结果，解析失败的响应下次重新调用模型
+                        llmResponseCache.put(key.get(), List.of(content));
+                        log.info("文献分类生成并保存成功，ID: {}, 标签数量: {}", literatureId,
+                                classification.getTags() != null ? classification.getTags().size() : 0);
+                        return "分类生成完成";
+                    } catch (Exception e) {
+                        log.error("解析分类结果失败: {}", content, e);
+                        literatureService.updateStatus(literatureId,
+                                com.yuyuan.literature.entity.Literature.Status.COMPLETED.getCode());
+                        return "分类解析失败：" + e.getMessage();
+                    }
+                });
+    }
+
+    /**
+     * 批量生成分类：多篇阅读指南（每篇最多取前 item-max-tokens）合并为一次模型调用，结果按序号写回各篇文献
+     * <p>
+     * 每篇的结果单独缓存，命中缓存的不再提交给模型。返回已保存分类的文献ID，响应无法解析或其中缺少的文献不在其中，
+     * 由调用方逐篇单独分类；调用本身失败（包括熔断）时以错误结束。
+     *
+     * @param readingGuides 文献ID到阅读指南
+     */
+    public Mono<Set<Long>> generateClassificationBatchMono(Map<Long, String> readingGuides,
+                                                          LiteratureService literatureService) {
+        return Mono.fromCallable(() -> classifyBatch(readingGuides))
+                .subscribeOn(importPipeline.classify().scheduler(Lane.BATCH))
+                .publishOn(importPipeline.persist().scheduler(Lane.BATCH))
+                .map(results -> {
+                    results.forEach((literatureId, classification) -> literatureService.updateClassification(
+                            literatureId, classification.getTags(), classification.getDesc()));
+                    log.info("批量分类保存完成，文献数: {}, 成功: {}", readingGuides.size(), results.size());
+                    return results.keySet();
+                });
+    }
+
+    /**
+     * 查询各篇的缓存，未命中的合并为一次调用并解析
+     */
+    private Map<Long, ClassificationResponse> classifyBatch(Map<Long, String> readingGuides) {
+        PromptRegistry.Prompt system = promptRegistry.get(PromptRegistry.BATCH_CLASSIFICATION);
+        Map<Long, ClassificationResponse> results = new LinkedHashMap<>();
+        List<Long> pendingIds = new ArrayList<>();
+        List<String> pendingGuides = new ArrayList<>();
+        List<String> pendingKeys = new ArrayList<>();
+        readingGuides.forEach((literatureId, readingGuide) -> {
+            String head = DocumentChunker.head(readingGuide, batchItemMaxTokens);
+            String key = new UserPrompt(CLASSIFICATION_USER_PREFIX, head)
+                    .fingerprint(system, model, CLASSIFICATION_TEMPERATURE, batchItemOutputTokens);
+            Optional<ClassificationResponse> cached = llmResponseCache.get(key)
+                    .flatMap(chunks -> readClassification(String.join("", chunks)));
+            if (cached.isPresent()) {
+                results.put(literatureId, cached.get());
+            } else {
+                pendingIds.add(literatureId);
+                pendingGuides.add(head);
+                pendingKeys.add(key);
             }
+        });
+        if (pendingIds.isEmpty()) {
+            log.info("批量分类全部命中缓存，文献数: {}", results.size());
+            return results;
+        }
 
+        int size = pendingIds.size();
+        UserPrompt user = new UserPrompt(ClassificationBatch.prefix(size), ClassificationBatch.content(pendingGuides));
+        OpenAiChatOptions options = OpenAiChatOptions.builder()
+                .temperature(CLASSIFICATION_TEMPERATURE)
+                .maxTokens(batchItemOutputTokens * size)
+                .build();
+        String content = llmResilience.call(LlmResilience.Call.BATCH_CLASSIFICATION, Lane.BATCH,
+                system.tokens() + user.tokens() + options.getMaxTokens(),
+                () -> chatClient.prompt()
+                        .system(system.text())
+                        .user(user.text())
+                        .options(options)
+                        .call()
+                        .content());
+        Map<Integer, ClassificationResponse> parsed;
+        try {
+            parsed = ClassificationBatch.parse(objectMapper, content == null ? "" : content, size);
+        } catch (Exception e) {
+            log.warn("解析批量分类结果失败，{} 篇改为逐篇分类: {}", size, content, e);
+            parsed = Map.of();
+        }
+        parsed.forEach((index, classification) -> {
+            classification.setId(null);
+            results.put(pendingIds.get(index - 1), classification);
             try {
-                String repaired = JSONRepairUtil.repair(content);
-                com.yuyuan.literature.dto.ClassificationResponse classification = objectMapper
-                        .readValue(repaired, com.yuyuan.literature.dto.ClassificationResponse.class);
-                literatureService.updateClassification(literatureId, classification.getTags(),
-                        classification.getDesc());
-                return "分类生成完成";
+                llmResponseCache.put(pendingKeys.get(index - 1),
+                        List.of(objectMapper.writeValueAsString(classification)));
             } catch (Exception e) {
-                literatureService.updateStatus(literatureId,
-                        com.yuyuan.literature.entity.Literature.Status.COMPLETED.getCode());
-                return "分类解析失败：" + e.getMessage();
+                log.warn("批量分类结果写入缓存失败，ID: {}", pendingIds.get(index - 1), e);
             }
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
+        importMetrics.recordBatchClassification(size, parsed.size());
+        log.info("批量分类调用完成，提交: {} 篇，解析成功: {} 篇", size, parsed.size());
+        return results;
     }
 
+    private Optional<ClassificationResponse> readClassification(String json) {
+        try {
+            return Optional.of(objectMapper.readValue(json, ClassificationResponse.class));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private int guideOutputTokens() {
+        try {
+            return Integer.parseInt(maxTokens.trim());
+        } catch (NumberFormatException e) {
+            return DEFAULT_GUIDE_OUTPUT_TOKENS;
+        }
+    }
+
+    /**
+     * 用户内容：固定的说明前缀加文献内容
+     * <p>
+     * 缓存键分别摘要两部分，只有未命中缓存、需要调用模型时才拼接完整的用户消息。
+     *
+     * @param tokens 估算的 token 数，构造时计算一次
+     */
+    private record UserPrompt(String prefix, String content, int tokens) {
+
+        UserPrompt(String prefix, String content) {
+            this(prefix, content, DocumentChunker.estimateTokens(prefix) + DocumentChunker.estimateTokens(content));
+        }
+
+        String fingerprint(PromptRegistry.Prompt system, Object... options) {
+            Object[] parts = new Object[options.length + 3];
+            parts[0] = system.id();
+            parts[1] = prefix;
+            parts[2] = content;
+            System.arraycopy(options, 0, parts, 3, options.length);
+            return LlmResponseCache.fingerprint(parts);
+        }
+
+        String text() {
+            return prefix + content;
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.entity.LiteratureContent;
+import com.yuyuan.literature.mapper.LiteratureContentMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 文献内容存取
+ * <p>
+ * 全文和阅读指南保存在 {@code literature_content} 表，列表和过滤只读取 {@code literature} 元数据，
+ * 需要完整内容时再按文献ID读取。内容以压缩格式存储，只有读取的列才会解压。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class LiteratureContentService {
+
+    private final LiteratureContentMapper literatureContentMapper;
+
+    /**
+     * 保存新文献解析出的全文
+     */
+    public void create(Long literatureId, String fullText) {
+        literatureContentMapper.insertContent(literatureId, fullText);
+    }
+
+    /**
+     * 内容重复的文献复用来源的全文和阅读指南
+     */
+    public void copy(Long sourceId, Long targetId) {
+        literatureContentMapper.copyContent(sourceId, targetId);
+    }
+
+    /**
+     * 读取阅读指南
+     *
+     * @return 阅读指南，尚未生成时为 null
+     */
+    public String getReadingGuide(Long literatureId) {
+        LiteratureContent content = literatureContentMapper.selectReadingGuide(literatureId);
+        return content != null ? content.getReadingGuide() : null;
+    }
+
+    /**
+     * 读取全文
+     *
+     * @return 全文，未保存（早于内容分表导入）时为 null
+     */
+    public String getFullText(Long literatureId) {
+        LiteratureContent content = literatureContentMapper.selectFullText(literatureId);
+        return content != null ? content.getFullText() : null;
+    }
+
+    /**
+     * 批量读取阅读指南
+     *
+     * @return 文献ID到阅读指南，没有阅读指南的文献不包含在内
+     */
+    public Map<Long, String> getReadingGuides(Collection<Long> literatureIds) {
+        if (literatureIds.isEmpty()) {
+            return Map.of();
+        }
+        return literatureContentMapper.selectReadingGuides(literatureIds).stream()
+                .collect(Collectors.toMap(LiteratureContent::getLiteratureId, LiteratureContent::getReadingGuide));
+    }
+
+    /**
+     * 覆盖阅读指南，传 null 时清空
+     *
+     * @param promptId 生成所用的提示词模板ID（{@link PromptRegistry.Prompt#id()}）
+     */
+    public void saveReadingGuide(Long literatureId, String readingGuide, String promptId) {
+        literatureContentMapper.mergeReadingGuide(literatureId, readingGuide, promptId);
+    }
+
+    /**
+     * 覆盖全文
+     */
+    public void saveFullText(Long literatureId, String fullText) {
+        literatureContentMapper.mergeFullText(literatureId, fullText);
+    }
+
+    /**
+     * 追加阅读指南内容，追加期间不压缩，完成后由 {@link #saveReadingGuide} 整体重写
+     */
+    public void appendReadingGuide(Long literatureId, String chunk) {
+        literatureContentMapper.appendReadingGuide(literatureId, chunk);
+    }
+}
@@ -0,0 +1,188 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.dto.LiteratureQueryRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 文献列表总数缓存
+ * <p>
+ * 以过滤条件（不含页码、每页条数和排序）为键缓存 COUNT 结果，翻页和切换排序时不再重复统计。
+ * 文献数据每次写入都会推进代数，之前统计的条目随之失效：精确模式下重新统计，
+ * 估算模式下仍可返回失效条目作为近似值。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Component
+public class LiteratureCountCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong approximations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public LiteratureCountCache(@Value("${literature.count-cache.enabled:true}") boolean enabled,
+                                @Value("${literature.count-cache.max-entries:1000}") int maxEntries,
+                                @Value("${literature.count-cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * 统计结果
+     *
+     * @param total 总数
+     * @param exact 是否为当前数据的精确值
+     */
+    public record Count(long total, boolean exact) {
+    }
+
+    /**
+     * 规范化后的过滤条件
+     *
+     * @param indexed 关键词是否经全文索引匹配（索引未就绪时退回模糊匹配，结果可能不同）
+     */
+    public record Key(String keyword, boolean indexed, List<String> tags, boolean allTags, List<String> excludeTags,
+                      String fileType, Integer status, String startDate, String endDate) {
+
+        /**
+         * 由查询请求生成缓存键，标签顺序不影响结果，因此排序后参与比较
+         */
+        public static Key of(LiteratureQueryRequest request, boolean indexed) {
+            List<String> tags = sorted(request.getTags());
+            return new Key(trimToNull(request.getKeyword()), indexed, tags,
+                    tags.size() > 1 && "AND".equalsIgnoreCase(request.getTagMode()),
+                    sorted(request.getExcludeTags()),
+                    request.getFileType() != null ? trimToNull(request.getFileType().toLowerCase(Locale.ROOT)) : null,
+                    request.getStatus(), trimToNull(request.getStartDate()), trimToNull(request.getEndDate()));
+        }
+
+        /**
+         * 是否没有任何过滤条件
+         */
+        public boolean isUnfiltered() {
+            return keyword == null && tags.isEmpty() && excludeTags.isEmpty() && fileType == null
+                    && status == null && startDate == null && endDate == null;
+        }
+
+        private static List<String> sorted(List<String> values) {
+            return values == null ? List.of() : values.stream().sorted().distinct().toList();
+        }
+
+        private static String trimToNull(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    /**
+     * 取精确总数，缓存中没有当前代数的条目时调用 counter 统计并写入缓存
+     */
+    public long exact(Key key, LongSupplier counter) {
+        long current = generation.get();
+        Entry entry = enabled ? entries.get(key) : null;
+        if (entry != null && isFresh(entry, current, System.currentTimeMillis())) {
+            hits.incrementAndGet();
+            return entry.total();
+        }
+        misses.incrementAndGet();
+        long total = counter.getAsLong();
+        put(key, total, current);
+        return total;
+    }
+
+    /**
+     * 取近似总数：优先返回缓存条目（不论是否失效），都没有时调用 estimator，仍无结果再精确统计
+     *
+     * @param estimator 快速估算，无法估算时返回空
+     */
+    public Count approximate(Key key, LongSupplier counter, Supplier<Optional<Long>> estimator) {
+        long current = generation.get();
+        Entry entry = enabled ? entries.get(key) : null;
+        if (entry != null) {
+            boolean fresh = isFresh(entry, current, System.currentTimeMillis());
+            if (fresh) {
+                hits.incrementAndGet();
+            } else {
+                approximations.incrementAndGet();
+            }
+            return new Count(entry.total(), fresh);
+        }
+        Optional<Long> estimate = estimator.get();
+        if (estimate.isPresent()) {
+            approximations.incrementAndGet();
+            return new Count(estimate.get(), false);
+        }
+        return new Count(exact(key, counter), true);
+    }
+
+    /**
+     * 直接记录已知的精确总数（例如最后一页未取满时可由偏移量推算）
+     */
+    public void record(Key key, long total) {
+        put(key, total, generation.get());
+    }
+
+    /**
+     * 文献数据发生变化，使已缓存的总数失效
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * 缓存指标快照
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entries", entries.size());
+        stats.put("generation", generation.get());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("approximations", approximations.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private void put(Key key, long total, long countedGeneration) {
+        if (!enabled || countedGeneration != generation.get()) {
+            // 统计期间数据已变化，结果不一定反映当前数据
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            long now = System.currentTimeMillis();
+            entries.entrySet().removeIf(e -> !isFresh(e.getValue(), countedGeneration, now));
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(total, countedGeneration, System.currentTimeMillis()));
+    }
+
+    private boolean isFresh(Entry entry, long current, long now) {
+        return entry.generation() == current && now - entry.createdMillis() < ttlMillis;
+    }
+
+    private record Entry(long total, long generation, long createdMillis) {
+    }
+}
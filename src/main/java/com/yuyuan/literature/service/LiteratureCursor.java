@@ -0,0 +1,125 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.common.exception.BusinessException;
+import com.yuyuan.literature.common.result.ResultCode;
+import com.yuyuan.literature.entity.Literature;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * 文献列表游标
+ * <p>
+ * 记录上一页最后一条记录的排序键和ID，下一页从该位置之后继续读取，不需要跳过前面的记录。
+ * 对外以 Base64 字符串传递，客户端不应解析其内容。
+ *
+ * @param sortKey 排序键
+ * @param desc    是否降序
+ * @param value   上一页最后一条记录的排序键值，按相关度排序时为已返回的条数
+ * @param lastId  上一页最后一条记录的ID
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public record LiteratureCursor(SortKey sortKey, boolean desc, String value, long lastId) {
+
+    private static final String VERSION = "v1";
+
+    /**
+     * 支持游标分页的排序键，均为非空列，与ID组合后唯一
+     */
+    public enum SortKey {
+        CREATE_TIME("create_time"),
+        UPDATE_TIME("update_time"),
+        FILE_SIZE("file_size"),
+        ORIGINAL_NAME("original_name"),
+        ID("id"),
+        /**
+         * 全文检索相关度，只在有关键词且未指定排序字段时使用
+         */
+        RELEVANCE(null);
+
+        private final String column;
+
+        SortKey(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        /**
+         * 按请求中的排序字段（驼峰或下划线形式）解析，为空时按创建时间排序
+         */
+        public static SortKey fromSortField(String sortField) {
+            if (sortField == null || sortField.isBlank()) {
+                return CREATE_TIME;
+            }
+            String normalized = sortField.trim().replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+            for (SortKey key : values()) {
+                if (normalized.equals(key.column)) {
+                    return key;
+                }
+            }
+            throw new BusinessException(ResultCode.BAD_REQUEST, "游标分页不支持按该字段排序: " + sortField);
+        }
+
+        /**
+         * 取记录在该排序键上的值
+         */
+        public String valueOf(Literature literature) {
+            return switch (this) {
+                case CREATE_TIME -> String.valueOf(literature.getCreateTime());
+                case UPDATE_TIME -> String.valueOf(literature.getUpdateTime());
+                case FILE_SIZE -> String.valueOf(literature.getFileSize());
+                case ORIGINAL_NAME -> literature.getOriginalName();
+                case ID -> String.valueOf(literature.getId());
+                case RELEVANCE -> throw new IllegalStateException("相关度没有列值");
+            };
+        }
+
+        /**
+         * 把游标中的字符串值还原为与列类型一致的查询参数
+         */
+        public Object parse(String value) {
+            return switch (this) {
+                case CREATE_TIME, UPDATE_TIME -> LocalDateTime.parse(value);
+                case FILE_SIZE, ID -> Long.parseLong(value);
+                case ORIGINAL_NAME -> value;
+                case RELEVANCE -> Integer.parseInt(value);
+            };
+        }
+    }
+
+    /**
+     * 编码为对外传递的游标字符串
+     */
+    public String encode() {
+        String raw = String.join("|", VERSION, sortKey.name(), desc ? "D" : "A", Long.toString(lastId), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析客户端传回的游标
+     *
+     * @throws BusinessException 游标格式不正确
+     */
+    public static LiteratureCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException(raw);
+            }
+            LiteratureCursor decoded = new LiteratureCursor(SortKey.valueOf(parts[1]), "D".equals(parts[2]),
+                    parts[4], Long.parseLong(parts[3]));
+            // 提前校验取值，避免到数据库层才报错
+            decoded.sortKey.parse(decoded.value);
+            return decoded;
+        } catch (RuntimeException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+}
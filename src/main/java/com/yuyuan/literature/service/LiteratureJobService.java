@@ -0,0 +1,83 @@
+package com.yuyuan.literature.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.yuyuan.literature.entity.LiteratureJob;
+import com.yuyuan.literature.pipeline.Lane;
+
+import java.util.List;
+
+/**
+ * 文献处理任务服务接口
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public interface LiteratureJobService extends IService<LiteratureJob> {
+
+    /**
+     * 新建待执行任务，由后台工作线程领取执行
+     *
+     * @param literatureId 文献ID
+     * @param type 任务类型
+     * @param lane 发起方的调度来源，后台执行时按此排队
+     * @return 任务ID
+     */
+    Long enqueue(Long literatureId, LiteratureJob.Type type, Lane lane);
+
+    /**
+     * 新建由当前节点立即执行的任务（例如 SSE 请求内的生成），租约归当前节点所有
+     *
+     * @param literatureId 文献ID
+     * @param type 任务类型
+     * @param lane 发起方的调度来源，任务被释放给后台后按此排队
+     * @return 任务ID
+     */
+    Long startInline(Long literatureId, LiteratureJob.Type type, Lane lane);
+
+    /**
+     * 领取可执行的任务
+     *
+     * @param limit 最大数量
+     * @return 领取成功的任务
+     */
+    List<LiteratureJob> claim(int limit);
+
+    /**
+     * 为当前节点持有的全部任务续约
+     */
+    void heartbeat();
+
+    /**
+     * 标记任务完成
+     *
+     * @param jobId 任务ID
+     */
+    void complete(Long jobId);
+
+    /**
+     * 标记任务失败，未超过最大重试次数时按指数退避重新排队，否则将文献标记为处理失败
+     *
+     * @param jobId 任务ID
+     * @param error 失败原因
+     */
+    void fail(Long jobId, Throwable error);
+
+    /**
+     * 放弃当前节点对任务的租约，任务立即回到待执行状态由后台继续处理
+     *
+     * @param jobId 任务ID
+     */
+    void release(Long jobId);
+
+    /**
+     * 为处于处理中但没有未完成任务的文献补建任务：阅读指南已生成的补建分类任务，否则补建阅读指南任务
+     *
+     * @return 补建的任务数
+     */
+    int resumeOrphans();
+
+    /**
+     * 当前节点标识
+     */
+    String getNodeId();
+}
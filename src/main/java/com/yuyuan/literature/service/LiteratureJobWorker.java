@@ -0,0 +1,275 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.entity.LiteratureJob;
+import com.yuyuan.literature.pipeline.ImportPipeline;
+import com.yuyuan.literature.pipeline.Lane;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 文献任务后台执行器
+ * <p>
+ * 定时从任务表领取任务并在导入流水线上执行，同时为本节点持有的任务续约。
+ * 启动时为处于处理中却没有任务的文献补建任务，使重启前未完成的文献能够继续处理。
+ * 启用批量分类时，领取到的批量来源分类任务先在本节点攒批（租约照常续约），攒够 size 个或最早的任务等待超过 linger 后
+ * 合并为一次模型调用，一批只占用一个并行度；在线请求发起的分类不等待攒批，直接逐个执行。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class LiteratureJobWorker implements ApplicationRunner {
+
+    private final LiteratureJobService literatureJobService;
+    private final LiteratureService literatureService;
+    private final LiteratureContentService literatureContentService;
+    private final FileProcessingService fileProcessingService;
+    private final LiteratureAiService literatureAiService;
+    private final GuideGenerationService guideGenerationService;
+    private final ImportPipeline importPipeline;
+    private final int parallelism;
+    private final boolean classificationBatchEnabled;
+    private final int classificationBatchSize;
+    private final long classificationLingerNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * 等待攒批的批量来源分类任务，只在 poll 中访问（定时任务不会并发执行）
+     */
+    private final List<LiteratureJob> pendingClassifications = new ArrayList<>();
+    private long pendingSince;
+
+    public LiteratureJobWorker(LiteratureJobService literatureJobService, LiteratureService literatureService,
+                               LiteratureContentService literatureContentService,
+                               FileProcessingService fileProcessingService, LiteratureAiService literatureAiService,
+                               GuideGenerationService guideGenerationService, ImportPipeline importPipeline,
+                               @Value("${literature.job.parallelism:4}") int parallelism,
+                               @Value("${literature.classification.batch.enabled:true}") boolean classificationBatchEnabled,
+                               @Value("${literature.classification.batch.size:8}") int classificationBatchSize,
+                               @Value("${literature.classification.batch.linger:5s}") Duration classificationLinger) {
+        this.literatureJobService = literatureJobService;
+        this.literatureService = literatureService;
+        this.literatureContentService = literatureContentService;
+        this.fileProcessingService = fileProcessingService;
+        this.literatureAiService = literatureAiService;
+        this.guideGenerationService = guideGenerationService;
+        this.importPipeline = importPipeline;
+        this.parallelism = parallelism;
+        this.classificationBatchSize = Math.max(1, classificationBatchSize);
+        this.classificationBatchEnabled = classificationBatchEnabled && this.classificationBatchSize > 1;
+        this.classificationLingerNanos = classificationLinger.toNanos();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        literatureJobService.resumeOrphans();
+    }
+
+    /**
+     * 按空闲并行度领取任务，批量来源的分类任务攒批后执行
+     */
+    @Scheduled(fixedDelayString = "${literature.job.poll-interval:1000}")
+    public void poll() {
+        int free = parallelism - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        try {
+            List<LiteratureJob> jobs = literatureJobService.claim(free);
+            for (LiteratureJob job : jobs) {
+                if (classificationBatchEnabled && LiteratureJob.Type.CLASSIFY.name().equals(job.getJobType())
+                        && lane(job) == Lane.BATCH) {
+                    if (pendingClassifications.isEmpty()) {
+                        pendingSince = System.nanoTime();
+                    }
+                    pendingClassifications.add(job);
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                process(job);
+            }
+        } catch (Exception e) {
+            log.error("领取文献任务失败", e);
+        }
+        flushClassifications();
+    }
+
+    /**
+     * 为本节点持有的任务续约
+     */
+    @Scheduled(fixedDelayString = "${literature.job.heartbeat-interval:15000}")
+    public void heartbeat() {
+        try {
+            literatureJobService.heartbeat();
+        } catch (Exception e) {
+            log.error("文献任务续约失败", e);
+        }
+    }
+
+    private void process(LiteratureJob job) {
+        execute(job)
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .subscribe(null, e -> failDirectly(job, e));
+    }
+
+    /**
+     * 执行单个任务，成功后标记完成，失败时交给重试策略
+     */
+    private Mono<Void> execute(LiteratureJob job) {
+        return Mono.defer(() -> {
+                    log.info("开始执行文献任务，任务ID: {}, 文献ID: {}, 类型: {}, 第 {} 次尝试",
+                            job.getId(), job.getLiteratureId(), job.getJobType(), job.getAttempts());
+                    return switch (LiteratureJob.Type.valueOf(job.getJobType())) {
+                        case GUIDE -> runGuide(job.getLiteratureId(), lane(job));
+                        case CLASSIFY -> runClassify(job.getLiteratureId(), lane(job));
+                    };
+                })
+                .then(complete(job))
+                .onErrorResume(e -> Mono.<Void>fromRunnable(() -> literatureJobService.fail(job.getId(), e))
+                        .subscribeOn(importPipeline.persist().scheduler(lane(job))));
+    }
+
+    /**
+     * 任务记录的调度来源，加入来源字段之前入队的任务按批量来源处理
+     */
+    private static Lane lane(LiteratureJob job) {
+        return Lane.INTERACTIVE.name().equals(job.getLane()) ? Lane.INTERACTIVE : Lane.BATCH;
+    }
+
+    /**
+     * 完成或失败的状态更新本身出错（例如落库阶段排队已满）时，直接在当前线程按失败处理，
+     * 避免任务一直由本节点续约而无人执行
+     */
+    private void failDirectly(LiteratureJob job, Throwable error) {
+        log.error("文献任务状态更新失败，任务ID: {}", job.getId(), error);
+        try {
+            literatureJobService.fail(job.getId(), error);
+        } catch (Exception e) {
+            log.error("文献任务标记失败出错，任务ID: {}", job.getId(), e);
+        }
+    }
+
+    private Mono<Void> complete(LiteratureJob job) {
+        return Mono.<Void>fromRunnable(() -> literatureJobService.complete(job.getId()))
+                .subscribeOn(importPipeline.persist().scheduler(lane(job)));
+    }
+
+    /**
+     * 攒够 size 个或最早的任务等待超过 linger 时，按空闲并行度把待分类任务分批执行
+     */
+    private void flushClassifications() {
+        boolean due = pendingClassifications.size() >= classificationBatchSize
+                || !pendingClassifications.isEmpty() && System.nanoTime() - pendingSince >= classificationLingerNanos;
+        while (due && !pendingClassifications.isEmpty() && inFlight.get() < parallelism) {
+            List<LiteratureJob> head = pendingClassifications.subList(0,
+                    Math.min(classificationBatchSize, pendingClassifications.size()));
+            List<LiteratureJob> batch = new ArrayList<>(head);
+            head.clear();
+            inFlight.incrementAndGet();
+            if (batch.size() == 1) {
+                process(batch.get(0));
+            } else {
+                processClassifications(batch);
+            }
+        }
+    }
+
+    /**
+     * 合并执行一批分类任务：读取各篇阅读指南后一次调用模型，解析出分类的任务直接完成；
+     * 阅读指南为空、响应中缺失或整批调用失败的任务逐个按单个任务执行，一批始终只占用一个并行度
+     */
+    private void processClassifications(List<LiteratureJob> jobs) {
+        log.info("开始执行合并分类任务，任务数: {}", jobs.size());
+        Mono.fromCallable(() -> {
+                    Map<Long, String> readingGuides = new LinkedHashMap<>();
+                    for (LiteratureJob job : jobs) {
+                        String readingGuide = literatureContentService.getReadingGuide(job.getLiteratureId());
+                        if (readingGuide != null && !readingGuide.trim().isEmpty()) {
+                            readingGuides.put(job.getLiteratureId(), readingGuide);
+                        }
+                    }
+                    return readingGuides;
+                })
+                .subscribeOn(importPipeline.persist().scheduler(Lane.BATCH))
+                .flatMap(readingGuides -> readingGuides.size() < 2
+                        ? Mono.just(Set.<Long>of())
+                        : literatureAiService.generateClassificationBatchMono(readingGuides, literatureService))
+                .onErrorResume(e -> {
+                    log.warn("合并分类失败，改为逐个执行，任务数: {}", jobs.size(), e);
+                    return Mono.just(Set.<Long>of());
+                })
+                .flatMapMany(classified -> Flux.fromIterable(jobs)
+                        .concatMap(job -> (classified.contains(job.getLiteratureId()) ? complete(job) : execute(job))
+                                .onErrorResume(e -> {
+                                    failDirectly(job, e);
+                                    return Mono.empty();
+                                })))
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .subscribe(null, e -> log.error("合并分类任务执行失败", e));
+    }
+
+    /**
+     * 使用已保存的全文生成阅读指南（早于内容分表导入的文献重新解析文件并补存全文），
+     * 生成过程可通过 {@link GuideGenerationService#attach(Long, long)} 实时查看
+     */
+    private Mono<Void> runGuide(Long literatureId, Lane lane) {
+        return Mono.fromCallable(() -> {
+                    Literature literature = literatureService.getById(literatureId);
+                    if (literature == null) {
+                        log.warn("文献不存在或已删除，跳过任务，文献ID: {}", literatureId);
+                        return null;
+                    }
+                    // 清空上次中断时留下的部分内容，避免流式追加重复
+                    literatureService.resetReadingGuide(literatureId);
+                    return literature;
+                })
+                .subscribeOn(importPipeline.persist().scheduler(lane))
+                .flatMap(literature -> Mono
+                        .fromCallable(() -> literatureContentService.getFullText(literatureId))
+                        .switchIfEmpty(Mono
+                                .fromCallable(() -> {
+                                    String fileContent = fileProcessingService
+                                            .extractFileContent(literature.getFilePath());
+                                    literatureContentService.saveFullText(literatureId, fileContent);
+                                    return fileContent;
+                                })
+                                .subscribeOn(importPipeline.extract().scheduler(lane))))
+                .flatMap(fileContent -> guideGenerationService.start(literatureId, fileContent, lane)
+                        .result())
+                .then();
+    }
+
+    /**
+     * 根据已生成的阅读指南生成分类，按任务记录的来源排队
+     */
+    private Mono<Void> runClassify(Long literatureId, Lane lane) {
+        return Mono.fromCallable(() -> literatureContentService.getReadingGuide(literatureId))
+                .subscribeOn(importPipeline.persist().scheduler(lane))
+                .defaultIfEmpty("")
+                .flatMap(readingGuide -> {
+                    if (readingGuide.trim().isEmpty()) {
+                        literatureService.updateStatus(literatureId, Literature.Status.COMPLETED.getCode());
+                        return Mono.empty();
+                    }
+                    return literatureAiService.generateClassificationMono(readingGuide, literatureId,
+                            literatureService, lane);
+                })
+                .then();
+    }
+}
@@ -5,6 +5,7 @@ import com.yuyuan.literature.common.request.PageResult;
 import com.yuyuan.literature.dto.BatchLiteratureImportRequest;
 import com.yuyuan.literature.dto.LiteratureQueryRequest;
 import com.yuyuan.literature.dto.LiteratureVO;
+import com.yuyuan.literature.dto.TagFacetVO;
 import com.yuyuan.literature.entity.Literature;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.codec.ServerSentEvent;
@@ -24,11 +25,28 @@ public interface LiteratureService extends IService<Literature> {
      * 创建文献记录
      *
      * @param file 上传的文件
-     * @param filePath 文件存储路径
-     * @param contentLength 内容长度
+     * @param storedFile 已保存的文件
+     * @param fileContent 解析出的文献内容
      * @return 文献ID
      */
-    Long createLiterature(MultipartFile file, String filePath, Integer contentLength);
+    Long createLiterature(MultipartFile file, StoredFile storedFile, String fileContent);
+
+    /**
+     * 查找内容相同且已处理完成的文献，用于复用其解析与生成结果
+     *
+     * @param contentHash 文件内容 SHA-256
+     * @return 可复用的文献，没有时返回 null
+     */
+    Literature findReusable(String contentHash);
+
+    /**
+     * 以已处理完成的相同内容文献为来源创建文献记录，直接复用文件、阅读指南、标签和描述
+     *
+     * @param file 上传的文件
+     * @param source 来源文献
+     * @return 文献ID
+     */
+    Long createFromExisting(MultipartFile file, Literature source);
 
     /**
      * 更新阅读指南
@@ -38,6 +56,14 @@ public interface LiteratureService extends IService<Literature> {
      */
     void updateReadingGuide(Long id, String readingGuide);
 
+    /**
+     * 流式生成完成后更新阅读指南摘要和检索索引，并把流式追加的未压缩内容重写为压缩格式
+     *
+     * @param id 文献ID
+     * @param readingGuide 完整的阅读指南内容
+     */
+    void completeReadingGuide(Long id, String readingGuide);
+
     /**
      * 更新分类和描述
      *
@@ -63,6 +89,15 @@ public interface LiteratureService extends IService<Literature> {
      */
     PageResult<LiteratureVO> pageLiteratures(LiteratureQueryRequest request);
 
+    /**
+     * 统计满足查询条件的文献中各标签的数量
+     *
+     * @param request 查询条件（分页参数不生效）
+     * @param limit 最多返回的标签数
+     * @return 按数量从多到少排列的标签
+     */
+    List<TagFacetVO> tagFacets(LiteratureQueryRequest request, int limit);
+
     /**
      * 根据ID获取文献详情
      *
@@ -94,4 +129,11 @@ public interface LiteratureService extends IService<Literature> {
      * @param chunk 内容片段
      */
     void updateReadingGuideAppend(Long id, String chunk);
+
+    /**
+     * 清空阅读指南（重新生成前调用，避免与中断时留下的部分内容拼接）
+     *
+     * @param id 文献ID
+     */
+    void resetReadingGuide(Long id);
 }
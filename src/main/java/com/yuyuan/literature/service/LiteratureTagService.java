@@ -0,0 +1,94 @@
+package com.yuyuan.literature.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.mapper.LiteratureMapper;
+import com.yuyuan.literature.mapper.LiteratureTagMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 文献标签关联维护
+ * <p>
+ * {@code literature.tags} 仍保存完整标签列表用于展示，过滤和分面统计使用 {@code literature_tag} 关联表。
+ * 启动时为关联表建立之前已分类的文献补写标签。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiteratureTagService implements ApplicationRunner {
+
+    /**
+     * 单个标签的最大长度，与 literature_tag.tag 列宽一致
+     */
+    private static final int MAX_TAG_LENGTH = 100;
+
+    private final LiteratureTagMapper literatureTagMapper;
+    private final LiteratureMapper literatureMapper;
+
+    /**
+     * 规范化标签：去除首尾空白、空标签和重复标签，超长标签截断
+     *
+     * @param tags 标签，可为 null
+     * @return 保持原有顺序的标签
+     */
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return List.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag == null || tag.isBlank()) {
+                continue;
+            }
+            String trimmed = tag.trim();
+            normalized.add(trimmed.length() > MAX_TAG_LENGTH ? trimmed.substring(0, MAX_TAG_LENGTH) : trimmed);
+        }
+        return List.copyOf(normalized);
+    }
+
+    /**
+     * 用新的标签替换文献的全部标签
+     *
+     * @param literatureId 文献ID
+     * @param tags         标签，可为 null
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void replaceTags(Long literatureId, Collection<String> tags) {
+        literatureTagMapper.deleteByLiteratureId(literatureId);
+        List<String> normalized = normalize(tags);
+        if (!normalized.isEmpty()) {
+            literatureTagMapper.insertTags(literatureId, normalized);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Literature> pending = literatureMapper.selectList(new LambdaQueryWrapper<Literature>()
+                .select(Literature::getId, Literature::getTags)
+                .isNotNull(Literature::getTags)
+                .notExists("SELECT 1 FROM literature_tag t WHERE t.literature_id = literature.id"));
+        int backfilled = 0;
+        for (Literature literature : pending) {
+            if (!normalize(literature.getTags()).isEmpty()) {
+                replaceTags(literature.getId(), literature.getTags());
+                backfilled++;
+            }
+        }
+        if (backfilled > 0) {
+            log.info("为 {} 篇文献补写标签关联", backfilled);
+        }
+    }
+}
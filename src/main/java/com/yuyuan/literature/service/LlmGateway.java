@@ -0,0 +1,455 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.common.exception.BusinessException;
+import com.yuyuan.literature.common.result.ResultCode;
+import com.yuyuan.literature.pipeline.Lane;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 大模型调用网关
+ * <p>
+ * 所有大模型调用经此取得许可后才发出，许可同时受三方面约束：
+ * <ul>
+ *     <li>并发上限：按 AIMD 自适应，调用成功时缓慢上调（每次 +1/上限），收到 429 时减半，
+ *     响应（流式调用为首个分片）慢于 latency-threshold 时下调一成，始终保持在 min/max-concurrency 之间；</li>
+ *     <li>速率：按每分钟请求数和每分钟 token 数两个令牌桶限流，桶容量为一分钟的额度，
+ *     单次请求估算的 token 数超过容量时在桶满后放行并透支；</li>
+ *     <li>公平：在线上传和批量导入/后台任务分别排队，按权重做平滑加权轮询；批量任务最多占用并发上限减去
+ *     interactive-reserve 个许可（至少 1 个），留出的许可只发给在线请求，批量任务再多也不会让在线请求一直等待。</li>
+ * </ul>
+ * 等待许可不占用线程：阻塞调用在调用方的虚拟线程上等待，流式调用在许可就绪后才订阅上游。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class LlmGateway {
+
+    private static final double DECREASE_ON_RATE_LIMIT = 0.5;
+    private static final double DECREASE_ON_SLOW = 0.9;
+    /**
+     * Spring AI 错误消息开头的 429 状态码
+     */
+    private static final Pattern RATE_LIMITED_STATUS = Pattern.compile("429\\b");
+
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final long latencyThresholdNanos;
+    private final EnumMap<Lane, Integer> weights = new EnumMap<>(Lane.class);
+    private final int interactiveReserve;
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+    private final ScheduledExecutorService timer;
+
+    /**
+     * 以下状态都在 lock 上同步
+     */
+    private final Object lock = new Object();
+    private final EnumMap<Lane, ArrayDeque<Waiter>> queues = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, Integer> credits = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, Integer> laneInFlight = new EnumMap<>(Lane.class);
+    private double limit;
+    private int inFlight;
+    private boolean wakeupScheduled;
+
+    private final EnumMap<Lane, AtomicLong> granted = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, AtomicLong> waitNanos = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, AtomicLong> maxWaitNanos = new EnumMap<>(Lane.class);
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong slowResponses = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public LlmGateway(@Value("${literature.llm.min-concurrency:1}") int minConcurrency,
+                      @Value("${literature.llm.max-concurrency:16}") int maxConcurrency,
+                      @Value("${literature.llm.initial-concurrency:8}") int initialConcurrency,
+                      @Value("${literature.llm.requests-per-minute:300}") long requestsPerMinute,
+                      @Value("${literature.llm.tokens-per-minute:300000}") long tokensPerMinute,
+                      @Value("${literature.llm.latency-threshold:60s}") Duration latencyThreshold,
+                      @Value("${literature.llm.interactive-weight:3}") int interactiveWeight,
+                      @Value("${literature.llm.batch-weight:1}") int batchWeight,
+                      @Value("${literature.llm.interactive-reserve:1}") int interactiveReserve) {
+        this.minConcurrency = Math.max(1, minConcurrency);
+        this.maxConcurrency = Math.max(this.minConcurrency, maxConcurrency);
+        this.limit = Math.max(this.minConcurrency, Math.min(this.maxConcurrency, initialConcurrency));
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.requestBucket = requestsPerMinute > 0 ? new TokenBucket(requestsPerMinute) : null;
+        this.tokenBucket = tokensPerMinute > 0 ? new TokenBucket(tokensPerMinute) : null;
+        weights.put(Lane.INTERACTIVE, Math.max(1, interactiveWeight));
+        weights.put(Lane.BATCH, Math.max(1, batchWeight));
+        this.interactiveReserve = Math.max(0, interactiveReserve);
+        for (Lane lane : Lane.values()) {
+            queues.put(lane, new ArrayDeque<>());
+            credits.put(lane, 0);
+            laneInFlight.put(lane, 0);
+            granted.put(lane, new AtomicLong());
+            waitNanos.put(lane, new AtomicLong());
+            maxWaitNanos.put(lane, new AtomicLong());
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "llm-gateway-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("大模型调用网关初始化完成，并发: {}~{}（初始 {}），每分钟请求数: {}, 每分钟 token 数: {}",
+                this.minConcurrency, this.maxConcurrency, (int) limit, requestsPerMinute, tokensPerMinute);
+    }
+
+    /**
+     * 取得许可后执行阻塞调用，调用方应在虚拟线程上执行
+     *
+     * @param lane    调用来源
+     * @param tokens  估算的 token 数（输入 + 预期输出）
+     * @param request 实际调用
+     */
+    public <T> T call(Lane lane, int tokens, Supplier<T> request) {
+        CompletableFuture<Permit> pending = acquire(lane, tokens);
+        Permit permit;
+        try {
+            permit = pending.get();
+        } catch (InterruptedException e) {
+            abandon(pending);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResultCode.THIRD_PARTY_SERVICE_ERROR, "等待大模型调用许可时被中断");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        Throwable error = null;
+        try {
+            T result = request.get();
+            permit.responded();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            // 调用线程被中断（对冲落败或调用方放弃）时按取消归还，不作为失败
+            release(permit, error != null && Thread.currentThread().isInterrupted() ? Permit.CANCELLED : error);
+        }
+    }
+
+    /**
+     * 取得许可后订阅流式调用，流结束、出错或取消时归还许可；许可就绪前取消会退出排队
+     *
+     * @param lane    调用来源
+     * @param tokens  估算的 token 数（输入 + 预期输出）
+     * @param request 实际调用，许可就绪后才调用
+     */
+    public Flux<String> stream(Lane lane, int tokens, Supplier<Flux<String>> request) {
+        return Flux.usingWhen(
+                Mono.defer(() -> {
+                    CompletableFuture<Permit> pending = acquire(lane, tokens);
+                    // 取消不交给 fromFuture 处理：许可可能恰好在取消前发出，由 abandon 一并归还
+                    return Mono.fromFuture(pending, true).doOnCancel(() -> abandon(pending));
+                }),
+                permit -> Flux.defer(request).doOnNext(token -> permit.responded()),
+                permit -> Mono.fromRunnable(() -> release(permit, null)),
+                (permit, error) -> Mono.fromRunnable(() -> release(permit, error)),
+                permit -> Mono.fromRunnable(() -> release(permit, Permit.CANCELLED)));
+    }
+
+    /**
+     * 排队等待许可
+     */
+    CompletableFuture<Permit> acquire(Lane lane, int tokens) {
+        Waiter waiter = new Waiter(lane, Math.max(0, tokens));
+        synchronized (lock) {
+            queues.get(lane).add(waiter);
+        }
+        dispatch();
+        return waiter.future;
+    }
+
+    /**
+     * 放弃等待：许可尚未发出时退出排队，已经发出时立即归还
+     */
+    void abandon(CompletableFuture<Permit> pending) {
+        if (pending.cancel(false)) {
+            synchronized (lock) {
+                for (ArrayDeque<Waiter> queue : queues.values()) {
+                    queue.removeIf(waiter -> waiter.future == pending);
+                }
+            }
+        } else if (!pending.isCompletedExceptionally()) {
+            release(pending.join(), Permit.CANCELLED);
+        }
+    }
+
+    /**
+     * 归还许可并按结果调整并发上限
+     *
+     * @param error 调用失败的异常，成功时为 null
+     */
+    void release(Permit permit, Throwable error) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (lock) {
+            inFlight--;
+            laneInFlight.merge(permit.lane, -1, Integer::sum);
+            if (error == Permit.CANCELLED) {
+                // 调用方放弃，不作为拥塞信号
+            } else if (error != null && isRateLimited(error)) {
+                rateLimited.incrementAndGet();
+                limit = Math.max(minConcurrency, limit * DECREASE_ON_RATE_LIMIT);
+                log.warn("大模型调用被限流，并发上限降为 {}", (int) limit);
+            } else if (error != null) {
+                failures.incrementAndGet();
+            } else if (permit.latencyNanos() > latencyThresholdNanos) {
+                slowResponses.incrementAndGet();
+                limit = Math.max(minConcurrency, limit * DECREASE_ON_SLOW);
+            } else {
+                limit = Math.min(maxConcurrency, limit + 1.0 / limit);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * 在并发和速率允许的范围内按加权轮询依次发放许可，许可在锁外交给等待方
+     */
+    private void dispatch() {
+        List<Waiter> ready = new ArrayList<>();
+        synchronized (lock) {
+            while (inFlight < (int) limit) {
+                Lane lane = nextLane();
+                if (lane == null) {
+                    break;
+                }
+                Waiter head = queues.get(lane).peek();
+                long now = System.nanoTime();
+                long wait = Math.max(requestBucket != null ? requestBucket.waitNanos(1, now) : 0,
+                        tokenBucket != null ? tokenBucket.waitNanos(head.tokens, now) : 0);
+                if (wait > 0) {
+                    scheduleWakeup(wait);
+                    break;
+                }
+                if (requestBucket != null) {
+                    requestBucket.take(1);
+                }
+                if (tokenBucket != null) {
+                    tokenBucket.take(head.tokens);
+                }
+                queues.get(lane).poll();
+                inFlight++;
+                laneInFlight.merge(lane, 1, Integer::sum);
+                ready.add(head);
+            }
+        }
+        for (Waiter waiter : ready) {
+            Permit permit = new Permit(waiter.lane);
+            long waited = permit.grantedAt - waiter.enqueuedAt;
+            granted.get(waiter.lane).incrementAndGet();
+            waitNanos.get(waiter.lane).addAndGet(waited);
+            maxWaitNanos.get(waiter.lane).accumulateAndGet(waited, Math::max);
+            if (!waiter.future.complete(permit)) {
+                // 等待方已取消
+                release(permit, Permit.CANCELLED);
+            }
+        }
+    }
+
+    /**
+     * 平滑加权轮询：每轮给有排队且未达到占用上限的来源加上各自的权重，选累计最高者并减去本轮权重总和
+     */
+    private Lane nextLane() {
+        int total = 0;
+        Lane selected = null;
+        for (Lane lane : Lane.values()) {
+            ArrayDeque<Waiter> queue = queues.get(lane);
+            while (!queue.isEmpty() && queue.peek().future.isDone()) {
+                queue.poll();
+            }
+            if (queue.isEmpty()
+                    || lane == Lane.BATCH && laneInFlight.get(lane) >= Math.max(1, (int) limit - interactiveReserve)) {
+                continue;
+            }
+            int weight = weights.get(lane);
+            total += weight;
+            credits.merge(lane, weight, Integer::sum);
+            if (selected == null || credits.get(lane) > credits.get(selected)) {
+                selected = lane;
+            }
+        }
+        if (selected != null) {
+            credits.merge(selected, -total, Integer::sum);
+        }
+        return selected;
+    }
+
+    private void scheduleWakeup(long delayNanos) {
+        if (wakeupScheduled) {
+            return;
+        }
+        wakeupScheduled = true;
+        timer.schedule(() -> {
+            synchronized (lock) {
+                wakeupScheduled = false;
+            }
+            dispatch();
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 是否为服务端限流（HTTP 429）
+     * <p>
+     * Spring AI 把 4xx 响应包装为 {@link NonTransientAiException}，消息以状态码开头（如「429 - ...」），
+     * 只在这类异常的消息开头匹配状态码，避免把消息中碰巧出现的 429 误判为限流而收缩并发上限。
+     */
+    static boolean isRateLimited(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof HttpClientErrorException.TooManyRequests
+                    || e instanceof WebClientResponseException.TooManyRequests) {
+                return true;
+            }
+            if (e instanceof NonTransientAiException && e.getMessage() != null
+                    && RATE_LIMITED_STATUS.matcher(e.getMessage()).lookingAt()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 网关运行指标
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("limit", Math.round(limit * 100) / 100.0);
+            stats.put("inFlight", inFlight);
+            long now = System.nanoTime();
+            if (requestBucket != null) {
+                stats.put("requestsAvailable", (long) requestBucket.available(now));
+            }
+            if (tokenBucket != null) {
+                stats.put("tokensAvailable", (long) tokenBucket.available(now));
+            }
+            for (Lane lane : Lane.values()) {
+                String name = lane.name().toLowerCase(Locale.ROOT);
+                long count = granted.get(lane).get();
+                stats.put(name + "Queued", queues.get(lane).size());
+                stats.put(name + "InFlight", laneInFlight.get(lane));
+                stats.put(name + "Granted", count);
+                stats.put(name + "AvgWaitMillis", count == 0 ? 0 : waitNanos.get(lane).get() / count / 1_000_000);
+                stats.put(name + "MaxWaitMillis", maxWaitNanos.get(lane).get() / 1_000_000);
+            }
+        }
+        stats.put("minConcurrency", minConcurrency);
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("interactiveReserve", interactiveReserve);
+        stats.put("rateLimited", rateLimited.get());
+        stats.put("slowResponses", slowResponses.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 调用许可，记录发放时间和首次响应时间
+     */
+    static final class Permit {
+
+        /**
+         * 调用方取消的标记，不作为拥塞信号
+         */
+        private static final Throwable CANCELLED = new Throwable("cancelled", null, false, false) {
+        };
+
+        private final Lane lane;
+        private final long grantedAt = System.nanoTime();
+        private volatile long respondedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Lane lane) {
+            this.lane = lane;
+        }
+
+        private void responded() {
+            if (respondedAt == 0) {
+                respondedAt = System.nanoTime();
+            }
+        }
+
+        private long latencyNanos() {
+            return (respondedAt != 0 ? respondedAt : System.nanoTime()) - grantedAt;
+        }
+    }
+
+    private static final class Waiter {
+        private final Lane lane;
+        private final int tokens;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+
+        private Waiter(Lane lane, int tokens) {
+            this.lane = lane;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * 令牌桶，容量为一分钟的额度，按时间连续补充；只在 lock 内访问
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double perNano;
+        private double available;
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(long perMinute) {
+            this.capacity = perMinute;
+            this.perNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.available = capacity;
+        }
+
+        private double available(long now) {
+            available = Math.min(capacity, available + (now - refilledAt) * perNano);
+            refilledAt = now;
+            return available;
+        }
+
+        /**
+         * 取走 amount 还需等待的纳秒数，超过容量的请求等到桶满
+         */
+        private long waitNanos(long amount, long now) {
+            double needed = Math.min(amount, capacity);
+            double current = available(now);
+            return current >= needed ? 0 : (long) Math.ceil((needed - current) / perNano);
+        }
+
+        private void take(long amount) {
+            available -= amount;
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.common.exception.BusinessException;
+import com.yuyuan.literature.common.result.ResultCode;
+import com.yuyuan.literature.pipeline.Lane;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 大模型调用的超时、重试、对冲与熔断
+ * <p>
+ * 位于 {@link LlmGateway} 之前，每次尝试单独向网关申请许可，退避等待期间不占用许可：
+ * <ul>
+ *     <li>超时：阻塞调用从取得许可起按调用类型的 timeout 计时，超时后中断调用线程，许可在被中断的请求结束后归还；
+ *     流式调用同样从取得许可起限制首个分片和相邻分片之间的间隔；</li>
+ *     <li>重试：超时、网络异常、429 和 5xx 按指数退避（带随机抖动）重试 max-retries 次，
+ *     流式调用只在尚未收到任何分片时重试；</li>
+ *     <li>对冲：分类调用输出很短，取得许可后超过近期耗时的 hedge-percentile 分位仍未返回时再发一次相同请求，
+ *     取先成功的结果并取消另一个；样本不足 hedge-min-samples 时不对冲；</li>
+ *     <li>熔断：可重试的失败连续达到 failure-threshold 次后熔断，open-duration 内的调用直接失败，
+ *     之后每个 open-duration 放行一次试探调用，成功即恢复。</li>
+ * </ul>
+ * 熔断中的失败以 {@link ResultCode#SERVICE_UNAVAILABLE} 抛出，后台任务据此不再重试、直接把文献标记为处理失败。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class LlmResilience {
+
+    /**
+     * 调用类型，各自的超时时间和耗时统计独立
+     */
+    public enum Call {
+        /**
+         * 生成阅读指南
+         */
+        GUIDE,
+        /**
+         * 长文献分块整理阅读笔记
+         */
+        NOTES,
+        /**
+         * 生成分类，唯一启用对冲的调用
+         */
+        CLASSIFICATION,
+        /**
+         * 多篇文献合并为一次调用生成分类，输出随篇数增长，不对冲
+         */
+        BATCH_CLASSIFICATION
+    }
+
+    /**
+     * 每种调用保留的最近成功耗时样本数
+     */
+    private static final int LATENCY_SAMPLES = 128;
+
+    private final LlmGateway llmGateway;
+    private final EnumMap<Call, Duration> timeouts = new EnumMap<>(Call.class);
+    private final Duration firstTokenTimeout;
+    private final Duration idleTimeout;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final int hedgeMinSamples;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 熔断状态，在 this 上同步
+     */
+    private int consecutiveFailures;
+    private long retryAt;
+
+    private final EnumMap<Call, LatencyWindow> latencies = new EnumMap<>(Call.class);
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong circuitOpened = new AtomicLong();
+
+    public LlmResilience(LlmGateway llmGateway,
+                         @Value("${literature.llm.resilience.guide-timeout:10m}") Duration guideTimeout,
+                         @Value("${literature.llm.resilience.notes-timeout:3m}") Duration notesTimeout,
+                         @Value("${literature.llm.resilience.classification-timeout:60s}") Duration classificationTimeout,
+                         @Value("${literature.llm.resilience.batch-classification-timeout:3m}") Duration batchClassificationTimeout,
+                         @Value("${literature.llm.resilience.first-token-timeout:90s}") Duration firstTokenTimeout,
+                         @Value("${literature.llm.resilience.idle-timeout:60s}") Duration idleTimeout,
+                         @Value("${literature.llm.resilience.max-retries:2}") int maxRetries,
+                         @Value("${literature.llm.resilience.initial-backoff:2s}") Duration initialBackoff,
+                         @Value("${literature.llm.resilience.max-backoff:30s}") Duration maxBackoff,
+                         @Value("${literature.llm.resilience.hedge-enabled:true}") boolean hedgeEnabled,
+                         @Value("${literature.llm.resilience.hedge-percentile:0.9}") double hedgePercentile,
+                         @Value("${literature.llm.resilience.hedge-min-samples:20}") int hedgeMinSamples,
+                         @Value("${literature.llm.resilience.failure-threshold:5}") int failureThreshold,
+                         @Value("${literature.llm.resilience.open-duration:60s}") Duration openDuration) {
+        this.llmGateway = llmGateway;
+        timeouts.put(Call.GUIDE, guideTimeout);
+        timeouts.put(Call.NOTES, notesTimeout);
+        timeouts.put(Call.CLASSIFICATION, classificationTimeout);
+        timeouts.put(Call.BATCH_CLASSIFICATION, batchClassificationTimeout);
+        this.firstTokenTimeout = firstTokenTimeout;
+        this.idleTimeout = idleTimeout;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff.compareTo(initialBackoff) < 0 ? initialBackoff : maxBackoff;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = Math.max(0, Math.min(1, hedgePercentile));
+        this.hedgeMinSamples = Math.max(1, hedgeMinSamples);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDuration.toNanos();
+        for (Call call : Call.values()) {
+            latencies.put(call, new LatencyWindow());
+        }
+    }
+
+    /**
+     * 执行阻塞调用，调用方应在虚拟线程上执行
+     *
+     * @param call    调用类型
+     * @param lane    调用来源
+     * @param tokens  估算的 token 数（输入 + 预期输出）
+     * @param request 实际调用，超时后所在线程会被中断
+     */
+    public <T> T call(Call call, Lane lane, int tokens, Supplier<T> request) {
+        for (int attempt = 0; ; attempt++) {
+            checkCircuit();
+            try {
+                T result = call == Call.CLASSIFICATION && hedgeEnabled
+                        ? hedged(call, lane, tokens, request)
+                        : attempt(call, lane, tokens, request);
+                onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    // 服务有响应（如参数错误），不计入熔断
+                    onSuccess();
+                    throw e;
+                }
+                onFailure(e);
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                Duration backoff = backoff(attempt);
+                retries.incrementAndGet();
+                log.warn("大模型调用失败，{} ms 后第 {} 次重试，类型: {}, 原因: {}",
+                        backoff.toMillis(), attempt + 1, call, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 执行流式调用：限制首个分片和分片间隔，尚未收到分片时按退避重试
+     *
+     * @param lane    调用来源
+     * @param tokens  估算的 token 数（输入 + 预期输出）
+     * @param request 实际调用，每次尝试重新调用
+     */
+    public Flux<String> stream(Lane lane, int tokens, Supplier<Flux<String>> request) {
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return Flux.defer(() -> {
+                        checkCircuit();
+                        // 超时从取得许可、真正发出请求起计时，排队等待许可的时间不算作服务端响应慢
+                        return llmGateway.stream(lane, tokens, () -> {
+                                    long start = System.nanoTime();
+                                    return request.get()
+                                            .timeout(Mono.delay(firstTokenTimeout),
+                                                    token -> Mono.delay(idleTimeout))
+                                            .doOnNext(token -> {
+                                                if (started.compareAndSet(false, true)) {
+                                                    latencies.get(Call.GUIDE).add(System.nanoTime() - start);
+                                                    onSuccess();
+                                                }
+                                            });
+                                })
+                                .doOnError(e -> {
+                                    if (e instanceof TimeoutException) {
+                                        timeoutCount.incrementAndGet();
+                                    }
+                                    if (isRetryable(e)) {
+                                        onFailure(e);
+                                    }
+                                });
+                    })
+                    .retryWhen(Retry.backoff(maxRetries, initialBackoff)
+                            .maxBackoff(maxBackoff)
+                            .filter(e -> !started.get() && isRetryable(e))
+                            .doBeforeRetry(signal -> {
+                                retries.incrementAndGet();
+                                log.warn("大模型流式调用失败，第 {} 次重试，原因: {}",
+                                        signal.totalRetries() + 1, signal.failure().getMessage());
+                            })
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .onErrorMap(TimeoutException.class, e -> timeout(started.get() ? idleTimeout : firstTokenTimeout));
+        });
+    }
+
+    /**
+     * 单次尝试，不关心许可何时发放
+     */
+    private <T> T attempt(Call call, Lane lane, int tokens, Supplier<T> request) {
+        return attempt(call, lane, tokens, request, () -> {
+        });
+    }
+
+    /**
+     * 单次尝试：在独立的虚拟线程上申请网关许可并执行，从取得许可起超过 timeout 时中断并抛出超时异常
+     * <p>
+     * 许可由执行请求的线程持有：超时后调用方立即得到超时异常，许可则等到被中断的请求真正结束才归还，
+     * 网关的并发上限始终对应实际在途的请求。中断不一定能终止底层的 HTTP 交换，由 HTTP 客户端的读超时兜底。
+     *
+     * @param onPermit 取得许可、即将发出请求时调用
+     */
+    private <T> T attempt(Call call, Lane lane, int tokens, Supplier<T> request, Runnable onPermit) {
+        Duration timeout = timeouts.get(call);
+        CountDownLatch admitted = new CountDownLatch(1);
+        Future<T> future = executor.submit(() -> {
+            try {
+                return llmGateway.call(lane, tokens, () -> {
+                    onPermit.run();
+                    admitted.countDown();
+                    return request.get();
+                });
+            } finally {
+                admitted.countDown();
+            }
+        });
+        try {
+            admitted.await();
+            long start = System.nanoTime();
+            T result = future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            latencies.get(call).add(System.nanoTime() - start);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCount.incrementAndGet();
+            throw timeout(timeout);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResultCode.THIRD_PARTY_SERVICE_ERROR, "大模型调用被中断");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * 对冲：首个请求发出后超过近期耗时分位仍未返回时再发一次，取先成功的结果
+     * <p>
+     * 计时从首个请求取得许可起算：排队等待许可说明并发已满，此时再发对冲请求只会继续排队并加重拥塞。
+     */
+    private <T> T hedged(Call call, Lane lane, int tokens, Supplier<T> request) {
+        long delay = latencies.get(call).percentile(hedgePercentile, hedgeMinSamples);
+        if (delay <= 0) {
+            return attempt(call, lane, tokens, request);
+        }
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        CountDownLatch admitted = new CountDownLatch(1);
+        Future<T> primary = completion.submit(() -> {
+            try {
+                return attempt(call, lane, tokens, request, admitted::countDown);
+            } finally {
+                admitted.countDown();
+            }
+        });
+        Future<T> hedge = null;
+        try {
+            admitted.await();
+            Future<T> done = completion.poll(delay, TimeUnit.NANOSECONDS);
+            if (done == null) {
+                hedges.incrementAndGet();
+                hedge = completion.submit(() -> attempt(call, lane, tokens, request));
+                done = completion.take();
+            }
+            try {
+                T result = done.get();
+                if (done == hedge) {
+                    hedgeWins.incrementAndGet();
+                }
+                return result;
+            } catch (ExecutionException e) {
+                if (hedge == null) {
+                    throw unwrap(e);
+                }
+                // 先结束的一方失败，等待另一方
+                return completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResultCode.THIRD_PARTY_SERVICE_ERROR, "大模型调用被中断");
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private synchronized void checkCircuit() {
+        if (consecutiveFailures < failureThreshold) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - retryAt >= 0) {
+            // 放行一次试探调用，下一次试探至少再等一个 open-duration
+            retryAt = now + openDurationNanos;
+            return;
+        }
+        rejected.incrementAndGet();
+        throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "大模型服务连续调用失败，已熔断，约 "
+                + Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAt - now)) + " 秒后恢复调用");
+    }
+
+    private synchronized void onSuccess() {
+        if (consecutiveFailures >= failureThreshold) {
+            log.info("大模型调用恢复，解除熔断");
+        }
+        consecutiveFailures = 0;
+    }
+
+    private synchronized void onFailure(Throwable error) {
+        if (++consecutiveFailures < failureThreshold) {
+            return;
+        }
+        if (consecutiveFailures == failureThreshold) {
+            circuitOpened.incrementAndGet();
+            log.error("大模型调用连续失败 {} 次，熔断 {} 秒，最近一次原因: {}", consecutiveFailures,
+                    TimeUnit.NANOSECONDS.toSeconds(openDurationNanos), error.getMessage());
+        }
+        retryAt = System.nanoTime() + openDurationNanos;
+    }
+
+    /**
+     * 第 attempt 次重试前的等待：initial-backoff × 2^attempt，不超过 max-backoff，在后一半范围内随机
+     */
+    private Duration backoff(int attempt) {
+        long nanos = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt, 30));
+        return Duration.ofNanos(nanos / 2 + ThreadLocalRandom.current().nextLong(nanos / 2 + 1));
+    }
+
+    private static BusinessException timeout(Duration timeout) {
+        return new BusinessException(ResultCode.TIMEOUT_ERROR, "大模型调用超时（" + timeout.toSeconds() + " 秒）");
+    }
+
+    /**
+     * 指标名前缀：调用类型转为小驼峰，例如 batchClassification
+     */
+    private static String metricName(Call call) {
+        StringBuilder name = new StringBuilder();
+        for (String part : call.name().toLowerCase(Locale.ROOT).split("_")) {
+            name.append(name.isEmpty() ? part : Character.toUpperCase(part.charAt(0)) + part.substring(1));
+        }
+        return name.toString();
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof RuntimeException runtime ? runtime
+                : new BusinessException(ResultCode.THIRD_PARTY_SERVICE_ERROR, "大模型调用失败: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * 是否值得重试：超时、网络异常、限流和服务端错误
+     */
+    static boolean isRetryable(Throwable error) {
+        if (isCircuitOpen(error)) {
+            return false;
+        }
+        if (LlmGateway.isRateLimited(error)) {
+            return true;
+        }
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof BusinessException business
+                    && ResultCode.TIMEOUT_ERROR.getCode().equals(business.getCode())) {
+                return true;
+            }
+            if (e instanceof TimeoutException || e instanceof IOException || e instanceof UncheckedIOException
+                    || e instanceof ResourceAccessException || e instanceof WebClientRequestException
+                    || e instanceof TransientAiException || e instanceof HttpServerErrorException) {
+                return true;
+            }
+            if (e instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否为熔断期间直接拒绝的调用
+     */
+    public static boolean isCircuitOpen(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof BusinessException business
+                    && ResultCode.SERVICE_UNAVAILABLE.getCode().equals(business.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 超时、重试、对冲与熔断指标
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            String state = "closed";
+            if (consecutiveFailures >= failureThreshold) {
+                state = System.nanoTime() - retryAt >= 0 ? "half-open" : "open";
+            }
+            stats.put("circuit", state);
+            stats.put("consecutiveFailures", consecutiveFailures);
+        }
+        stats.put("circuitOpened", circuitOpened.get());
+        stats.put("rejected", rejected.get());
+        stats.put("retries", retries.get());
+        stats.put("timeouts", timeoutCount.get());
+        stats.put("hedges", hedges.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        for (Call call : Call.values()) {
+            String name = metricName(call);
+            LatencyWindow window = latencies.get(call);
+            stats.put(name + "Samples", window.size());
+            stats.put(name + "P50Millis", TimeUnit.NANOSECONDS.toMillis(window.percentile(0.5, 1)));
+            stats.put(name + "P90Millis", TimeUnit.NANOSECONDS.toMillis(window.percentile(0.9, 1)));
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 最近若干次成功调用的耗时（纳秒），流式调用记录首个分片的耗时
+     */
+    private static final class LatencyWindow {
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private int count;
+        private int next;
+
+        private synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        private synchronized int size() {
+            return count;
+        }
+
+        /**
+         * 分位耗时，样本少于 minSamples 时返回 0
+         */
+        private synchronized long percentile(double percentile, int minSamples) {
+            if (count == 0 || count < minSamples) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.yuyuan.literature.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 大模型响应缓存
+ * <p>
+ * 以系统提示词、用户内容、模型及调用参数的 SHA-256 指纹为键，把响应按生成时的 token 分片保存到磁盘，
+ * 流式调用命中时可按原分片重新推送。条目超过有效期后失效，总大小超过上限时按最近访问时间淘汰。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class LlmResponseCache {
+
+    private static final String SUFFIX = ".json";
+
+    /**
+     * 写入时先写临时文件再原子替换，中断后残留的临时文件以此结尾
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxBytes;
+    private final long ttlMillis;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LlmResponseCache(ObjectMapper objectMapper,
+                            @Value("${literature.llm-cache.enabled:true}") boolean enabled,
+                            @Value("${literature.llm-cache.path:./data/llm-cache}") String path,
+                            @Value("${literature.llm-cache.max-size:256MB}") DataSize maxSize,
+                            @Value("${literature.llm-cache.ttl:7d}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = Paths.get(path);
+        this.maxBytes = maxSize.toBytes();
+        this.ttlMillis = ttl.toMillis();
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * 计算调用指纹，任一部分变化都会得到不同的键
+     *
+     * @param parts 系统提示词、用户内容、模型、温度等参与区分的内容，null 视为空
+     * @return 十六进制 SHA-256
+     */
+    public static String fingerprint(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                byte[] bytes = String.valueOf(part).getBytes(StandardCharsets.UTF_8);
+                // 写入长度作为分隔，避免不同切分拼接出相同内容
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 读取缓存的响应分片
+     *
+     * @param key 调用指纹
+     * @return 未命中或已过期时为空
+     */
+    public Optional<List<String>> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry = index.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        if (isExpired(entry, System.currentTimeMillis())) {
+            remove(key);
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        try {
+            CachedResponse response = objectMapper.readValue(file(key).toFile(), CachedResponse.class);
+            entry.lastAccessMillis = System.currentTimeMillis();
+            hits.incrementAndGet();
+            return Optional.of(response.chunks());
+        } catch (IOException e) {
+            log.warn("读取大模型响应缓存失败，丢弃该条目: {}", key, e);
+            remove(key);
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 写入响应分片，内容为空时不缓存
+     *
+     * @param key 调用指纹
+     * @param chunks 按生成顺序排列的响应分片
+     */
+    public void put(String key, List<String> chunks) {
+        if (!enabled || chunks == null || chunks.stream().allMatch(chunk -> chunk == null || chunk.isEmpty())) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Path target = file(key);
+        try {
+            Files.createDirectories(directory);
+            byte[] bytes = objectMapper.writeValueAsBytes(new CachedResponse(now, List.copyOf(chunks)));
+            Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Entry previous = index.put(key, new Entry(bytes.length, now, now));
+            totalBytes.addAndGet(bytes.length - (previous != null ? previous.size : 0));
+        } catch (IOException e) {
+            log.warn("写入大模型响应缓存失败: {}", key, e);
+            return;
+        }
+        if (totalBytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    /**
+     * 清理过期条目
+     */
+    @Scheduled(fixedDelayString = "${literature.llm-cache.sweep-interval:600000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        index.entrySet().stream()
+                .filter(e -> isExpired(e.getValue(), now))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    /**
+     * 缓存运行指标
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entries", index.size());
+        stats.put("bytes", totalBytes.get());
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    /**
+     * 按最近访问时间从旧到新淘汰，直到总大小回到上限以内
+     */
+    private synchronized void evict() {
+        List<Map.Entry<String, Entry>> candidates = new ArrayList<>(index.entrySet());
+        candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccessMillis));
+        for (Map.Entry<String, Entry> candidate : candidates) {
+            if (totalBytes.get() <= maxBytes) {
+                break;
+            }
+            remove(candidate.getKey());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = index.remove(key);
+        if (entry == null) {
+            return;
+        }
+        totalBytes.addAndGet(-entry.size);
+        try {
+            Files.deleteIfExists(file(key));
+        } catch (IOException e) {
+            log.warn("删除大模型响应缓存失败: {}", key, e);
+        }
+    }
+
+    /**
+     * 启动时扫描缓存目录重建索引，以文件修改时间作为写入时间
+     */
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                try {
+                    if (name.endsWith(TEMP_SUFFIX)) {
+                        // 写入中断留下的临时文件
+                        Files.deleteIfExists(path);
+                        return;
+                    }
+                    if (!name.endsWith(SUFFIX) || !Files.isRegularFile(path)) {
+                        // 目录可能被配置成与其他数据共用，不认识的文件只跳过不删除
+                        log.warn("跳过大模型响应缓存目录中的未知文件: {}", path);
+                        return;
+                    }
+                    FileTime modified = Files.getLastModifiedTime(path);
+                    long size = Files.size(path);
+                    index.put(name.substring(0, name.length() - SUFFIX.length()),
+                            new Entry(size, modified.toMillis(), modified.toMillis()));
+                    totalBytes.addAndGet(size);
+                } catch (IOException e) {
+                    log.warn("加载大模型响应缓存条目失败: {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("扫描大模型响应缓存目录失败: {}", directory, e);
+        }
+        evictExpired();
+        if (totalBytes.get() > maxBytes) {
+            evict();
+        }
+        log.info("大模型响应缓存加载完成，条目数: {}, 大小: {} bytes", index.size(), totalBytes.get());
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdMillis > ttlMillis;
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    /**
+     * 磁盘上的缓存内容
+     */
+    record CachedResponse(long createdAt, List<String> chunks) {
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long createdMillis;
+        private volatile long lastAccessMillis;
+
+        private Entry(long size, long createdMillis, long lastAccessMillis) {
+            this.size = size;
+            this.createdMillis = createdMillis;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.yuyuan.literature.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PDF 文本提取
+ * <p>
+ * 页数较少的文档在调用线程上一次提取；页数达到阈值时把页码范围二分为若干窗口交给独立的 ForkJoin 线程池，
+ * 每个窗口单独打开文档（PDDocument 不是线程安全的）并用 {@link PDFTextStripper} 的起止页提取，
+ * 最后按页码顺序拼接，结果与顺序提取一致。
+ * <p>
+ * 文档解析过程中的流数据（页面内容、图片、字体）默认先放在堆内，超过 max-main-memory 后转存临时文件，
+ * 并发导入大量图片型 PDF 时堆内占用以每个打开的文档计不超过该上限。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class PdfTextExtractor {
+
+    private final ForkJoinPool pool;
+    private final int parallelMinPages;
+    private final int pagesPerTask;
+    private final MemoryMode memoryMode;
+    private final long maxMainMemoryBytes;
+    private final File tempDir;
+
+    private final AtomicLong sequentialDocuments = new AtomicLong();
+    private final AtomicLong parallelDocuments = new AtomicLong();
+    private final AtomicLong parallelTasks = new AtomicLong();
+
+    public PdfTextExtractor(@Value("${literature.pdf.parallelism:0}") int parallelism,
+                            @Value("${literature.pdf.parallel-min-pages:64}") int parallelMinPages,
+                            @Value("${literature.pdf.pages-per-task:16}") int pagesPerTask,
+                            @Value("${literature.pdf.memory-mode:MIXED}") MemoryMode memoryMode,
+                            @Value("${literature.pdf.max-main-memory:16MB}") DataSize maxMainMemory,
+                            @Value("${literature.pdf.temp-dir:}") String tempDir) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.parallelMinPages = parallelMinPages;
+        this.pagesPerTask = Math.max(1, pagesPerTask);
+        this.memoryMode = memoryMode;
+        this.maxMainMemoryBytes = maxMainMemory.toBytes();
+        this.tempDir = StringUtils.hasText(tempDir) ? new File(tempDir) : null;
+        log.info("PDF 提取初始化完成，并行度: {}, 内存模式: {}, 单文档堆内上限: {} bytes",
+                pool.getParallelism(), memoryMode, maxMainMemoryBytes);
+    }
+
+    /**
+     * 解析时流数据的存放方式
+     */
+    public enum MemoryMode {
+        /**
+         * 全部放在堆内，速度最快，占用与文档大小成正比
+         */
+        MAIN_MEMORY,
+        /**
+         * 先放堆内，超过 max-main-memory 后转存临时文件
+         */
+        MIXED,
+        /**
+         * 全部放在临时文件，堆内占用最小
+         */
+        TEMP_FILE
+    }
+
+    /**
+     * 提取全部页面的文本
+     *
+     * @param file PDF 文件
+     * @return 按页码顺序拼接的文本
+     */
+    public String extract(File file) throws IOException {
+        int pages;
+        try (PDDocument document = load(file)) {
+            pages = document.getNumberOfPages();
+            if (pages < parallelMinPages || pool.getParallelism() == 1) {
+                sequentialDocuments.incrementAndGet();
+                return new PDFTextStripper().getText(document);
+            }
+        }
+        parallelDocuments.incrementAndGet();
+        try {
+            return pool.invoke(new PageRangeTask(file, 1, pages));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 提取指定页码范围（含首尾，从 1 开始）的文本
+     */
+    public String extract(File file, int startPage, int endPage) throws IOException {
+        try (PDDocument document = load(file)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
+            return stripper.getText(document);
+        }
+    }
+
+    /**
+     * 逐页提取文本
+     * <p>
+     * 文档在订阅时打开，下游每请求一页才提取一页，完成、出错或取消时关闭文档。提取是阻塞操作，
+     * 调用方应在解析阶段的调度器上订阅。
+     *
+     * @param file PDF 文件
+     * @return 按页码顺序的页面文本
+     */
+    public Flux<TextChunk> pages(File file) {
+        return Flux.using(() -> load(file),
+                document -> {
+                    PDFTextStripper stripper;
+                    try {
+                        stripper = new PDFTextStripper();
+                    } catch (IOException e) {
+                        return Flux.error(e);
+                    }
+                    return Flux.range(1, document.getNumberOfPages())
+                            .map(page -> new TextChunk(page - 1, TextChunk.Unit.PAGE,
+                                    stripPage(stripper, document, page)));
+                },
+                document -> {
+                    try {
+                        document.close();
+                    } catch (IOException e) {
+                        log.warn("关闭 PDF 文档失败: {}", file, e);
+                    }
+                });
+    }
+
+    private static String stripPage(PDFTextStripper stripper, PDDocument document, int page) {
+        stripper.setStartPage(page);
+        stripper.setEndPage(page);
+        try {
+            return stripper.getText(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 按配置的内存模式打开文档，每次打开使用独立的设置（其中的临时文件随文档关闭删除）
+     */
+    private PDDocument load(File file) throws IOException {
+        MemoryUsageSetting setting = switch (memoryMode) {
+            case MAIN_MEMORY -> MemoryUsageSetting.setupMainMemoryOnly();
+            case MIXED -> MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+            case TEMP_FILE -> MemoryUsageSetting.setupTempFileOnly();
+        };
+        if (tempDir != null) {
+            setting.setTempDir(tempDir);
+        }
+        return PDDocument.load(file, setting);
+    }
+
+    /**
+     * 提取运行指标
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("parallelism", pool.getParallelism());
+        stats.put("memoryMode", memoryMode);
+        stats.put("maxMainMemoryBytes", maxMainMemoryBytes);
+        stats.put("sequentialDocuments", sequentialDocuments.get());
+        stats.put("parallelDocuments", parallelDocuments.get());
+        stats.put("parallelTasks", parallelTasks.get());
+        stats.put("activeThreads", pool.getActiveThreadCount());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 页码范围任务：超过单个窗口时二分，左半在当前线程执行，右半交给其他线程
+     */
+    private final class PageRangeTask extends RecursiveTask<String> {
+
+        private final File file;
+        private final int startPage;
+        private final int endPage;
+
+        private PageRangeTask(File file, int startPage, int endPage) {
+            this.file = file;
+            this.startPage = startPage;
+            this.endPage = endPage;
+        }
+
+        @Override
+        protected String compute() {
+            if (endPage - startPage + 1 <= pagesPerTask) {
+                parallelTasks.incrementAndGet();
+                try {
+                    return extract(file, startPage, endPage);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = (startPage + endPage) >>> 1;
+            PageRangeTask right = new PageRangeTask(file, middle + 1, endPage);
+            right.fork();
+            String left = new PageRangeTask(file, startPage, middle).compute();
+            return left + right.join();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.yuyuan.literature.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 提示词模板注册表
+ * <p>
+ * 启动时加载 {@code classpath:prompts/*.txt} 并校验，缺少必需模板、内容为空或超过大小上限时启动失败。
+ * 配置了 path 时，该目录下同名的 .txt 文件覆盖内置模板，并按 reload-interval 检查变更热加载；
+ * 变更后的模板校验失败时保留原模板。每个模板以内容的 SHA-256 前缀作为版本，
+ * {@link Prompt#id()} 参与大模型响应缓存的键并随阅读指南保存，模板修改后不会命中旧版本的缓存。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class PromptRegistry {
+
+    public static final String GUIDE = "literature-guide-system-prompt";
+    public static final String CLASSIFICATION = "literature-classification-system-prompt";
+    public static final String CHUNK_NOTES = "literature-chunk-notes-system-prompt";
+    public static final String BATCH_CLASSIFICATION = "literature-batch-classification-system-prompt";
+
+    private static final List<String> REQUIRED = List.of(GUIDE, CLASSIFICATION, CHUNK_NOTES, BATCH_CLASSIFICATION);
+    private static final String SUFFIX = ".txt";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    private final Map<String, Prompt> prompts = new ConcurrentHashMap<>();
+    /**
+     * 覆盖目录中已加载文件的修改时间，未变化的文件不重新读取
+     */
+    private final Map<String, Long> overrideModified = new ConcurrentHashMap<>();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PromptRegistry(@Value("${literature.prompt.path:}") String path,
+                          @Value("${literature.prompt.max-size:256KB}") DataSize maxSize) throws IOException {
+        this.directory = StringUtils.hasText(path) ? Paths.get(path) : null;
+        this.maxBytes = maxSize.toBytes();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:prompts/*" + SUFFIX)) {
+            String name = resource.getFilename().substring(0, resource.getFilename().length() - SUFFIX.length());
+            prompts.put(name, validate(name, resource.getContentAsByteArray(), "classpath"));
+        }
+        for (String name : REQUIRED) {
+            if (!prompts.containsKey(name)) {
+                throw new IllegalStateException("缺少提示词模板: prompts/" + name + SUFFIX);
+            }
+        }
+        if (directory != null) {
+            reload();
+        }
+        log.info("提示词模板加载完成: {}", prompts.values().stream().map(Prompt::id).sorted().toList());
+    }
+
+    /**
+     * 取当前版本的模板
+     *
+     * @param name 模板名（文件名去掉 .txt）
+     */
+    public Prompt get(String name) {
+        Prompt prompt = prompts.get(name);
+        if (prompt == null) {
+            throw new IllegalArgumentException("未知的提示词模板: " + name);
+        }
+        return prompt;
+    }
+
+    /**
+     * 检查覆盖目录中的模板变更
+     */
+    @Scheduled(fixedDelayString = "${literature.prompt.reload-interval:10000}")
+    public void reload() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).forEach(this::reload);
+        } catch (IOException e) {
+            log.warn("扫描提示词目录失败: {}", directory, e);
+        }
+    }
+
+    private void reload(Path file) {
+        String fileName = file.getFileName().toString();
+        String name = fileName.substring(0, fileName.length() - SUFFIX.length());
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            Long previous = overrideModified.put(name, modified);
+            if (previous != null && previous == modified) {
+                return;
+            }
+            Prompt prompt = validate(name, Files.readAllBytes(file), file.toString());
+            Prompt replaced = prompts.put(name, prompt);
+            if (replaced == null || !replaced.version().equals(prompt.version())) {
+                reloads.incrementAndGet();
+                log.info("提示词模板已更新: {} -> {}", replaced != null ? replaced.id() : "无", prompt.id());
+            }
+        } catch (IOException | IllegalStateException e) {
+            rejected.incrementAndGet();
+            log.warn("加载提示词模板失败，继续使用当前版本: {}", file, e);
+        }
+    }
+
+    private Prompt validate(String name, byte[] bytes, String source) {
+        if (bytes.length > maxBytes) {
+            throw new IllegalStateException("提示词模板超过大小上限: " + source + "/" + name);
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        if (text.isBlank()) {
+            throw new IllegalStateException("提示词模板内容为空: " + source + "/" + name);
+        }
+        return new Prompt(name, version(bytes), text, DocumentChunker.estimateTokens(text), source,
+                LocalDateTime.now());
+    }
+
+    private static String version(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 注册表运行指标
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory != null ? directory.toString() : null);
+        prompts.values().stream().sorted((a, b) -> a.name().compareTo(b.name())).forEach(prompt -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", prompt.id());
+            entry.put("source", prompt.source());
+            entry.put("length", prompt.text().length());
+            entry.put("tokens", prompt.tokens());
+            entry.put("loadedAt", prompt.loadedAt().toString());
+            stats.put(prompt.name(), entry);
+        });
+        stats.put("reloads", reloads.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+
+    /**
+     * 已加载的模板
+     *
+     * @param name     模板名
+     * @param version  内容 SHA-256 的前 12 位十六进制
+     * @param text     模板内容
+     * @param tokens   估算的 token 数
+     * @param source   来源：classpath 或覆盖目录中的文件路径
+     * @param loadedAt 加载时间
+     */
+    public record Prompt(String name, String version, String text, int tokens, String source,
+                         LocalDateTime loadedAt) {
+
+        /**
+         * 带版本的模板ID，形如 {@code literature-guide-system-prompt@3fa2b1c09d4e}
+         */
+        public String id() {
+            return name + "@" + version;
+        }
+    }
+}
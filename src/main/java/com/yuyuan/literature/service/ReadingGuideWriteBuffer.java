@@ -0,0 +1,133 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.mapper.LiteratureContentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 阅读指南流式写入缓冲
+ * <p>
+ * 流式生成时按文献ID在内存中累积 token，达到字符数或时间阈值后只把增量追加到数据库，
+ * 完成、失败或取消时再把剩余内容一次性落库，避免逐 token 读改写整段阅读指南。
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ReadingGuideWriteBuffer {
+
+    private final LiteratureContentMapper literatureContentMapper;
+    private final int flushChars;
+    private final long flushIntervalNanos;
+
+    private final Map<Long, PendingGuide> buffers = new ConcurrentHashMap<>();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedChars = new AtomicLong();
+
+    public ReadingGuideWriteBuffer(LiteratureContentMapper literatureContentMapper,
+                                   @Value("${literature.guide.flush-chars:2048}") int flushChars,
+                                   @Value("${literature.guide.flush-interval:1s}") Duration flushInterval) {
+        this.literatureContentMapper = literatureContentMapper;
+        this.flushChars = flushChars;
+        this.flushIntervalNanos = flushInterval.toNanos();
+    }
+
+    /**
+     * 追加一个 token，达到阈值时把未落库的增量写入数据库
+     *
+     * @param id 文献ID
+     * @param token 内容片段
+     */
+    public void append(Long id, String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        PendingGuide pending = buffers.computeIfAbsent(id, key -> new PendingGuide());
+        synchronized (pending) {
+            pending.content.append(token);
+            int unflushed = pending.content.length() - pending.flushedLength;
+            if (unflushed >= flushChars || System.nanoTime() - pending.lastFlushNanos >= flushIntervalNanos) {
+                flush(id, pending);
+            }
+        }
+    }
+
+    /**
+     * 生成完成：写入剩余内容并释放缓冲
+     *
+     * @param id 文献ID
+     * @return 完整的阅读指南内容，没有任何 token 时返回空字符串
+     */
+    public String complete(Long id) {
+        PendingGuide pending = buffers.remove(id);
+        if (pending == null) {
+            return "";
+        }
+        synchronized (pending) {
+            flush(id, pending);
+            return pending.content.toString();
+        }
+    }
+
+    /**
+     * 生成失败或被取消：保留已生成的部分内容并释放缓冲
+     *
+     * @param id 文献ID
+     */
+    public void abort(Long id) {
+        PendingGuide pending = buffers.remove(id);
+        if (pending == null) {
+            return;
+        }
+        synchronized (pending) {
+            try {
+                flush(id, pending);
+            } catch (Exception e) {
+                log.warn("阅读指南缓冲落库失败，ID: {}", id, e);
+            }
+        }
+    }
+
+    /**
+     * 累计落库次数
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * 累计落库字符数
+     */
+    public long getFlushedChars() {
+        return flushedChars.get();
+    }
+
+    private void flush(Long id, PendingGuide pending) {
+        pending.lastFlushNanos = System.nanoTime();
+        int length = pending.content.length();
+        if (length == pending.flushedLength) {
+            return;
+        }
+        String delta = pending.content.substring(pending.flushedLength, length);
+        literatureContentMapper.appendReadingGuide(id, delta);
+        pending.flushedLength = length;
+        flushCount.incrementAndGet();
+        flushedChars.addAndGet(delta.length());
+    }
+
+    /**
+     * 单篇文献的待写入内容
+     */
+    private static final class PendingGuide {
+        private final StringBuilder content = new StringBuilder();
+        private int flushedLength;
+        private long lastFlushNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,12 @@
+package com.yuyuan.literature.service;
+
+/**
+ * 已保存的上传文件
+ *
+ * @param path        文件存储路径
+ * @param contentHash 文件内容的 SHA-256（十六进制小写）
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public record StoredFile(String path, String contentHash) {
+}
@@ -0,0 +1,31 @@
+package com.yuyuan.literature.service;
+
+/**
+ * 流式解析出的文本片段
+ *
+ * @param index 片段在文档中的顺序，从 0 开始
+ * @param unit  片段对应的文档结构单位
+ * @param text  片段文本，依次拼接即为整篇文本
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+public record TextChunk(int index, Unit unit, String text) {
+
+    /**
+     * 片段单位
+     */
+    public enum Unit {
+        /**
+         * PDF 页
+         */
+        PAGE,
+        /**
+         * Word 段落
+         */
+        PARAGRAPH,
+        /**
+         * Markdown 顶层块（标题、段落、列表、代码块等）
+         */
+        BLOCK
+    }
+}
@@ -0,0 +1,200 @@
+package com.yuyuan.literature.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.entity.LiteratureJob;
+import com.yuyuan.literature.mapper.LiteratureJobMapper;
+import com.yuyuan.literature.mapper.LiteratureMapper;
+import com.yuyuan.literature.pipeline.Lane;
+import com.yuyuan.literature.service.LiteratureCountCache;
+import com.yuyuan.literature.service.LiteratureJobService;
+import com.yuyuan.literature.service.LlmResilience;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 文献处理任务服务实现类
+ *
+ * @author Literature Assistant
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class LiteratureJobServiceImpl extends ServiceImpl<LiteratureJobMapper, LiteratureJob>
+        implements LiteratureJobService {
+
+    private final LiteratureMapper literatureMapper;
+    private final LiteratureCountCache literatureCountCache;
+    private final Duration leaseDuration;
+    private final Duration retryBackoff;
+    private final int maxAttempts;
+    private final String nodeId;
+
+    /**
+     * 当前节点持有租约的任务，心跳时统一续约
+     */
+    private final Set<Long> heldJobs = ConcurrentHashMap.newKeySet();
+
+    public LiteratureJobServiceImpl(LiteratureMapper literatureMapper,
+                                    LiteratureCountCache literatureCountCache,
+                                    @Value("${literature.job.lease-duration:60s}") Duration leaseDuration,
+                                    @Value("${literature.job.retry-backoff:30s}") Duration retryBackoff,
+                                    @Value("${literature.job.max-attempts:3}") int maxAttempts) {
+        this.literatureMapper = literatureMapper;
+        this.literatureCountCache = literatureCountCache;
+        this.leaseDuration = leaseDuration;
+        this.retryBackoff = retryBackoff;
+        this.maxAttempts = maxAttempts;
+        this.nodeId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public Long enqueue(Long literatureId, LiteratureJob.Type type, Lane lane) {
+        LiteratureJob job = new LiteratureJob();
+        job.setLiteratureId(literatureId);
+        job.setJobType(type.name());
+        job.setLane(lane.name());
+        job.setStatus(LiteratureJob.Status.PENDING.getCode());
+        job.setAttempts(0);
+        job.setNextRunTime(LocalDateTime.now());
+
+        this.save(job);
+        log.info("文献任务入队，任务ID: {}, 文献ID: {}, 类型: {}, 来源: {}", job.getId(), literatureId, type, lane);
+        return job.getId();
+    }
+
+    @Override
+    public Long startInline(Long literatureId, LiteratureJob.Type type, Lane lane) {
+        LocalDateTime now = LocalDateTime.now();
+        LiteratureJob job = new LiteratureJob();
+        job.setLiteratureId(literatureId);
+        job.setJobType(type.name());
+        job.setLane(lane.name());
+        job.setStatus(LiteratureJob.Status.RUNNING.getCode());
+        job.setAttempts(1);
+        job.setLeaseOwner(nodeId);
+        job.setLeaseExpireTime(now.plus(leaseDuration));
+        job.setHeartbeatTime(now);
+        job.setNextRunTime(now);
+
+        this.save(job);
+        heldJobs.add(job.getId());
+        return job.getId();
+    }
+
+    @Override
+    public List<LiteratureJob> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = baseMapper.selectClaimableIds(now, limit);
+        List<Long> claimed = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            // 多个节点可能同时看到同一任务，以条件更新是否成功作为领取结果
+            if (baseMapper.claim(id, nodeId, now.plus(leaseDuration), now) == 1) {
+                heldJobs.add(id);
+                claimed.add(id);
+            }
+        }
+        return claimed.isEmpty() ? List.of() : this.listByIds(claimed);
+    }
+
+    @Override
+    public void heartbeat() {
+        if (heldJobs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(heldJobs);
+        int renewed = baseMapper.heartbeat(nodeId, ids, now.plus(leaseDuration), now);
+        if (renewed < ids.size()) {
+            log.warn("部分任务续约失败，持有: {}, 续约成功: {}", ids.size(), renewed);
+        }
+    }
+
+    @Override
+    public void complete(Long jobId) {
+        heldJobs.remove(jobId);
+        baseMapper.finish(jobId, nodeId, LiteratureJob.Status.DONE.getCode(), null, null);
+    }
+
+    @Override
+    public void fail(Long jobId, Throwable error) {
+        heldJobs.remove(jobId);
+        LiteratureJob job = this.getById(jobId);
+        if (job == null) {
+            return;
+        }
+        String message = abbreviate(error != null ? error.getMessage() : null);
+        int attempts = job.getAttempts() != null ? job.getAttempts() : 1;
+        // 大模型服务熔断时不再排队重试，直接标记失败
+        if (attempts < maxAttempts && !LlmResilience.isCircuitOpen(error)) {
+            LocalDateTime nextRunTime = LocalDateTime.now().plus(retryBackoff.multipliedBy(1L << (attempts - 1)));
+            baseMapper.finish(jobId, nodeId, LiteratureJob.Status.PENDING.getCode(), message, nextRunTime);
+            log.warn("文献任务失败，将于 {} 重试，任务ID: {}, 文献ID: {}, 原因: {}",
+                    nextRunTime, jobId, job.getLiteratureId(), message);
+            return;
+        }
+
+        if (baseMapper.finish(jobId, nodeId, LiteratureJob.Status.FAILED.getCode(), message, null) == 1) {
+            Literature literature = new Literature();
+            literature.setId(job.getLiteratureId());
+            literature.setStatus(Literature.Status.FAILED.getCode());
+            literatureMapper.updateById(literature);
+            literatureCountCache.invalidate();
+        }
+        log.error("文献任务失败且不再重试，任务ID: {}, 文献ID: {}, 第 {} 次尝试, 原因: {}",
+                jobId, job.getLiteratureId(), attempts, message);
+    }
+
+    @Override
+    public void release(Long jobId) {
+        heldJobs.remove(jobId);
+        baseMapper.finish(jobId, nodeId, LiteratureJob.Status.PENDING.getCode(), null, LocalDateTime.now());
+        log.info("释放文献任务，交由后台继续处理，任务ID: {}", jobId);
+    }
+
+    @Override
+    public int resumeOrphans() {
+        List<LiteratureJob> orphans = baseMapper.selectOrphanJobs();
+        for (LiteratureJob orphan : orphans) {
+            // 阅读指南已生成的只补建分类任务，不重新生成；发起方早已不在，按后台任务排队
+            enqueue(orphan.getLiteratureId(), LiteratureJob.Type.valueOf(orphan.getJobType()), Lane.BATCH);
+        }
+        if (!orphans.isEmpty()) {
+            log.info("为 {} 篇处理中的文献补建任务", orphans.size());
+        }
+        return orphans.size();
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
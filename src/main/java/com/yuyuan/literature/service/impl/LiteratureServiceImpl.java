@@ -9,20 +9,35 @@ import com.yuyuan.literature.common.result.ResultCode;
 import com.yuyuan.literature.dto.BatchLiteratureImportRequest;
 import com.yuyuan.literature.dto.LiteratureQueryRequest;
 import com.yuyuan.literature.dto.LiteratureVO;
+import com.yuyuan.literature.dto.TagFacetVO;
 import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.entity.LiteratureJob;
 import com.yuyuan.literature.mapper.LiteratureMapper;
+import com.yuyuan.literature.mapper.LiteratureTagMapper;
+import com.yuyuan.literature.pipeline.ImportMetrics;
+import com.yuyuan.literature.pipeline.ImportPipeline;
+import com.yuyuan.literature.pipeline.Lane;
+import com.yuyuan.literature.search.LiteratureSearchIndex;
 import com.yuyuan.literature.service.FileProcessingService;
 import com.yuyuan.literature.service.LiteratureAiService;
+import com.yuyuan.literature.service.LiteratureContentService;
+import com.yuyuan.literature.service.LiteratureCountCache;
+import com.yuyuan.literature.service.LiteratureJobService;
+import com.yuyuan.literature.service.LiteratureCursor;
 import com.yuyuan.literature.service.LiteratureService;
+import com.yuyuan.literature.service.LiteratureTagService;
+import com.yuyuan.literature.service.PromptRegistry;
+import com.yuyuan.literature.service.StoredFile;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.io.File;
 import java.io.OutputStream;
@@ -30,8 +45,16 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -47,55 +70,147 @@ public class LiteratureServiceImpl extends ServiceImpl<LiteratureMapper, Literat
 
     private final FileProcessingService fileProcessingService;
     private final LiteratureAiService literatureAiService;
+    private final ImportPipeline importPipeline;
+    private final LiteratureJobService literatureJobService;
+    private final ImportMetrics importMetrics;
+    private final LiteratureSearchIndex literatureSearchIndex;
+    private final LiteratureTagService literatureTagService;
+    private final LiteratureTagMapper literatureTagMapper;
+    private final LiteratureCountCache literatureCountCache;
+    private final LiteratureContentService literatureContentService;
+    private final PromptRegistry promptRegistry;
+
+    /**
+     * 批量导入时同时处理的文件数
+     */
+    @Value("${literature.batch.concurrency:4}")
+    private int batchConcurrency;
+
+    /**
+     * 批量导入事件是否按文件顺序输出（请求未指定时使用）
+     */
+    @Value("${literature.batch.ordered:true}")
+    private boolean batchOrdered;
 
     @Override
-    public Long createLiterature(MultipartFile file, String filePath, Integer contentLength) {
+    public Long createLiterature(MultipartFile file, StoredFile storedFile, String fileContent) {
         Literature literature = new Literature();
         literature.setOriginalName(file.getOriginalFilename());
-        literature.setFilePath(filePath);
+        literature.setFilePath(storedFile.path());
         literature.setFileSize(file.getSize());
         String ext = org.apache.commons.io.FilenameUtils.getExtension(file.getOriginalFilename());
         literature.setFileType(ext != null ? ext.toLowerCase() : "");
-        literature.setContentLength(contentLength);
+        literature.setContentLength(fileContent.length());
+        literature.setContentHash(storedFile.contentHash());
         literature.setStatus(Literature.Status.PROCESSING.getCode());
 
         this.save(literature);
+        literatureContentService.create(literature.getId(), fileContent);
+        literatureSearchIndex.index(literature.getId(), LiteratureSearchIndex.Field.NAME, literature.getOriginalName());
+        literatureSearchIndex.index(literature.getId(), LiteratureSearchIndex.Field.TEXT, fileContent);
+        literatureCountCache.invalidate();
         log.info("创建文献记录成功，ID: {}, 文件名: {}", literature.getId(), literature.getOriginalName());
 
         return literature.getId();
     }
 
+    @Override
+    public Literature findReusable(String contentHash) {
+        if (contentHash == null) {
+            return null;
+        }
+        return this.lambdaQuery()
+                .eq(Literature::getContentHash, contentHash)
+                .eq(Literature::getStatus, Literature.Status.COMPLETED.getCode())
+                .isNotNull(Literature::getReadingGuideSummary)
+                .orderByAsc(Literature::getId)
+                .last("LIMIT 1")
+                .one();
+    }
+
+    @Override
+    public Long createFromExisting(MultipartFile file, Literature source) {
+        Literature literature = new Literature();
+        literature.setOriginalName(file.getOriginalFilename());
+        literature.setFilePath(source.getFilePath());
+        literature.setFileSize(source.getFileSize());
+        literature.setFileType(source.getFileType());
+        literature.setContentLength(source.getContentLength());
+        literature.setContentHash(source.getContentHash());
+        literature.setTags(source.getTags());
+        literature.setDescription(source.getDescription());
+        literature.setReadingGuideSummary(source.getReadingGuideSummary());
+        literature.setStatus(Literature.Status.COMPLETED.getCode());
+
+        this.save(literature);
+        literatureContentService.copy(source.getId(), literature.getId());
+        literatureTagService.replaceTags(literature.getId(), source.getTags());
+        literatureSearchIndex.index(literature.getId(), LiteratureSearchIndex.Field.NAME, literature.getOriginalName());
+        literatureSearchIndex.index(literature.getId(), LiteratureSearchIndex.Field.DESCRIPTION, source.getDescription());
+        literatureSearchIndex.copy(source.getId(), literature.getId(), LiteratureSearchIndex.Field.GUIDE);
+        literatureSearchIndex.copy(source.getId(), literature.getId(), LiteratureSearchIndex.Field.TEXT);
+        literatureCountCache.invalidate();
+        // 复用省去了阅读指南生成，来源已有分类时也省去了分类
+        importMetrics.recordDeduplicated(source.getTags() != null ? 2 : 1);
+        log.info("文献内容重复，复用已有结果，ID: {}, 来源ID: {}, 文件名: {}",
+                literature.getId(), source.getId(), literature.getOriginalName());
+
+        return literature.getId();
+    }
+
     @Override
     public void updateReadingGuide(Long id, String readingGuide) {
+        completeReadingGuide(id, readingGuide);
+        log.info("更新文献阅读指南成功，ID: {}", id);
+    }
+
+    @Override
+    public void completeReadingGuide(Long id, String readingGuide) {
         Literature literature = new Literature();
         literature.setId(id);
-        literature.setReadingGuide(readingGuide);
+        literature.setReadingGuideSummary(summarize(readingGuide));
 
+        // 流式追加的内容未压缩，完成后整体重写为压缩格式
+        literatureContentService.saveReadingGuide(id, readingGuide, promptRegistry.get(PromptRegistry.GUIDE).id());
         this.updateById(literature);
-        log.info("更新文献阅读指南成功，ID: {}", id);
+        literatureSearchIndex.index(id, LiteratureSearchIndex.Field.GUIDE, readingGuide);
+        literatureCountCache.invalidate();
     }
 
     @Override
     public void updateReadingGuideAppend(Long id, String chunk) {
-        Literature current = this.getById(id);
-        String original = current != null ? current.getReadingGuide() : null;
-        String combined = (original == null ? "" : original) + (chunk == null ? "" : chunk);
-        Literature update = new Literature();
-        update.setId(id);
-        update.setReadingGuide(combined);
-        this.updateById(update);
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        // 生成过程中的追加不使总数缓存失效，生成完成时由 completeReadingGuide 统一处理
+        literatureContentService.appendReadingGuide(id, chunk);
+    }
+
+    @Override
+    public void resetReadingGuide(Long id) {
+        this.lambdaUpdate()
+                .set(Literature::getReadingGuideSummary, null)
+                .eq(Literature::getId, id)
+                .update();
+        literatureContentService.saveReadingGuide(id, null, null);
+        literatureSearchIndex.index(id, LiteratureSearchIndex.Field.GUIDE, null);
+        literatureCountCache.invalidate();
     }
 
     @Override
     public void updateClassification(Long id, List<String> tags, String description) {
+        List<String> normalizedTags = LiteratureTagService.normalize(tags);
         Literature literature = new Literature();
         literature.setId(id);
-        literature.setTags(tags);
+        literature.setTags(normalizedTags);
         literature.setDescription(description);
         literature.setStatus(Literature.Status.COMPLETED.getCode());
 
         this.updateById(literature);
-        log.info("更新文献分类成功，ID: {}, 标签数量: {}", id, tags.size());
+        literatureTagService.replaceTags(id, normalizedTags);
+        literatureSearchIndex.index(id, LiteratureSearchIndex.Field.DESCRIPTION, description);
+        literatureCountCache.invalidate();
+        log.info("更新文献分类成功，ID: {}, 标签数量: {}", id, normalizedTags.size());
     }
 
     @Override
@@ -105,23 +220,226 @@ public class LiteratureServiceImpl extends ServiceImpl<LiteratureMapper, Literat
         literature.setStatus(status);
 
         this.updateById(literature);
+        literatureCountCache.invalidate();
         log.info("更新文献状态成功，ID: {}, 状态: {}", id, status);
     }
 
     @Override
     public PageResult<LiteratureVO> pageLiteratures(LiteratureQueryRequest request) {
-        // 创建分页对象
-        Page<Literature> page = new Page<>(request.getPageNum(), request.getPageSize());
+        normalizeFilters(request);
+        LiteratureSearchIndex.Hits hits = searchKeyword(request);
+        List<Long> matchedIds = hits != null ? hits.ids() : null;
+        // 命中数超过检索上限时只能在相关度最高的部分中分页，总数不是精确值
+        boolean truncated = hits != null && hits.truncated();
+        if (matchedIds != null) {
+            if (matchedIds.isEmpty()) {
+                return request.isCursorPagination()
+                        ? PageResult.ofCursor(List.of(), countTotal(request, false) ? 0L : null,
+                                request.getPageSize(), null)
+                        : PageResult.empty(request);
+            }
+        }
+        if (request.isCursorPagination()) {
+            return pageByCursor(request, matchedIds, truncated);
+        }
+        if (matchedIds != null && !StringUtils.hasText(request.getSortField())) {
+            return pageByRelevance(request, matchedIds, truncated);
+        }
+
+        // 创建分页对象，总数由 countLiteratures 统计，不使用分页插件的 COUNT 查询
+        Page<Literature> page = new Page<>(request.getPageNum(), request.getPageSize(), false);
 
         // 执行分页查询
-        IPage<Literature> pageResult = baseMapper.selectLiteraturePage(page, request);
+        IPage<Literature> pageResult = baseMapper.selectLiteraturePage(page, request, matchedIds);
 
         // 转换为 VO 对象
         List<LiteratureVO> voList = pageResult.getRecords().stream()
                 .map(this::convertToVO)
                 .collect(Collectors.toList());
 
-        return PageResult.of(voList, pageResult.getTotal(), request.getPageNum(), request.getPageSize());
+        if (!countTotal(request, true)) {
+            return PageResult.withoutTotal(voList, request.getPageNum(), request.getPageSize());
+        }
+        // 未取满的非空页（或空的首页）即最后一页，总数可由偏移量直接得出
+        Long knownTotal = voList.size() < request.getPageSize() && (!voList.isEmpty() || request.getPageNum() == 1)
+                ? (long) (request.getPageNum() - 1) * request.getPageSize() + voList.size()
+                : null;
+        LiteratureCountCache.Count count = countLiteratures(request, matchedIds, knownTotal);
+        PageResult<LiteratureVO> result = PageResult.of(voList, count.total(), request.getPageNum(),
+                request.getPageSize());
+        result.setTotalExact(count.exact() && !truncated);
+        return result;
+    }
+
+    /**
+     * 游标分页：按 (排序键, id) 定位上一页末尾，通过索引直接从该位置继续读取
+     */
+    private PageResult<LiteratureVO> pageByCursor(LiteratureQueryRequest request, List<Long> matchedIds,
+                                                  boolean truncated) {
+        int pageSize = request.getPageSize();
+        LiteratureCursor cursor = StringUtils.hasText(request.getCursor())
+                ? LiteratureCursor.decode(request.getCursor())
+                : null;
+        LiteratureCursor.SortKey sortKey;
+        boolean desc;
+        if (cursor != null) {
+            // 后续页沿用首页确定的排序，保证各页衔接
+            sortKey = cursor.sortKey();
+            desc = cursor.desc();
+        } else {
+            sortKey = matchedIds != null && !StringUtils.hasText(request.getSortField())
+                    ? LiteratureCursor.SortKey.RELEVANCE
+                    : LiteratureCursor.SortKey.fromSortField(request.getSortField());
+            desc = !request.isAsc();
+        }
+        if (sortKey == LiteratureCursor.SortKey.RELEVANCE && matchedIds == null) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "相关度游标只能用于关键词检索");
+        }
+        boolean countTotal = countTotal(request, false);
+
+        if (sortKey == LiteratureCursor.SortKey.RELEVANCE) {
+            List<Long> ordered = filterRanked(request, matchedIds);
+            Long total = countTotal ? (long) ordered.size() : null;
+            int from = cursor != null ? Math.min((Integer) sortKey.parse(cursor.value()), ordered.size()) : 0;
+            int to = Math.min(from + pageSize, ordered.size());
+            String nextCursor = to < ordered.size()
+                    ? new LiteratureCursor(sortKey, true, String.valueOf(to), ordered.get(to - 1)).encode()
+                    : null;
+            PageResult<LiteratureVO> result = PageResult.ofCursor(loadListRows(ordered.subList(from, to)), total,
+                    pageSize, nextCursor);
+            result.setTotalExact(!truncated);
+            return result;
+        }
+
+        List<Literature> rows = baseMapper.selectLiteratureSeek(request, matchedIds, sortKey.getColumn(), desc,
+                cursor != null ? sortKey.parse(cursor.value()) : null,
+                cursor != null ? cursor.lastId() : null,
+                pageSize + 1);
+        // 多读一条判断是否还有下一页
+        boolean hasMore = rows.size() > pageSize;
+        List<Literature> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Literature last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new LiteratureCursor(sortKey, desc, sortKey.valueOf(last), last.getId()).encode();
+        }
+        List<LiteratureVO> voList = pageRows.stream()
+                .map(this::convertToVO)
+                .collect(Collectors.toList());
+        if (!countTotal) {
+            return PageResult.ofCursor(voList, null, pageSize, nextCursor);
+        }
+        LiteratureCountCache.Count count = countLiteratures(request, matchedIds,
+                cursor == null && !hasMore ? (long) pageRows.size() : null);
+        PageResult<LiteratureVO> result = PageResult.ofCursor(voList, count.total(), pageSize, nextCursor);
+        result.setTotalExact(count.exact() && !truncated);
+        return result;
+    }
+
+    /**
+     * 统计满足条件的文献总数，结果按过滤条件缓存，文献数据变化后失效
+     *
+     * @param knownTotal 已能从本页结果确定的总数，为 null 时需要统计
+     */
+    private LiteratureCountCache.Count countLiteratures(LiteratureQueryRequest request, List<Long> matchedIds,
+                                                        Long knownTotal) {
+        LiteratureCountCache.Key key = LiteratureCountCache.Key.of(request, matchedIds != null);
+        if (knownTotal != null) {
+            literatureCountCache.record(key, knownTotal);
+            return new LiteratureCountCache.Count(knownTotal, true);
+        }
+        LongSupplier counter = () -> baseMapper.selectLiteratureCount(request, matchedIds);
+        if (request.isEstimatedCount()) {
+            return literatureCountCache.approximate(key, counter, () -> key.isUnfiltered()
+                    ? Optional.ofNullable(baseMapper.selectLiteratureEstimate())
+                    : Optional.empty());
+        }
+        return new LiteratureCountCache.Count(literatureCountCache.exact(key, counter), true);
+    }
+
+    /**
+     * 是否统计总数，请求未指定时按分页方式取默认值
+     */
+    private static boolean countTotal(LiteratureQueryRequest request, boolean defaultValue) {
+        return request.getCountTotal() != null ? request.getCountTotal() : defaultValue;
+    }
+
+    @Override
+    public List<TagFacetVO> tagFacets(LiteratureQueryRequest request, int limit) {
+        normalizeFilters(request);
+        LiteratureSearchIndex.Hits hits = searchKeyword(request);
+        if (hits != null && hits.ids().isEmpty()) {
+            return List.of();
+        }
+        return literatureTagMapper.selectFacets(request, hits != null ? hits.ids() : null, limit);
+    }
+
+    /**
+     * 有关键词且索引可用时由全文索引确定候选文献，数据库只按ID和其他条件过滤
+     *
+     * @return 命中的文献；无关键词或索引未就绪时返回 null
+     */
+    private LiteratureSearchIndex.Hits searchKeyword(LiteratureQueryRequest request) {
+        if (!StringUtils.hasText(request.getKeyword()) || !literatureSearchIndex.isReady()) {
+            return null;
+        }
+        return literatureSearchIndex.search(request.getKeyword());
+    }
+
+    /**
+     * 标签条件去重（AND 匹配按去重后的标签数计数），并校验日期格式
+     */
+    private void normalizeFilters(LiteratureQueryRequest request) {
+        request.setTags(LiteratureTagService.normalize(request.getTags()));
+        request.setExcludeTags(LiteratureTagService.normalize(request.getExcludeTags()));
+        try {
+            request.getCreateTimeFrom();
+            request.getCreateTimeTo();
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "日期格式应为 yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * 未指定排序字段时按相关度排序：先过滤出满足其他条件的候选，再按索引给出的顺序分页
+     */
+    private PageResult<LiteratureVO> pageByRelevance(LiteratureQueryRequest request, List<Long> rankedIds,
+                                                     boolean truncated) {
+        List<Long> ordered = filterRanked(request, rankedIds);
+
+        int from = (int) Math.min((long) (request.getPageNum() - 1) * request.getPageSize(), ordered.size());
+        int to = Math.min(from + request.getPageSize(), ordered.size());
+        PageResult<LiteratureVO> result = PageResult.of(loadListRows(ordered.subList(from, to)),
+                (long) ordered.size(), request.getPageNum(), request.getPageSize());
+        result.setTotalExact(!truncated);
+        return result;
+    }
+
+    /**
+     * 从索引命中结果中去掉不满足其他条件的文献，保持相关度顺序
+     */
+    private List<Long> filterRanked(LiteratureQueryRequest request, List<Long> rankedIds) {
+        Set<Long> filtered = new HashSet<>(baseMapper.selectLiteratureIds(request, rankedIds));
+        return rankedIds.stream().filter(filtered::contains).toList();
+    }
+
+    /**
+     * 按给定顺序加载列表展示数据
+     */
+    private List<LiteratureVO> loadListRows(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Literature> byId = this.lambdaQuery()
+                .in(Literature::getId, ids)
+                .list()
+                .stream()
+                .collect(Collectors.toMap(Literature::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToVO)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -151,24 +469,31 @@ public class LiteratureServiceImpl extends ServiceImpl<LiteratureMapper, Literat
         vo.setCreateTime(literature.getCreateTime());
         vo.setUpdateTime(literature.getUpdateTime());
 
-        // 阅读指南摘要（截取前200个字符）
-        if (literature.getReadingGuide() != null && !literature.getReadingGuide().trim().isEmpty()) {
-            String summary = literature.getReadingGuide().length() > 200
-                    ? literature.getReadingGuide().substring(0, 200) + "..."
-                    : literature.getReadingGuide();
-            vo.setReadingGuideSummary(summary);
+        // 阅读指南摘要（写入阅读指南时预先截取，列表查询不读取完整内容）
+        if (StringUtils.hasText(literature.getReadingGuideSummary())) {
+            vo.setReadingGuideSummary(literature.getReadingGuideSummary());
         }
 
         return vo;
     }
 
+    /**
+     * 截取阅读指南前200个字符作为摘要
+     */
+    private static String summarize(String readingGuide) {
+        if (readingGuide == null || readingGuide.trim().isEmpty()) {
+            return null;
+        }
+        return readingGuide.length() > 200 ? readingGuide.substring(0, 200) + "..." : readingGuide;
+    }
+
     /**
      * 转换为详情 VO（包含完整信息）
      */
     private LiteratureVO convertToDetailVO(Literature literature) {
         LiteratureVO vo = convertToVO(literature);
-        // 详情页面可以返回完整的阅读指南
-        vo.setReadingGuideSummary(literature.getReadingGuide());
+        // 详情页面可以返回完整的阅读指南，只在这里读取内容表
+        vo.setReadingGuideSummary(literatureContentService.getReadingGuide(literature.getId()));
         return vo;
     }
 
@@ -236,77 +561,148 @@ public class LiteratureServiceImpl extends ServiceImpl<LiteratureMapper, Literat
         AtomicInteger completedCount = new AtomicInteger(0);
         AtomicInteger errorCount = new AtomicInteger(0);
         int total = request.getFiles().size();
+        int concurrency = Math.max(1, Math.min(batchConcurrency, total));
+        boolean ordered = request.getOrdered() != null ? request.getOrdered() : batchOrdered;
 
         Flux<ServerSentEvent<String>> start = Flux.just(ServerSentEvent.<String>builder()
                 .event("batch_start")
-                .data("{\"total\": " + total + ", \"message\": \"开始批量处理\"}")
+                .data("{\"total\": " + total + ", \"concurrency\": " + concurrency + ", \"ordered\": " + ordered
+                        + ", \"message\": \"开始批量处理\"}")
                 .build());
 
-        Flux<ServerSentEvent<String>> processing = Flux.range(0, total)
-                .concatMap(index -> {
-                    MultipartFile file = request.getFiles().get(index);
-                    Flux<ServerSentEvent<String>> fileStart = Flux.just(ServerSentEvent.<String>builder()
-                            .event("file_start")
-                            .data("{\"index\": " + index + ", \"filename\": \"" + file.getOriginalFilename()
-                                    + "\", \"message\": \"开始处理文件\"}")
-                            .build());
-                    Mono<String> filePathMono = Mono.fromCallable(() -> fileProcessingService.saveFile(file))
-                            .subscribeOn(Schedulers.boundedElastic());
-                    Mono<String> fileContentMono = filePathMono
-                            .flatMap(fp -> Mono.fromCallable(() -> fileProcessingService.extractFileContent(fp))
-                                    .subscribeOn(Schedulers.boundedElastic()));
-                    Mono<Long> literatureIdMono = filePathMono.zipWith(fileContentMono)
-                            .flatMap(tuple -> Mono.fromCallable(
-                                            () -> this.createLiterature(file, tuple.getT1(), tuple.getT2().length()))
-                                    .subscribeOn(Schedulers.boundedElastic()));
-                    Mono<ServerSentEvent<String>> savedEvent = literatureIdMono.map(literatureId -> ServerSentEvent
-                            .<String>builder()
-                            .event("file_saved")
-                            .data("{\"index\": " + index + ", \"literatureId\": " + literatureId
-                                    + ", \"message\": \"文件保存成功，开始生成阅读指南\"}")
-                            .build());
-                    Mono<ServerSentEvent<String>> result = literatureIdMono
-                            .zipWith(fileContentMono)
-                            .flatMap(tuple -> Mono.fromCallable(() -> {
-                                Long literatureId = tuple.getT1();
-                                String fileContent = tuple.getT2();
-                                String readingGuide = literatureAiService.generateReadingGuide(fileContent);
-                                if (readingGuide != null && !readingGuide.trim().isEmpty()) {
-                                    this.updateReadingGuide(literatureId, readingGuide);
-                                    literatureAiService.generateClassificationWithVirtualThread(readingGuide,
-                                            literatureId, this);
-                                } else {
-                                    this.updateStatus(literatureId, Literature.Status.COMPLETED.getCode());
-                                }
-                                int completed = completedCount.incrementAndGet();
-                                return ServerSentEvent.<String>builder()
-                                        .event("file_complete")
-                                        .data("{\"index\": " + index + ", \"literatureId\": " + literatureId
-                                                + ", \"completed\": " + completed + ", \"total\": " + total
-                                                + ", \"message\": \"文件处理完成\"}")
-                                        .build();
-                            }).subscribeOn(Schedulers.boundedElastic()))
-                            .onErrorResume(e -> {
-                                int completed = completedCount.incrementAndGet();
-                                int errors = errorCount.incrementAndGet();
-                                return Mono.just(ServerSentEvent.<String>builder()
-                                        .event("file_error")
-                                        .data("{\"index\": " + index + ", \"filename\": \""
-                                                + file.getOriginalFilename() + "\", \"error\": \"" + e.getMessage()
-                                                + "\", \"completed\": " + completed + ", \"total\": " + total + "}")
-                                        .build());
-                            });
-                    return Flux.concat(fileStart, savedEvent, result);
-                });
-
-        Flux<ServerSentEvent<String>> completion = Flux.just(ServerSentEvent.<String>builder()
+        // 有序模式按文件顺序输出事件（后续文件的事件先缓存），无序模式按完成先后输出
+        Flux<Integer> indexes = Flux.range(0, total);
+        Flux<ServerSentEvent<String>> processing = ordered
+                ? indexes.flatMapSequential(index -> importFile(request.getFiles().get(index), index, total,
+                        completedCount, errorCount), concurrency)
+                : indexes.flatMap(index -> importFile(request.getFiles().get(index), index, total,
+                        completedCount, errorCount), concurrency);
+
+        Flux<ServerSentEvent<String>> completion = Flux.defer(() -> Flux.just(ServerSentEvent.<String>builder()
                 .event("batch_complete")
                 .data("{\"message\": \"批量处理完成\", \"total\": " + total + ", \"errors\": " + errorCount.get() + "}")
-                .build());
+                .build()));
 
         return Flux.concat(start, processing, completion);
     }
 
+    /**
+     * 批量导入中的单个文件：保存后内容已处理过则直接复用，否则解析、生成阅读指南并触发分类
+     */
+    private Flux<ServerSentEvent<String>> importFile(MultipartFile file, int index, int total,
+                                                     AtomicInteger completedCount, AtomicInteger errorCount) {
+        Flux<ServerSentEvent<String>> fileStart = Flux.just(ServerSentEvent.<String>builder()
+                .event("file_start")
+                .data("{\"index\": " + index + ", \"filename\": \"" + file.getOriginalFilename()
+                        + "\", \"message\": \"开始处理文件\"}")
+                .build());
+        Flux<ServerSentEvent<String>> processing = Mono.fromCallable(() -> fileProcessingService.saveFile(file))
+                .subscribeOn(importPipeline.ingest().scheduler(Lane.BATCH))
+                .flatMapMany(storedFile -> Mono.fromCallable(() -> Optional.ofNullable(
+                                        this.findReusable(storedFile.contentHash())))
+                        .subscribeOn(importPipeline.persist().scheduler(Lane.BATCH))
+                        .flatMapMany(reusable -> reusable
+                                .map(source -> reuseFile(file, source, index, total, completedCount))
+                                .orElseGet(() -> processFile(file, storedFile, index, total,
+                                        completedCount, errorCount))))
+                .onErrorResume(e -> Mono.just(fileErrorEvent(file, index, total, e, completedCount, errorCount)));
+        return Flux.concat(fileStart, processing);
+    }
+
+    /**
+     * 复用相同内容文献的结果
+     */
+    private Flux<ServerSentEvent<String>> reuseFile(MultipartFile file, Literature source, int index, int total,
+                                                    AtomicInteger completedCount) {
+        Long literatureId = this.createFromExisting(file, source);
+        int completed = completedCount.incrementAndGet();
+        return Flux.just(ServerSentEvent.<String>builder()
+                        .event("file_saved")
+                        .data("{\"index\": " + index + ", \"literatureId\": " + literatureId
+                                + ", \"message\": \"文件内容已存在，复用已有阅读指南\"}")
+                        .build(),
+                ServerSentEvent.<String>builder()
+                        .event("file_complete")
+                        .data("{\"index\": " + index + ", \"literatureId\": " + literatureId
+                                + ", \"completed\": " + completed + ", \"total\": " + total
+                                + ", \"reused\": true, \"message\": \"文件处理完成\"}")
+                        .build());
+    }
+
+    /**
+     * 解析新文件、生成阅读指南并触发分类
+     */
+    private Flux<ServerSentEvent<String>> processFile(MultipartFile file, StoredFile storedFile, int index, int total,
+                                                      AtomicInteger completedCount, AtomicInteger errorCount) {
+        // 解析结果同时用于创建记录和生成阅读指南，缓存后两处订阅共用一次解析
+        Mono<String> fileContentMono = Mono.fromCallable(() -> fileProcessingService.extractFileContent(storedFile))
+                .subscribeOn(importPipeline.extract().scheduler(Lane.BATCH))
+                .cache();
+        // 文献记录只能创建一次：file_saved 事件与后续生成共用同一个结果
+        Mono<Long> literatureIdMono = fileContentMono
+                .flatMap(fileContent -> Mono.fromCallable(
+                                () -> this.createLiterature(file, storedFile, fileContent))
+                        .subscribeOn(importPipeline.persist().scheduler(Lane.BATCH)))
+                .cache();
+        Mono<ServerSentEvent<String>> savedEvent = literatureIdMono.map(literatureId -> ServerSentEvent
+                .<String>builder()
+                .event("file_saved")
+                .data("{\"index\": " + index + ", \"literatureId\": " + literatureId
+                        + ", \"message\": \"文件保存成功，开始生成阅读指南\"}")
+                .build())
+                // 保存失败时由 result 统一输出 file_error，避免单个文件的异常终止整个批次
+                .onErrorResume(e -> Mono.empty());
+        Mono<ServerSentEvent<String>> result = literatureIdMono
+                .zipWith(fileContentMono)
+                .flatMap(tuple -> Mono.fromCallable(
+                                () -> literatureJobService.startInline(tuple.getT1(), LiteratureJob.Type.GUIDE,
+                                        Lane.BATCH))
+                        .subscribeOn(importPipeline.persist().scheduler(Lane.BATCH))
+                        .flatMap(jobId -> Mono.fromCallable(
+                                        () -> literatureAiService.generateReadingGuide(tuple.getT2(),
+                                                Lane.BATCH))
+                                .subscribeOn(importPipeline.guide().scheduler(Lane.BATCH))
+                                .publishOn(importPipeline.persist().scheduler(Lane.BATCH))
+                                .map(readingGuide -> {
+                                    Long literatureId = tuple.getT1();
+                                    if (!readingGuide.trim().isEmpty()) {
+                                        this.updateReadingGuide(literatureId, readingGuide);
+                                        literatureJobService.enqueue(literatureId, LiteratureJob.Type.CLASSIFY,
+                                                Lane.BATCH);
+                                    } else {
+                                        this.updateStatus(literatureId, Literature.Status.COMPLETED.getCode());
+                                    }
+                                    literatureJobService.complete(jobId);
+                                    int completed = completedCount.incrementAndGet();
+                                    return ServerSentEvent.<String>builder()
+                                            .event("file_complete")
+                                            .data("{\"index\": " + index + ", \"literatureId\": " + literatureId
+                                                    + ", \"completed\": " + completed + ", \"total\": " + total
+                                                    + ", \"message\": \"文件处理完成\"}")
+                                            .build();
+                                })
+                                // 失败的任务按退避策略交给后台重试，事件流照常报告本次失败
+                                .doOnError(e -> literatureJobService.fail(jobId, e))
+                                .doOnCancel(() -> literatureJobService.release(jobId))))
+                .onErrorResume(e -> Mono.just(fileErrorEvent(file, index, total, e, completedCount, errorCount)));
+        return Flux.concat(savedEvent, result);
+    }
+
+    /**
+     * 单个文件处理失败事件
+     */
+    private ServerSentEvent<String> fileErrorEvent(MultipartFile file, int index, int total, Throwable e,
+                                                   AtomicInteger completedCount, AtomicInteger errorCount) {
+        int completed = completedCount.incrementAndGet();
+        errorCount.incrementAndGet();
+        return ServerSentEvent.<String>builder()
+                .event("file_error")
+                .data("{\"index\": " + index + ", \"filename\": \""
+                        + file.getOriginalFilename() + "\", \"error\": \"" + e.getMessage()
+                        + "\", \"completed\": " + completed + ", \"total\": " + total + "}")
+                .build();
+    }
+
     /**
      * 获取状态描述
      */
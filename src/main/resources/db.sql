@@ -9,9 +9,87 @@ CREATE TABLE IF NOT EXISTS literature
     content_length INT       DEFAULT 0,
     tags           VARCHAR(2000),
     description    VARCHAR(2000),
-    reading_guide  CLOB,
+    reading_guide  CLOB, -- 已迁移到 literature_content，保留该列供旧库迁移脚本使用
     status         TINYINT   DEFAULT 1,
     create_time    TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     update_time    TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     deleted        TINYINT   DEFAULT 0
 );
+
+-- 文件内容哈希，用于重复上传时复用已有的解析与生成结果
+ALTER TABLE literature ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+CREATE INDEX IF NOT EXISTS idx_literature_content_hash ON literature (content_hash);
+
+-- 列表查询索引，与 LiteratureMapper.xml 中的过滤和排序条件对应：
+-- 默认按 (create_time, id) 倒序，时间范围与游标定位也走该索引；状态、文件类型过滤先按等值定位再按时间排序。
+-- deleted 几乎全为 0，放入索引前缀不能缩小范围，反而让默认排序无法直接使用索引顺序，因此不建索引
+DROP INDEX IF EXISTS idx_literature_create_time;
+CREATE INDEX IF NOT EXISTS idx_literature_create_time_desc ON literature (create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_literature_status ON literature (status, create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_literature_file_type ON literature (file_type, create_time DESC, id DESC);
+
+-- 阅读指南摘要，列表查询不再读取 reading_guide 大字段；补齐新增该列之前已有的数据
+ALTER TABLE literature ADD COLUMN IF NOT EXISTS reading_guide_summary VARCHAR(210);
+UPDATE literature
+SET reading_guide_summary = CASE
+                                WHEN LENGTH(reading_guide) > 200 THEN CONCAT(SUBSTRING(reading_guide, 1, 200), '...')
+                                ELSE reading_guide END
+WHERE reading_guide_summary IS NULL
+  AND reading_guide IS NOT NULL;
+
+-- 文献内容表：全文和阅读指南与列表使用的元数据分开存放，只在查看详情、重新生成或重建索引时读取。
+-- 内容按 TextCompression 编码保存：首字节为格式标记（0 未压缩的 UTF-8，1 Deflate），由 CompressedTextTypeHandler 读写
+CREATE TABLE IF NOT EXISTS literature_content
+(
+    literature_id BIGINT PRIMARY KEY,
+    full_text     BLOB,
+    reading_guide BLOB,
+    update_time   TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 迁移：把 literature.reading_guide 以未压缩格式移入内容表后清空原列（保留该列以便本脚本重复执行），
+-- 重新生成或重写时再压缩
+INSERT INTO literature_content (literature_id, reading_guide)
+SELECT id, X'00' || STRINGTOUTF8(reading_guide)
+FROM literature l
+WHERE l.reading_guide IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM literature_content c WHERE c.literature_id = l.id);
+UPDATE literature
+SET reading_guide = NULL
+WHERE reading_guide IS NOT NULL;
+
+-- 生成阅读指南所用提示词模板的带版本ID（PromptRegistry.Prompt#id），模板更新后可据此找出需要重新生成的文献
+ALTER TABLE literature_content ADD COLUMN IF NOT EXISTS guide_prompt VARCHAR(100);
+
+-- 文献处理任务表
+CREATE TABLE IF NOT EXISTS literature_job
+(
+    id                BIGINT AUTO_INCREMENT PRIMARY KEY,
+    literature_id     BIGINT      NOT NULL,
+    job_type          VARCHAR(20) NOT NULL,
+    status            TINYINT   DEFAULT 0,
+    attempts          INT       DEFAULT 0,
+    lease_owner       VARCHAR(100),
+    lease_expire_time TIMESTAMP,
+    heartbeat_time    TIMESTAMP,
+    next_run_time     TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_error        VARCHAR(1000),
+    create_time       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_literature_job_status ON literature_job (status, next_run_time);
+CREATE INDEX IF NOT EXISTS idx_literature_job_literature ON literature_job (literature_id, status);
+
+-- 任务的调度来源（Lane），后台执行时沿用发起方的排队通道；之前的任务都来自批量导入或后台补建
+ALTER TABLE literature_job ADD COLUMN IF NOT EXISTS lane VARCHAR(20) DEFAULT 'BATCH';
+
+-- 文献标签关联表，标签过滤与分面统计走索引，不再解析 tags JSON
+CREATE TABLE IF NOT EXISTS literature_tag
+(
+    literature_id BIGINT       NOT NULL,
+    tag           VARCHAR(100) NOT NULL,
+    PRIMARY KEY (literature_id, tag)
+);
+
+CREATE INDEX IF NOT EXISTS idx_literature_tag_tag ON literature_tag (tag, literature_id);
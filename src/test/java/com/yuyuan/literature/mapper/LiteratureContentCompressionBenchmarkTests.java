@@ -0,0 +1,174 @@
+package com.yuyuan.literature.mapper;
+
+import com.yuyuan.literature.common.utils.TextCompression;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * 内容压缩基准：未压缩 vs Deflate + 阅读指南字典
+ * <p>
+ * 以阅读指南提示词中的句子按指南结构拼出语料，对比数据库文件大小、写入吞吐和详情读取（查询并解码）耗时。
+ * 使用 {@code mvn test -Pbenchmark} 运行，结果输出到控制台。
+ */
+@Tag("benchmark")
+class LiteratureContentCompressionBenchmarkTests {
+
+    private static final int ROWS = 2_000;
+    private static final int TEXT_LENGTH = 40_000;
+    private static final int DETAIL_ROUNDS = 2_000;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void storageAndLatencyByEncoding() throws SQLException, IOException {
+        List<String> guides = guideCorpus(new Random(42));
+        List<String> texts = textCorpus(new Random(7));
+        System.out.printf("%-10s %12s %14s %14s%n", "encoding", "dbSize(KB)", "write(rows/s)", "detail(ms)");
+        measure("raw", LiteratureContentCompressionBenchmarkTests::raw, guides, texts);
+        measure("deflate", TextCompression::encode, guides, texts);
+    }
+
+    private void measure(String name, Function<String, byte[]> encoder, List<String> guides, List<String> texts)
+            throws SQLException, IOException {
+        Path file = workDir.resolve(name);
+        String url = "jdbc:h2:file:" + file;
+        double writeRate;
+        double detail;
+        try (Connection connection = DriverManager.getConnection(url)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM 'classpath:db.sql'");
+            }
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO literature_content (literature_id, full_text, reading_guide) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    insert.setLong(1, i + 1);
+                    insert.setBytes(2, encoder.apply(texts.get(i % texts.size())));
+                    insert.setBytes(3, encoder.apply(guides.get(i % guides.size())));
+                    insert.addBatch();
+                    if (i % 100 == 99) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            writeRate = ROWS / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+            Random random = new Random(1);
+            start = System.nanoTime();
+            try (PreparedStatement query = connection.prepareStatement(
+                    "SELECT reading_guide FROM literature_content WHERE literature_id = ?")) {
+                for (int round = 0; round < DETAIL_ROUNDS; round++) {
+                    query.setLong(1, random.nextInt(ROWS) + 1);
+                    try (ResultSet resultSet = query.executeQuery()) {
+                        if (resultSet.next()) {
+                            TextCompression.decode(resultSet.getBytes(1));
+                        }
+                    }
+                }
+            }
+            detail = (System.nanoTime() - start) / 1_000_000.0 / DETAIL_ROUNDS;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN COMPACT");
+            }
+        }
+        long size = Files.size(workDir.resolve(name + ".mv.db"));
+        System.out.printf("%-10s %12d %14.0f %14.3f%n", name, size / 1024, writeRate, detail);
+    }
+
+    /**
+     * 按提示词要求的结构拼出阅读指南：摘要、术语表、分节阅读地图、Mermaid 图和思考题
+     */
+    private static List<String> guideCorpus(Random random) throws IOException {
+        List<String> sentences = promptSentences();
+        List<String> guides = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            StringBuilder guide = new StringBuilder("# 阅读指南：文献 ").append(i).append("\n\n## 核心摘要\n\n");
+            for (String item : List.of("一句话总结", "背景与动机 (Why)", "核心方法 (How)", "主要发现 (What)", "价值与意义")) {
+                guide.append("- **").append(item).append("**: ").append(pick(sentences, random)).append('\n');
+            }
+            guide.append("\n## 关键术语\n\n| 术语 | 通俗解释 |\n| --- | --- |\n");
+            for (int t = 0; t < 4; t++) {
+                guide.append("| **术语").append(random.nextInt(1000)).append("** | ")
+                        .append(pick(sentences, random)).append(" |\n");
+            }
+            guide.append("\n## 分步阅读地图\n");
+            for (int section = 1; section <= 5; section++) {
+                guide.append("\n### 第").append(section).append("部分\n\n- **明确本章目标**: ")
+                        .append(pick(sentences, random)).append("\n- **提炼核心要点**:\n");
+                for (int p = 1; p <= 3; p++) {
+                    guide.append("    ").append(p).append(". ").append(pick(sentences, random)).append('\n');
+                }
+                guide.append("\n```mermaid\ngraph TD\n    A[\"").append(pick(sentences, random))
+                        .append("\"] --> B[\"").append(pick(sentences, random)).append("\"]\n```\n");
+            }
+            guide.append("\n## 启发性思考\n\n");
+            for (int q = 1; q <= 3; q++) {
+                guide.append(q).append(". **").append(pick(sentences, random)).append("**\n");
+            }
+            guides.add(guide.toString());
+        }
+        return guides;
+    }
+
+    private static List<String> textCorpus(Random random) throws IOException {
+        List<String> sentences = promptSentences();
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            StringBuilder text = new StringBuilder();
+            while (text.length() < TEXT_LENGTH) {
+                text.append(pick(sentences, random)).append(random.nextInt(10) == 0 ? "\n" : "");
+            }
+            texts.add(text.toString());
+        }
+        return texts;
+    }
+
+    private static List<String> promptSentences() throws IOException {
+        List<String> sentences = new ArrayList<>();
+        for (String prompt : List.of("prompts/literature-guide-system-prompt.txt",
+                "prompts/literature-classification-system-prompt.txt")) {
+            try (InputStream in = LiteratureContentCompressionBenchmarkTests.class.getClassLoader()
+                    .getResourceAsStream(prompt)) {
+                String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                for (String sentence : content.split("[。！？\\n]")) {
+                    String trimmed = sentence.replaceAll("[#*`>-]", "").trim();
+                    if (trimmed.length() >= 6) {
+                        sentences.add(trimmed + "。");
+                    }
+                }
+            }
+        }
+        return sentences;
+    }
+
+    private static String pick(List<String> sentences, Random random) {
+        return sentences.get(random.nextInt(sentences.size()));
+    }
+
+    private static byte[] raw(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = new byte[utf8.length + 1];
+        encoded[0] = TextCompression.RAW;
+        System.arraycopy(utf8, 0, encoded, 1, utf8.length);
+        return encoded;
+    }
+}
@@ -0,0 +1,133 @@
+package com.yuyuan.literature.mapper;
+
+import com.yuyuan.literature.common.utils.TextCompression;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 内容分表基准：阅读指南保存在 literature 行内 vs 全文和阅读指南移到 literature_content
+ * <p>
+ * 使用文件库并把页缓存限制在 1 MB，大字段与元数据同页时列表翻页会把指南一并读入缓存，
+ * 对比列表单页耗时、文件读取次数和缓存命中率。使用 {@code mvn test -Pbenchmark} 运行，结果输出到控制台。
+ */
+@Tag("benchmark")
+class LiteratureContentSplitBenchmarkTests {
+
+    private static final int[] LIBRARY_SIZES = {2_000, 10_000};
+    private static final int GUIDE_LENGTH = 8_000;
+    private static final int TEXT_LENGTH = 40_000;
+    private static final int PAGE_SIZE = 10;
+    private static final int ROUNDS = 200;
+
+    private static final String LIST_PAGE = """
+            SELECT id, original_name, file_path, file_size, file_type, content_length, tags, description,
+                   reading_guide_summary, status, create_time, update_time
+            FROM literature WHERE deleted = 0 ORDER BY create_time DESC, id DESC LIMIT ? OFFSET ?""";
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void listPageByContentLayout() throws SQLException {
+        System.out.printf("%-8s %-8s %12s %12s %12s%n", "rows", "layout", "page(ms)", "fileReads", "hitRatio");
+        for (int rows : LIBRARY_SIZES) {
+            for (boolean split : new boolean[]{false, true}) {
+                String url = "jdbc:h2:file:" + workDir.resolve((split ? "split_" : "inline_") + rows)
+                        + ";CACHE_SIZE=1024";
+                try (Connection connection = DriverManager.getConnection(url)) {
+                    seed(connection, rows, split);
+                }
+                // 重新打开数据库，从空缓存开始统计
+                try (Connection connection = DriverManager.getConnection(url)) {
+                    long readsBefore = setting(connection, "info.FILE_READ");
+                    double latency = measure(connection, rows);
+                    long reads = setting(connection, "info.FILE_READ") - readsBefore;
+                    long hitRatio = setting(connection, "info.CACHE_HIT_RATIO");
+                    System.out.printf("%-8d %-8s %12.3f %12d %12s%n", rows, split ? "split" : "inline",
+                            latency, reads, hitRatio < 0 ? "-" : hitRatio + "%");
+                }
+            }
+        }
+    }
+
+    private static void seed(Connection connection, int rows, boolean split) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db.sql'");
+        }
+        String guide = "阅读指南内容".repeat(GUIDE_LENGTH / 6 + 1).substring(0, GUIDE_LENGTH);
+        String text = "文献全文内容".repeat(TEXT_LENGTH / 6 + 1).substring(0, TEXT_LENGTH);
+        String summary = guide.substring(0, 200) + "...";
+        byte[] encodedText = TextCompression.encode(text);
+        byte[] encodedGuide = TextCompression.encode(guide);
+        try (PreparedStatement literature = connection.prepareStatement("""
+                INSERT INTO literature (id, original_name, file_path, file_size, file_type, content_length, tags,
+                                        description, reading_guide, reading_guide_summary, status)
+                VALUES (?, ?, ?, 1024, 'pdf', ?, '["基准"]', '基准测试文献', ?, ?, 1)""");
+             PreparedStatement content = connection.prepareStatement("""
+                     INSERT INTO literature_content (literature_id, full_text, reading_guide) VALUES (?, ?, ?)""")) {
+            for (int i = 1; i <= rows; i++) {
+                literature.setLong(1, i);
+                literature.setString(2, "paper-" + i + ".pdf");
+                literature.setString(3, "./uploads/documents/paper-" + i + ".pdf");
+                literature.setInt(4, TEXT_LENGTH);
+                literature.setString(5, split ? null : guide);
+                literature.setString(6, summary);
+                literature.addBatch();
+                if (split) {
+                    content.setLong(1, i);
+                    content.setBytes(2, encodedText);
+                    content.setBytes(3, encodedGuide);
+                    content.addBatch();
+                }
+                if (i % 200 == 0) {
+                    literature.executeBatch();
+                    content.executeBatch();
+                }
+            }
+            literature.executeBatch();
+            content.executeBatch();
+        }
+    }
+
+    /**
+     * 依次翻页读取列表列，返回单页平均耗时
+     */
+    private static double measure(Connection connection, int rows) throws SQLException {
+        int pages = rows / PAGE_SIZE;
+        try (PreparedStatement query = connection.prepareStatement(LIST_PAGE)) {
+            long start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                query.setInt(1, PAGE_SIZE);
+                query.setInt(2, (round * 7 % pages) * PAGE_SIZE);
+                try (ResultSet resultSet = query.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getString("reading_guide_summary");
+                    }
+                }
+            }
+            return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+        }
+    }
+
+    /**
+     * 读取数据库运行指标，当前版本不提供该项时返回 -1
+     */
+    private static long setting(Connection connection, String name) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = ?")) {
+            query.setString(1, name);
+            try (ResultSet resultSet = query.executeQuery()) {
+                return resultSet.next() ? Long.parseLong(resultSet.getString(1)) : -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.yuyuan.literature.mapper;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 列表分页查询基准：读取完整阅读指南 vs 只读取摘要列
+ * <p>
+ * 使用 {@code mvn test -Pbenchmark} 运行，结果输出到控制台。
+ */
+@Tag("benchmark")
+class LiteraturePageBenchmarkTests {
+
+    private static final int[] LIBRARY_SIZES = {500, 2000};
+    private static final int[] GUIDE_LENGTHS = {2_000, 20_000};
+    private static final int PAGE_SIZE = 10;
+    private static final int ROUNDS = 50;
+
+    private static final String LEGACY_PAGE = """
+            SELECT id, original_name, file_path, file_size, file_type, content_length, tags, description,
+                   reading_guide, status, create_time, update_time
+            FROM literature WHERE deleted = 0 ORDER BY create_time DESC LIMIT ? OFFSET ?""";
+    private static final String PROJECTION_PAGE = """
+            SELECT id, original_name, file_path, file_size, file_type, content_length, tags, description,
+                   reading_guide_summary, status, create_time, update_time
+            FROM literature WHERE deleted = 0 ORDER BY create_time DESC LIMIT ? OFFSET ?""";
+
+    @Test
+    void pageLatencyByLibrarySizeAndGuideLength() throws SQLException {
+        System.out.printf("%-8s %-8s %14s %14s%n", "rows", "guide", "legacy(ms)", "summary(ms)");
+        for (int rows : LIBRARY_SIZES) {
+            for (int guideLength : GUIDE_LENGTHS) {
+                try (Connection connection = DriverManager.getConnection(
+                        "jdbc:h2:mem:page_" + rows + "_" + guideLength + ";DB_CLOSE_DELAY=-1")) {
+                    seed(connection, rows, guideLength);
+                    double legacy = measure(connection, LEGACY_PAGE, rows, "reading_guide");
+                    double projection = measure(connection, PROJECTION_PAGE, rows, "reading_guide_summary");
+                    System.out.printf("%-8d %-8d %14.3f %14.3f%n", rows, guideLength, legacy, projection);
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("DROP ALL OBJECTS");
+                    }
+                }
+            }
+        }
+    }
+
+    private static void seed(Connection connection, int rows, int guideLength) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db.sql'");
+        }
+        String guide = "阅读指南内容".repeat(guideLength / 6 + 1).substring(0, guideLength);
+        String summary = guide.substring(0, 200) + "...";
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO literature (original_name, file_path, file_size, file_type, content_length, tags,
+                                        description, reading_guide, reading_guide_summary, status)
+                VALUES (?, ?, 1024, 'pdf', ?, '["基准"]', '基准测试文献', ?, ?, 1)""")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, "paper-" + i + ".pdf");
+                insert.setString(2, "./uploads/documents/paper-" + i + ".pdf");
+                insert.setInt(3, guideLength);
+                insert.setString(4, guide);
+                insert.setString(5, summary);
+                insert.addBatch();
+                if (i % 200 == 199) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * 依次翻页并读取阅读指南列，返回单页平均耗时
+     */
+    private static double measure(Connection connection, String sql, int rows, String guideColumn)
+            throws SQLException {
+        int pages = rows / PAGE_SIZE;
+        // 预热
+        runPages(connection, sql, pages, guideColumn, ROUNDS / 5);
+        long start = System.nanoTime();
+        runPages(connection, sql, pages, guideColumn, ROUNDS);
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+
+    private static void runPages(Connection connection, String sql, int pages, String guideColumn, int rounds)
+            throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            for (int round = 0; round < rounds; round++) {
+                query.setInt(1, PAGE_SIZE);
+                query.setInt(2, (round % pages) * PAGE_SIZE);
+                try (ResultSet resultSet = query.executeQuery()) {
+                    while (resultSet.next()) {
+                        // 与 convertToVO 一样取出阅读指南列内容
+                        resultSet.getString(guideColumn);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.yuyuan.literature.mapper;
+
+import com.yuyuan.literature.dto.LiteratureQueryRequest;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 查询计划回归测试
+ * <p>
+ * 在 10 万条文献的内存库上对 XML 映射中的每条语句执行 EXPLAIN，出现全表扫描即失败。
+ * 新增语句时需要在 {@link #scenarios()} 中补充参数，否则覆盖检查失败。
+ * 无任何过滤条件的统计（总数、标签分面）本身需要读取全部文献，由总数缓存兜底，不在检查范围内；
+ * 全文索引未就绪时的关键词模糊匹配同理。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_plan;DB_CLOSE_DELAY=-1",
+        "literature.llm-cache.enabled=false",
+        "literature.job.poll-interval=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LiteratureQueryPlanTests {
+
+    private static final int ROWS = 100_000;
+
+    /**
+     * 业务表上的全表扫描，元数据表不计
+     */
+    private static final Pattern FULL_SCAN = Pattern.compile("LITERATURE\\w*\"?\\.tableScan",
+            Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO literature (original_name, file_path, file_size, file_type, content_length, tags,
+                                            description, reading_guide_summary, content_hash, status, create_time,
+                                            update_time, deleted)
+                    SELECT CONCAT('paper-', X, '.pdf'), CONCAT('./uploads/documents/', X, '.pdf'), 1024 + MOD(X, 5000),
+                           CASE MOD(X, 5) WHEN 0 THEN 'pdf' WHEN 1 THEN 'docx' WHEN 2 THEN 'doc' WHEN 3 THEN 'md'
+                                          ELSE 'markdown' END,
+                           MOD(X, 50000), NULL, '查询计划测试文献', '摘要', CONCAT('hash-', X),
+                           CASE MOD(X, 10) WHEN 0 THEN 0 WHEN 1 THEN 2 ELSE 1 END,
+                           DATEADD(MINUTE, -5 * X, TIMESTAMP '2025-01-01 00:00:00'),
+                           DATEADD(MINUTE, -5 * X, TIMESTAMP '2025-01-01 00:00:00'),
+                           CASE WHEN MOD(X, 100) = 0 THEN 1 ELSE 0 END
+                    FROM SYSTEM_RANGE(1, %d)""".formatted(ROWS));
+            statement.execute("""
+                    INSERT INTO literature_tag (literature_id, tag)
+                    SELECT id, CONCAT('标签', MOD(id, 50)) FROM literature
+                    UNION ALL
+                    SELECT id, CONCAT('标签', 50 + MOD(id, 7)) FROM literature""");
+            statement.execute("""
+                    INSERT INTO literature_content (literature_id, full_text, reading_guide)
+                    SELECT id, X'00' || STRINGTOUTF8('查询计划测试全文'), X'00' || STRINGTOUTF8('查询计划测试阅读指南')
+                    FROM literature""");
+            statement.execute("""
+                    INSERT INTO literature_job (literature_id, job_type, status, attempts, next_run_time)
+                    SELECT id, 'GUIDE', 2, 1, create_time FROM literature""");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void everyMapperStatementHasScenario() {
+        Set<String> statements = new TreeSet<>();
+        for (MappedStatement statement : xmlStatements()) {
+            statements.add(statement.getId());
+        }
+
+        assertThat(scenarios().keySet()).containsAll(statements);
+    }
+
+    @Test
+    void noStatementFallsBackToFullScan() throws SQLException {
+        Configuration configuration = sqlSessionFactory.getConfiguration();
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, List<Object>> scenario : scenarios().entrySet()) {
+            MappedStatement statement = configuration.getMappedStatement(scenario.getKey());
+            for (Object parameter : scenario.getValue()) {
+                String plan = explain(statement, parameter);
+                if (FULL_SCAN.matcher(plan).find()) {
+                    violations.add(statement.getId() + " " + parameter + "\n" + plan);
+                }
+            }
+        }
+
+        assertThat(violations).isEmpty();
+    }
+
+    /**
+     * 各语句的代表性参数，覆盖每种可走索引的过滤条件
+     */
+    private Map<String, List<Object>> scenarios() {
+        List<LiteratureQueryRequest> filtered = List.of(
+                new LiteratureQueryRequest(),
+                request(r -> r.setStatus(1)),
+                request(r -> r.setFileType("pdf")),
+                request(r -> {
+                    r.setStartDate("2024-10-01");
+                    r.setEndDate("2024-10-31");
+                }),
+                request(r -> r.setTags(List.of("标签1", "标签2"))),
+                request(r -> {
+                    r.setTags(List.of("标签1", "标签51"));
+                    r.setTagMode("AND");
+                }),
+                request(r -> {
+                    r.setStatus(1);
+                    r.setExcludeTags(List.of("标签3"));
+                }));
+        // 统计类语句不含无过滤条件的情形
+        List<LiteratureQueryRequest> counted = filtered.subList(1, filtered.size());
+        List<Long> ids = List.of(11L, 22L, 33L);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        Map<String, List<Object>> scenarios = new LinkedHashMap<>();
+        String literature = LiteratureMapper.class.getName() + ".";
+        scenarios.put(literature + "selectLiteraturePage", filtered.stream()
+                .map(req -> params("req", req, "ids", null))
+                .toList());
+        List<Object> seeks = new ArrayList<>();
+        for (LiteratureQueryRequest req : filtered) {
+            seeks.add(params("req", req, "ids", null, "column", "create_time", "desc", true,
+                    "value", null, "lastId", null, "limit", 11));
+            seeks.add(params("req", req, "ids", null, "column", "create_time", "desc", true,
+                    "value", LocalDateTime.of(2024, 6, 1, 0, 0), "lastId", 60_000L, "limit", 11));
+        }
+        seeks.add(params("req", new LiteratureQueryRequest(), "ids", null, "column", "id", "desc", false,
+                "value", 50_000L, "lastId", 50_000L, "limit", 11));
+        scenarios.put(literature + "selectLiteratureSeek", seeks);
+        scenarios.put(literature + "selectLiteratureCount", counted.stream()
+                .map(req -> params("req", req, "ids", null))
+                .toList());
+        scenarios.put(literature + "selectLiteratureEstimate", List.of(params()));
+        scenarios.put(literature + "selectLiteratureIds", List.of(
+                params("req", new LiteratureQueryRequest(), "ids", ids),
+                params("req", request(r -> r.setStatus(1)), "ids", ids)));
+
+        String content = LiteratureContentMapper.class.getName() + ".";
+        scenarios.put(content + "insertContent", List.of(params("literatureId", ROWS + 1L, "fullText", "全文")));
+        scenarios.put(content + "copyContent", List.of(params("sourceId", 1L, "targetId", ROWS + 2L)));
+        scenarios.put(content + "selectReadingGuide", List.of(params("literatureId", 1L)));
+        scenarios.put(content + "selectFullText", List.of(params("literatureId", 1L)));
+        scenarios.put(content + "selectReadingGuides", List.of(params("ids", ids)));
+        scenarios.put(content + "mergeReadingGuide", List.of(params("literatureId", 1L, "readingGuide", "指南",
+                "promptId", "literature-guide-system-prompt@000000000000")));
+        scenarios.put(content + "mergeFullText", List.of(params("literatureId", 1L, "fullText", "全文")));
+        scenarios.put(content + "appendReadingGuide", List.of(params("literatureId", 1L, "chunk", "内容")));
+
+        String tag = LiteratureTagMapper.class.getName() + ".";
+        scenarios.put(tag + "deleteByLiteratureId", List.of(params("literatureId", 1L)));
+        scenarios.put(tag + "insertTags", List.of(params("literatureId", ROWS + 1L, "tags", List.of("标签1"))));
+        scenarios.put(tag + "selectFacets", counted.stream()
+                .map(req -> params("req", req, "ids", null, "limit", 50))
+                .toList());
+
+        String job = LiteratureJobMapper.class.getName() + ".";
+        scenarios.put(job + "selectClaimableIds", List.of(params("now", now, "limit", 8)));
+        scenarios.put(job + "claim", List.of(params("id", 1L, "owner", "node", "leaseExpire", now, "now", now)));
+        scenarios.put(job + "heartbeat", List.of(params("owner", "node", "ids", ids, "leaseExpire", now,
+                "now", now)));
+        scenarios.put(job + "finish", List.of(params("id", 1L, "owner", "node", "status", 2, "lastError", null,
+                "nextRunTime", null)));
+        scenarios.put(job + "selectOrphanJobs", List.of(params()));
+        return scenarios;
+    }
+
+    private List<MappedStatement> xmlStatements() {
+        // 同一语句会以全名和短名各登记一次
+        Map<MappedStatement, Boolean> distinct = new IdentityHashMap<>();
+        for (Object value : sqlSessionFactory.getConfiguration().getMappedStatements()) {
+            if (value instanceof MappedStatement statement
+                    && statement.getResource() != null && statement.getResource().contains(".xml")) {
+                distinct.put(statement, Boolean.TRUE);
+            }
+        }
+        return new ArrayList<>(distinct.keySet());
+    }
+
+    private String explain(MappedStatement statement, Object parameter) throws SQLException {
+        BoundSql boundSql = statement.getBoundSql(parameter);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(statement, parameter, boundSql).setParameters(explain);
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static LiteratureQueryRequest request(Consumer<LiteratureQueryRequest> customizer) {
+        LiteratureQueryRequest request = new LiteratureQueryRequest();
+        customizer.accept(request);
+        return request;
+    }
+
+    private static MapperMethod.ParamMap<Object> params(Object... keyValues) {
+        MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            params.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
+}
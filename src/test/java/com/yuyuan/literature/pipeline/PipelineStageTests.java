@@ -0,0 +1,169 @@
+package com.yuyuan.literature.pipeline;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 流水线阶段容量与指标测试
+ */
+class PipelineStageTests {
+
+    @Test
+    void inFlightTasksNeverExceedCapacity() {
+        PipelineStage stage = PipelineStage.platform("test", 2, 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try {
+            List<Integer> results = Flux.range(0, 20)
+                    .flatMap(i -> Mono.fromCallable(() -> {
+                        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.sleep(10);
+                        running.decrementAndGet();
+                        return i;
+                    }).subscribeOn(stage.scheduler()))
+                    .collectList()
+                    .block(Duration.ofSeconds(10));
+
+            assertThat(results).hasSize(20);
+            assertThat(peak.get()).isLessThanOrEqualTo(2);
+            // 结果在任务内部发出，计数在任务返回后才更新
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!Long.valueOf(20L).equals(stage.snapshot().get("completed")) && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertThat(stage.snapshot())
+                    .containsEntry("completed", 20L)
+                    .containsEntry("waiting", 0)
+                    .containsEntry("active", 0);
+        } finally {
+            stage.shutdown();
+        }
+    }
+
+    @Test
+    void virtualStageLimitsInFlightTasks() {
+        PipelineStage stage = PipelineStage.virtual("test-llm", 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try {
+            Flux.range(0, 30)
+                    .flatMap(i -> Mono.fromRunnable(() -> {
+                        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(5);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                    }).subscribeOn(stage.scheduler()))
+                    .blockLast(Duration.ofSeconds(10));
+
+            assertThat(peak.get()).isLessThanOrEqualTo(3);
+        } finally {
+            stage.shutdown();
+        }
+    }
+
+    @Test
+    void batchTasksLeaveReservedSlotsToInteractiveTasks() throws Exception {
+        PipelineStage stage = PipelineStage.virtual("test-lanes", 2, new PipelineStage.Sharing(3, 1, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger batchRunning = new AtomicInteger();
+        try {
+            for (int i = 0; i < 3; i++) {
+                stage.execute(Lane.BATCH, () -> {
+                    batchRunning.incrementAndGet();
+                    await(release);
+                });
+            }
+            CountDownLatch interactive = new CountDownLatch(1);
+            stage.execute(Lane.INTERACTIVE, interactive::countDown);
+
+            assertThat(interactive.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(batchRunning).hasValue(1);
+            assertThat(stage.snapshot())
+                    .containsEntry("batchWaiting", 2)
+                    .containsEntry("interactiveStarted", 1L);
+        } finally {
+            release.countDown();
+            stage.shutdown();
+        }
+    }
+
+    @Test
+    void interactiveTasksAreWeightedAheadOfQueuedBatchTasks() throws Exception {
+        PipelineStage stage = PipelineStage.platform("test-order", 1, 0, new PipelineStage.Sharing(3, 1, 0));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(8);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        try {
+            stage.execute(Lane.BATCH, () -> await(release));
+            for (int i = 0; i < 4; i++) {
+                stage.execute(Lane.BATCH, () -> {
+                    order.add("B");
+                    finished.countDown();
+                });
+            }
+            for (int i = 0; i < 4; i++) {
+                stage.execute(Lane.INTERACTIVE, () -> {
+                    order.add("I");
+                    finished.countDown();
+                });
+            }
+            release.countDown();
+
+            assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(order).containsExactly("I", "I", "B", "I", "I", "B", "B", "B");
+        } finally {
+            stage.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsTasksWhenLaneWaitingIsFull() {
+        PipelineStage stage = PipelineStage.platform("test-full", 1, 0, 2, PipelineStage.Sharing.NONE);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            stage.execute(Lane.BATCH, () -> await(release));
+            stage.execute(Lane.BATCH, () -> { });
+            stage.execute(Lane.BATCH, () -> { });
+
+            assertThatThrownBy(() -> stage.execute(Lane.BATCH, () -> { }))
+                    .isInstanceOf(RejectedExecutionException.class);
+            // 其他来源的入口单独计数
+            stage.execute(Lane.INTERACTIVE, () -> { });
+            assertThatThrownBy(() -> Mono.fromCallable(() -> 1)
+                    .subscribeOn(stage.scheduler(Lane.BATCH))
+                    .block(Duration.ofSeconds(5)))
+                    .isInstanceOf(RejectedExecutionException.class);
+            assertThat(stage.snapshot())
+                    .containsEntry("batchWaiting", 2)
+                    .containsEntry("batchRejected", 2L)
+                    .containsEntry("interactiveRejected", 0L);
+        } finally {
+            release.countDown();
+            stage.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.yuyuan.literature.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 全文索引分词与排序测试
+ */
+class LiteratureSearchIndexTests {
+
+    @Test
+    void chineseIsSplitIntoBigramsAndLatinIntoWords() {
+        assertThat(SearchTokenizer.tokenize("深度学习Transformer模型，v2"))
+                .containsExactly("深度", "度学", "学习", "transformer", "模型", "v2");
+        assertThat(SearchTokenizer.tokenize("图 A")).containsExactly("图", "a");
+    }
+
+    @Test
+    void keywordMustMatchAllTermsAndNameOutranksBody() {
+        LiteratureSearchIndex index = new LiteratureSearchIndex(100);
+        index.index(1L, LiteratureSearchIndex.Field.TEXT, "本文讨论人工智能在医学影像中的应用");
+        index.index(2L, LiteratureSearchIndex.Field.NAME, "人工智能综述.pdf");
+        index.index(3L, LiteratureSearchIndex.Field.TEXT, "人工方法与智能系统");
+
+        assertThat(index.search("人工智能").ids()).containsExactly(2L, 1L);
+        assertThat(index.search("量子").ids()).isEmpty();
+    }
+
+    @Test
+    void reindexingFieldReplacesOldTerms() {
+        LiteratureSearchIndex index = new LiteratureSearchIndex(100);
+        index.index(1L, LiteratureSearchIndex.Field.GUIDE, "卷积网络");
+        index.index(1L, LiteratureSearchIndex.Field.GUIDE, "循环网络");
+        index.copy(1L, 2L, LiteratureSearchIndex.Field.GUIDE);
+
+        assertThat(index.search("卷积").ids()).isEmpty();
+        assertThat(index.search("循环网络").ids()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void termsAccumulatedPerChunkMatchTheWholeText() {
+        LiteratureSearchIndex index = new LiteratureSearchIndex(100);
+        LiteratureSearchIndex.Terms terms = new LiteratureSearchIndex.Terms()
+                .add("第一页讨论图神经网络\n")
+                .add("第二页介绍 Transformer 模型\n");
+        index.index(1L, LiteratureSearchIndex.Field.TEXT, terms);
+        index.index(2L, LiteratureSearchIndex.Field.TEXT, terms);
+        index.index(3L, LiteratureSearchIndex.Field.TEXT, "第一页讨论图神经网络\n第二页介绍 Transformer 模型\n");
+
+        assertThat(index.search("神经网络 transformer").ids()).containsExactlyInAnyOrder(1L, 2L, 3L);
+
+        // 多篇文献共用同一份词频，重建其中一篇不影响其他文献
+        index.index(1L, LiteratureSearchIndex.Field.TEXT, "量子计算");
+        assertThat(index.search("神经网络").ids()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("量子").ids()).containsExactly(1L);
+    }
+
+    @Test
+    void hitsBeyondLimitAreReportedAsTruncated() {
+        LiteratureSearchIndex index = new LiteratureSearchIndex(2);
+        index.index(1L, LiteratureSearchIndex.Field.TEXT, "图神经网络");
+        index.index(2L, LiteratureSearchIndex.Field.NAME, "图神经网络.pdf");
+        index.index(3L, LiteratureSearchIndex.Field.DESCRIPTION, "图神经网络");
+        index.index(4L, LiteratureSearchIndex.Field.TEXT, "量子计算");
+
+        LiteratureSearchIndex.Hits hits = index.search("神经网络");
+        assertThat(hits.ids()).hasSize(2).doesNotContain(1L);
+        assertThat(hits.truncated()).isTrue();
+        assertThat(index.search("量子").truncated()).isFalse();
+    }
+}
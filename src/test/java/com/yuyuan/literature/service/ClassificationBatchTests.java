@@ -0,0 +1,62 @@
+package com.yuyuan.literature.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuyuan.literature.dto.ClassificationResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量分类请求内容与响应解析测试
+ */
+class ClassificationBatchTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void numbersReadingGuidesInOrder() {
+        String content = ClassificationBatch.content(List.of("第一篇指南\n", "第二篇指南"));
+
+        assertThat(content).isEqualTo("\n## 文献 1\n\n第一篇指南\n\n## 文献 2\n\n第二篇指南\n");
+        assertThat(ClassificationBatch.prefix(2)).contains("2 篇");
+    }
+
+    @Test
+    void mapsResultsBackById() throws Exception {
+        String response = """
+                ```json
+                [
+                  {"id": 2, "tags": ["自然语言处理"], "desc": "第二篇"},
+                  {"id": 1, "tags": ["计算机视觉", "图像识别"], "desc": "第一篇"}
+                ]
+                ```
+                """;
+
+        Map<Integer, ClassificationResponse> results = ClassificationBatch.parse(objectMapper, response, 2);
+
+        assertThat(results).containsOnlyKeys(1, 2);
+        assertThat(results.get(1).getTags()).containsExactly("计算机视觉", "图像识别");
+        assertThat(results.get(2).getDesc()).isEqualTo("第二篇");
+    }
+
+    @Test
+    void dropsOutOfRangeDuplicateEmptyAndMalformedItems() throws Exception {
+        String response = """
+                {"results": [
+                  {"id": 1, "tags": ["机器学习"], "desc": "保留"},
+                  {"id": 1, "tags": ["重复"], "desc": "丢弃"},
+                  {"id": 5, "tags": ["越界"], "desc": "丢弃"},
+                  {"id": 2, "tags": [], "desc": ""},
+                  {"id": 3, "tags": "不是数组", "desc": "丢弃"}
+                ]}
+                """;
+
+        Map<Integer, ClassificationResponse> results = ClassificationBatch.parse(objectMapper, response, 3);
+
+        assertThat(results).containsOnlyKeys(1);
+        assertThat(results.get(1).getDesc()).isEqualTo("保留");
+    }
+}
@@ -0,0 +1,78 @@
+package com.yuyuan.literature.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 长文本分块测试
+ */
+class DocumentChunkerTests {
+
+    @Test
+    void estimatesCjkAndLatinTextDifferently() {
+        assertThat(DocumentChunker.estimateTokens("文献阅读")).isEqualTo(4);
+        assertThat(DocumentChunker.estimateTokens("abcdefgh")).isEqualTo(2);
+        assertThat(DocumentChunker.estimateTokens("")).isZero();
+    }
+
+    @Test
+    void keepsHeadWithinTokenBudget() {
+        assertThat(DocumentChunker.head("文献阅读指南", 4)).isEqualTo("文献阅读");
+        assertThat(DocumentChunker.head("abcdefgh", 1)).isEqualTo("abcd");
+        assertThat(DocumentChunker.head("文献", 10)).isEqualTo("文献");
+    }
+
+    @Test
+    void recognisesCommonSectionHeadings() {
+        assertThat(List.of("1 Introduction", "2.1 数据集", "III. Methods", "一、研究背景", "第三章 实验",
+                "References", "摘 要", "## 结论")).allMatch(DocumentChunker::isHeading);
+        assertThat(List.of("1. we found that the model converges.", "This is an ordinary line",
+                "2 实验结果表明，该方法优于基线，")).noneMatch(DocumentChunker::isHeading);
+    }
+
+    @Test
+    void breaksAtSectionBoundariesWithinBudget() {
+        String text = section("1 Introduction", 30) + section("2 Methods", 30) + section("3 Results", 30);
+        DocumentChunker chunker = new DocumentChunker(DocumentChunker.estimateTokens(section("1 Introduction", 30)) + 10, 0);
+
+        List<String> chunks = chunker.chunk(text);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks).extracting(chunk -> chunk.lines().findFirst().orElseThrow())
+                .containsExactly("1 Introduction", "2 Methods", "3 Results");
+        assertThat(String.join("", chunks)).isEqualTo(text);
+    }
+
+    @Test
+    void splitsOversizedSectionAndOverlapsNeighbours() {
+        String text = section("1 Introduction", 200);
+        DocumentChunker chunker = new DocumentChunker(300, 40);
+
+        List<String> chunks = chunker.chunk(text);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        for (int i = 1; i < chunks.size(); i++) {
+            String overlap = chunks.get(i).substring(0, 20);
+            assertThat(chunks.get(i - 1)).contains(overlap);
+            assertThat(DocumentChunker.estimateTokens(chunks.get(i))).isLessThanOrEqualTo(300 + 40);
+        }
+    }
+
+    @Test
+    void hardCutsTextWithoutBoundaries() {
+        List<String> chunks = new DocumentChunker(10, 0).chunk("a".repeat(100));
+
+        assertThat(chunks).hasSize(3).allMatch(chunk -> DocumentChunker.estimateTokens(chunk) <= 10);
+    }
+
+    private static String section(String heading, int sentences) {
+        StringBuilder section = new StringBuilder(heading).append('\n');
+        for (int i = 0; i < sentences; i++) {
+            section.append("Sentence ").append(i).append(" of ").append(heading).append(" 的中文说明。\n");
+        }
+        return section.append('\n').toString();
+    }
+}
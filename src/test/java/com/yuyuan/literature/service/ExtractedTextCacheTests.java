@@ -0,0 +1,136 @@
+package com.yuyuan.literature.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 文件解析结果缓存测试
+ */
+class ExtractedTextCacheTests {
+
+    @TempDir
+    Path dir;
+
+    private ExtractedTextCache cache(DataSize memoryMaxSize) {
+        return new ExtractedTextCache(true, memoryMaxSize, dir.toString(), DataSize.ofMegabytes(10));
+    }
+
+    @Test
+    void parsesOnceAndServesFromMemory() {
+        ExtractedTextCache cache = cache(DataSize.ofMegabytes(1));
+        AtomicInteger parses = new AtomicInteger();
+
+        cache.get("hash-pdf-v1", () -> "全文" + parses.incrementAndGet());
+        String second = cache.get("hash-pdf-v1", () -> "全文" + parses.incrementAndGet());
+
+        assertThat(second).isEqualTo("全文1");
+        assertThat(cache.snapshot()).containsEntry("loads", 1L).containsEntry("memoryHits", 1L);
+    }
+
+    @Test
+    void diskTierSurvivesRestart() {
+        cache(DataSize.ofMegabytes(1)).get("hash-pdf-v1", () -> "文献全文内容".repeat(100));
+
+        ExtractedTextCache reopened = cache(DataSize.ofMegabytes(1));
+        String text = reopened.get("hash-pdf-v1", () -> {
+            throw new AssertionError("不应重新解析");
+        });
+
+        assertThat(text).isEqualTo("文献全文内容".repeat(100));
+        assertThat(reopened.snapshot()).containsEntry("diskHits", 1L).containsEntry("loads", 0L);
+    }
+
+    @Test
+    void loadDeletesOnlyInterruptedWrites() throws Exception {
+        Path interrupted = Files.writeString(dir.resolve("hash-pdf-v1123.tmp"), "x");
+        Path unrelated = Files.writeString(dir.resolve("notes.txt"), "keep");
+
+        ExtractedTextCache reopened = cache(DataSize.ofMegabytes(1));
+
+        assertThat(interrupted).doesNotExist();
+        assertThat(unrelated).hasContent("keep");
+        assertThat(reopened.snapshot()).containsEntry("diskEntries", 0);
+    }
+
+    @Test
+    void concurrentRequestsShareOneParse() throws Exception {
+        ExtractedTextCache cache = cache(DataSize.ofMegabytes(1));
+        AtomicInteger parses = new AtomicInteger();
+        CountDownLatch parsing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("k", () -> {
+                parses.incrementAndGet();
+                parsing.countDown();
+                await(release);
+                return "全文";
+            })));
+            parsing.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get("k", () -> "全文" + parses.incrementAndGet())));
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("全文");
+            }
+            assertThat(parses).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesLeaveMemory() {
+        // 每条 400 字符约 800 字节，内存层只容得下两条
+        ExtractedTextCache cache = cache(DataSize.ofBytes(2000));
+        cache.get("a", () -> "a".repeat(400));
+        cache.get("b", () -> "b".repeat(400));
+        cache.get("a", () -> "a".repeat(400));
+        cache.get("c", () -> "c".repeat(400));
+
+        cache.get("b", () -> "b".repeat(400));
+
+        assertThat(cache.snapshot())
+                .containsEntry("memoryEvictions", 2L)
+                .containsEntry("diskHits", 1L)
+                .containsEntry("loads", 3L);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        ExtractedTextCache cache = cache(DataSize.ofMegabytes(1));
+
+        assertThatThrownBy(() -> cache.get("k", () -> {
+            throw new IllegalStateException("解析失败");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("k", () -> "全文")).isEqualTo("全文");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.common.exception.BusinessException;
+import com.yuyuan.literature.pipeline.ImportMetrics;
+import com.yuyuan.literature.pipeline.ImportPipeline;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文件内容流式解析测试
+ */
+class FileContentStreamTests {
+
+    @TempDir
+    Path dir;
+
+    private final ImportPipeline importPipeline = new ImportPipeline(1, 2, 1, 1, 8, 64, 3, 1, 1);
+    private final PdfTextExtractor pdfTextExtractor = new PdfTextExtractor(2, Integer.MAX_VALUE, 16,
+            PdfTextExtractor.MemoryMode.MIXED, DataSize.ofMegabytes(16), "");
+    private final FileProcessingService service = new FileProcessingService(
+            new ExtractedTextCache(false, DataSize.ofMegabytes(1), "", DataSize.ofMegabytes(1)),
+            pdfTextExtractor, new ImportMetrics(), importPipeline);
+
+    @AfterEach
+    void shutdown() {
+        importPipeline.shutdown();
+        pdfTextExtractor.shutdown();
+    }
+
+    @Test
+    void pdfIsStreamedPageByPageInOrder() throws IOException {
+        Path pdf = dir.resolve("paper.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= 3; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(50, 700);
+                    content.showText("Page " + page);
+                    content.endText();
+                }
+            }
+            document.save(pdf.toFile());
+        }
+
+        List<TextChunk> chunks = service.streamFileContent(pdf.toString()).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(chunks).extracting(TextChunk::unit).containsOnly(TextChunk.Unit.PAGE);
+        assertThat(chunks).extracting(chunk -> chunk.text().trim()).containsExactly("Page 1", "Page 2", "Page 3");
+    }
+
+    @Test
+    void docxIsStreamedByParagraph() throws IOException {
+        Path docx = dir.resolve("paper.docx");
+        try (XWPFDocument document = new XWPFDocument(); FileOutputStream out = new FileOutputStream(docx.toFile())) {
+            document.createParagraph().createRun().setText("引言");
+            document.createParagraph().createRun().setText("方法");
+            document.write(out);
+        }
+
+        List<TextChunk> chunks = service.streamFileContent(docx.toString()).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(chunks).extracting(TextChunk::index).containsExactly(0, 1);
+        assertThat(chunks).extracting(TextChunk::text).containsExactly("引言\n", "方法\n");
+    }
+
+    @Test
+    void markdownIsStreamedByTopLevelBlockAndCanBeCancelled() throws IOException {
+        Path markdown = dir.resolve("notes.md");
+        Files.writeString(markdown, "# 标题\n\n第一段内容。\n\n- 列表项\n");
+
+        List<TextChunk> first = service.streamFileContent(markdown.toString()).take(2).collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(first).extracting(TextChunk::unit).containsOnly(TextChunk.Unit.BLOCK);
+        assertThat(first).extracting(chunk -> chunk.text().trim()).containsExactly("标题", "第一段内容。");
+    }
+
+    @Test
+    void missingFileFailsWithBusinessException() {
+        assertThat(service.streamFileContent(dir.resolve("missing.pdf").toString())
+                .materialize().blockFirst(Duration.ofSeconds(10)).getThrowable())
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.yuyuan.literature.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 阅读指南事件流回放测试
+ */
+class GuideStreamTests {
+
+    @Test
+    void reattachReplaysTokensAfterLastEventId() {
+        GuideStream stream = new GuideStream(1L, 10);
+        List.of("# ", "核心", "摘要").forEach(stream::publish);
+        stream.complete("# 核心摘要");
+
+        List<ServerSentEvent<String>> events = stream.attach(1).collectList().block(Duration.ofSeconds(1));
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("content", "content", "complete");
+        assertThat(events).extracting(ServerSentEvent::id).containsExactly("2", "3", null);
+        assertThat(events.get(0).data()).isEqualTo("核心");
+    }
+
+    @Test
+    void tokensOutsideReplayWindowAreSentAsSnapshot() {
+        GuideStream stream = new GuideStream(1L, 2);
+        List.of("a", "b", "c", "d").forEach(stream::publish);
+
+        List<ServerSentEvent<String>> events = stream.attach(0).take(3).collectList().block(Duration.ofSeconds(1));
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("snapshot", "content", "content");
+        assertThat(events.get(0).id()).isEqualTo("2");
+        assertThat(events.get(0).data()).isEqualTo("ab");
+        assertThat(events).extracting(ServerSentEvent::data).endsWith("c", "d");
+    }
+
+    @Test
+    void liveSubscribersReceiveNewTokensAndTerminalEvent() {
+        GuideStream stream = new GuideStream(1L, 10);
+        stream.publish("a");
+
+        List<ServerSentEvent<String>> received = new CopyOnWriteArrayList<>();
+        stream.attach(0).subscribe(received::add);
+        stream.publish("b");
+        stream.fail(new IllegalStateException("超时"));
+
+        assertThat(received).extracting(ServerSentEvent::event).containsExactly("content", "content", "error");
+        assertThat(stream.result().onErrorReturn("failed").block(Duration.ofSeconds(1))).isEqualTo("failed");
+    }
+}
@@ -0,0 +1,70 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.dto.LiteratureQueryRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 列表总数缓存测试
+ */
+class LiteratureCountCacheTests {
+
+    private final LiteratureCountCache cache = new LiteratureCountCache(true, 100, Duration.ofMinutes(5));
+
+    @Test
+    void keyIgnoresPagingSortingAndTagOrder() {
+        LiteratureQueryRequest first = request(List.of("综述", "机器学习"));
+        first.setPageNum(1);
+        first.setSortField("createTime");
+        LiteratureQueryRequest second = request(List.of("机器学习", "综述"));
+        second.setPageNum(7);
+        second.setSortField("fileSize");
+
+        assertThat(LiteratureCountCache.Key.of(first, true)).isEqualTo(LiteratureCountCache.Key.of(second, true));
+        assertThat(LiteratureCountCache.Key.of(first, true)).isNotEqualTo(LiteratureCountCache.Key.of(first, false));
+        assertThat(LiteratureCountCache.Key.of(new LiteratureQueryRequest(), false).isUnfiltered()).isTrue();
+    }
+
+    @Test
+    void countsOncePerGeneration() {
+        LiteratureCountCache.Key key = LiteratureCountCache.Key.of(request(List.of("综述")), false);
+        AtomicInteger queries = new AtomicInteger();
+
+        assertThat(cache.exact(key, () -> queries.incrementAndGet() * 10L)).isEqualTo(10L);
+        assertThat(cache.exact(key, () -> queries.incrementAndGet() * 10L)).isEqualTo(10L);
+        assertThat(queries).hasValue(1);
+
+        cache.invalidate();
+
+        assertThat(cache.exact(key, () -> queries.incrementAndGet() * 10L)).isEqualTo(20L);
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void approximateServesStaleEntryAndEstimatesUnfilteredListing() {
+        LiteratureCountCache.Key filtered = LiteratureCountCache.Key.of(request(List.of("综述")), false);
+        cache.exact(filtered, () -> 5L);
+        cache.invalidate();
+
+        assertThat(cache.approximate(filtered, () -> 6L, Optional::empty))
+                .isEqualTo(new LiteratureCountCache.Count(5L, false));
+
+        LiteratureCountCache.Key unfiltered = LiteratureCountCache.Key.of(new LiteratureQueryRequest(), false);
+        assertThat(cache.approximate(unfiltered, () -> 1000L, () -> Optional.of(990L)))
+                .isEqualTo(new LiteratureCountCache.Count(990L, false));
+        assertThat(cache.approximate(unfiltered, () -> 1000L, Optional::empty))
+                .isEqualTo(new LiteratureCountCache.Count(1000L, true));
+    }
+
+    private static LiteratureQueryRequest request(List<String> tags) {
+        LiteratureQueryRequest request = new LiteratureQueryRequest();
+        request.setTags(tags);
+        return request;
+    }
+}
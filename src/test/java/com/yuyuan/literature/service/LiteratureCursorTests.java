@@ -0,0 +1,54 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 分页游标编解码测试
+ */
+class LiteratureCursorTests {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        LiteratureCursor cursor = new LiteratureCursor(LiteratureCursor.SortKey.ORIGINAL_NAME, false,
+                "论文|第二版.pdf", 42L);
+
+        LiteratureCursor decoded = LiteratureCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.sortKey().parse(decoded.value())).isEqualTo("论文|第二版.pdf");
+    }
+
+    @Test
+    void parsesValueByColumnType() {
+        LiteratureCursor cursor = new LiteratureCursor(LiteratureCursor.SortKey.CREATE_TIME, true,
+                "2024-05-01T10:15:30", 7L);
+
+        LiteratureCursor decoded = LiteratureCursor.decode(cursor.encode());
+
+        assertThat(decoded.sortKey().parse(decoded.value())).isEqualTo(LocalDateTime.of(2024, 5, 1, 10, 15, 30));
+        assertThat(LiteratureCursor.SortKey.FILE_SIZE.parse("1024")).isEqualTo(1024L);
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        String broken = new LiteratureCursor(LiteratureCursor.SortKey.FILE_SIZE, true, "abc", 1L).encode();
+
+        assertThatThrownBy(() -> LiteratureCursor.decode(broken)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> LiteratureCursor.decode("not-a-cursor")).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void resolvesSortFieldInEitherCase() {
+        assertThat(LiteratureCursor.SortKey.fromSortField("createTime")).isEqualTo(LiteratureCursor.SortKey.CREATE_TIME);
+        assertThat(LiteratureCursor.SortKey.fromSortField("file_size")).isEqualTo(LiteratureCursor.SortKey.FILE_SIZE);
+        assertThat(LiteratureCursor.SortKey.fromSortField(null)).isEqualTo(LiteratureCursor.SortKey.CREATE_TIME);
+        assertThatThrownBy(() -> LiteratureCursor.SortKey.fromSortField("tags"))
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,116 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.controller.LiteratureController;
+import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.mapper.LiteratureMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 按内容哈希去重导入测试
+ * <p>
+ * 先按正常流程保存并完成一篇文献，再以另一个文件名上传相同内容，应复用已有文件和结果且不调用大模型。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:deduplication;DB_CLOSE_DELAY=-1",
+        "literature.llm-cache.enabled=false",
+        "literature.job.poll-interval=3600000",
+        "literature.file.upload-path=target/deduplication-uploads"
+})
+class LiteratureDeduplicationTests {
+
+    private static final Path UPLOADS = Path.of("target/deduplication-uploads");
+
+    private static final byte[] CONTENT = "# 深度学习综述\n\n本文回顾了卷积神经网络的发展。\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final String READING_GUIDE = "## 阅读指南\n\n先读第二节的模型结构，再看实验部分。";
+
+    @Autowired
+    private FileProcessingService fileProcessingService;
+
+    @Autowired
+    private LiteratureService literatureService;
+
+    @Autowired
+    private LiteratureContentService literatureContentService;
+
+    @Autowired
+    private LiteratureController literatureController;
+
+    @Autowired
+    private LiteratureMapper literatureMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private LlmGateway llmGateway;
+
+    @BeforeEach
+    void clean() throws IOException {
+        FileSystemUtils.deleteRecursively(UPLOADS);
+        jdbcTemplate.execute("DELETE FROM literature_tag");
+        jdbcTemplate.execute("DELETE FROM literature_content");
+        jdbcTemplate.execute("DELETE FROM literature");
+    }
+
+    @Test
+    void reimportingSameContentReusesFileAndResults() throws IOException {
+        MockMultipartFile original = new MockMultipartFile("file", "original.md", "text/markdown", CONTENT);
+        StoredFile storedFile = fileProcessingService.saveFile(original);
+        Long sourceId = literatureService.createLiterature(original, storedFile, new String(CONTENT, StandardCharsets.UTF_8));
+        literatureService.completeReadingGuide(sourceId, READING_GUIDE);
+        literatureService.updateClassification(sourceId, List.of("深度学习", "综述"), "卷积神经网络发展综述");
+
+        MockMultipartFile duplicate = new MockMultipartFile("file", "renamed.md", "text/markdown", CONTENT);
+        List<ServerSentEvent<String>> events = literatureController.generateReadingGuide(duplicate)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(events).extracting(ServerSentEvent::event).contains("created", "complete").doesNotContain("error");
+        assertThat(events).filteredOn(event -> "content".equals(event.event()))
+                .extracting(ServerSentEvent::data)
+                .containsExactly(READING_GUIDE);
+
+        try (Stream<Path> files = Files.list(UPLOADS)) {
+            assertThat(files).singleElement()
+                    .satisfies(file -> assertThat(file.toString()).isEqualTo(storedFile.path()));
+        }
+
+        List<Literature> literatures = literatureMapper.selectList(null);
+        assertThat(literatures).hasSize(2);
+        Literature copy = literatures.stream().filter(l -> !l.getId().equals(sourceId)).findFirst().orElseThrow();
+        assertThat(copy.getOriginalName()).isEqualTo("renamed.md");
+        assertThat(copy.getContentHash()).isEqualTo(storedFile.contentHash());
+        assertThat(copy.getFilePath()).isEqualTo(storedFile.path());
+        assertThat(copy.getStatus()).isEqualTo(Literature.Status.COMPLETED.getCode());
+        assertThat(copy.getTags()).containsExactly("深度学习", "综述");
+        assertThat(copy.getDescription()).isEqualTo("卷积神经网络发展综述");
+        assertThat(literatureContentService.getReadingGuide(copy.getId())).isEqualTo(READING_GUIDE);
+        assertThat(jdbcTemplate.queryForList("SELECT tag FROM literature_tag WHERE literature_id = ?",
+                String.class, copy.getId())).containsExactlyInAnyOrder("深度学习", "综述");
+
+        verify(llmGateway, never()).acquire(any(), anyInt());
+    }
+}
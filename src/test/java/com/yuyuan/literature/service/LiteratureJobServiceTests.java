@@ -0,0 +1,220 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.entity.LiteratureJob;
+import com.yuyuan.literature.mapper.LiteratureJobMapper;
+import com.yuyuan.literature.mapper.LiteratureMapper;
+import com.yuyuan.literature.pipeline.Lane;
+import com.yuyuan.literature.service.impl.LiteratureJobServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 任务租约测试
+ * <p>
+ * 在内存库上模拟两个节点共用同一张任务表：两个服务实例共享映射器，只有节点ID和租约时长不同。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:literature_job;DB_CLOSE_DELAY=-1",
+        "literature.llm-cache.enabled=false",
+        "literature.job.poll-interval=3600000"
+})
+class LiteratureJobServiceTests {
+
+    @Autowired
+    private LiteratureJobMapper literatureJobMapper;
+
+    @Autowired
+    private LiteratureMapper literatureMapper;
+
+    @Autowired
+    private LiteratureCountCache literatureCountCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.execute("DELETE FROM literature_job");
+        jdbcTemplate.execute("DELETE FROM literature");
+    }
+
+    @Test
+    void concurrentClaimsNeverShareAJob() throws Exception {
+        LiteratureJobServiceImpl first = node(Duration.ofMinutes(1), 3);
+        LiteratureJobServiceImpl second = node(Duration.ofMinutes(1), 3);
+        for (long i = 1; i <= 50; i++) {
+            first.enqueue(i, LiteratureJob.Type.GUIDE, Lane.BATCH);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<List<LiteratureJob>> firstClaim = CompletableFuture.supplyAsync(() -> claim(first, start));
+        CompletableFuture<List<LiteratureJob>> secondClaim = CompletableFuture.supplyAsync(() -> claim(second, start));
+        start.countDown();
+
+        Set<Long> firstIds = ids(firstClaim.get());
+        Set<Long> secondIds = ids(secondClaim.get());
+        assertThat(firstIds).doesNotContainAnyElementsOf(secondIds);
+        assertThat(firstIds.size() + secondIds.size()).isEqualTo(50);
+        assertThat(owners()).containsOnlyKeys(first.getNodeId(), second.getNodeId());
+        assertThat(first.claim(50)).isEmpty();
+        assertThat(second.claim(50)).isEmpty();
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedByAnotherNode() throws Exception {
+        LiteratureJobServiceImpl first = node(Duration.ofMillis(300), 3);
+        LiteratureJobServiceImpl second = node(Duration.ofMinutes(1), 3);
+        Long jobId = first.enqueue(1L, LiteratureJob.Type.GUIDE, Lane.BATCH);
+
+        assertThat(ids(first.claim(1))).containsExactly(jobId);
+        assertThat(second.claim(1)).isEmpty();
+
+        Thread.sleep(500);
+        List<LiteratureJob> reclaimed = second.claim(1);
+        assertThat(ids(reclaimed)).containsExactly(jobId);
+        assertThat(reclaimed.get(0).getAttempts()).isEqualTo(2);
+        assertThat(reclaimed.get(0).getLeaseOwner()).isEqualTo(second.getNodeId());
+
+        // 原节点租约已失效，迟到的完成不能覆盖新节点的执行
+        first.complete(jobId);
+        assertThat(literatureJobMapper.selectById(jobId).getStatus()).isEqualTo(LiteratureJob.Status.RUNNING.getCode());
+        second.complete(jobId);
+        assertThat(literatureJobMapper.selectById(jobId).getStatus()).isEqualTo(LiteratureJob.Status.DONE.getCode());
+    }
+
+    @Test
+    void claimedJobsKeepTheCallersLane() {
+        LiteratureJobServiceImpl node = node(Duration.ofMinutes(1), 3);
+        Long interactive = node.enqueue(1L, LiteratureJob.Type.CLASSIFY, Lane.INTERACTIVE);
+        Long batch = node.enqueue(2L, LiteratureJob.Type.CLASSIFY, Lane.BATCH);
+
+        assertThat(node.claim(2))
+                .extracting(LiteratureJob::getId, LiteratureJob::getLane)
+                .containsExactlyInAnyOrder(tuple(interactive, Lane.INTERACTIVE.name()), tuple(batch, Lane.BATCH.name()));
+    }
+
+    @Test
+    void heartbeatKeepsLeaseAlive() throws Exception {
+        LiteratureJobServiceImpl first = node(Duration.ofMillis(600), 3);
+        LiteratureJobServiceImpl second = node(Duration.ofMinutes(1), 3);
+        Long jobId = first.enqueue(1L, LiteratureJob.Type.GUIDE, Lane.BATCH);
+        first.claim(1);
+
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(300);
+            first.heartbeat();
+        }
+
+        assertThat(second.claim(1)).isEmpty();
+        assertThat(literatureJobMapper.selectById(jobId).getLeaseOwner()).isEqualTo(first.getNodeId());
+    }
+
+    @Test
+    void failureBacksOffThenMarksLiteratureFailed() {
+        LiteratureJobServiceImpl node = node(Duration.ofMinutes(1), 2);
+        Long literatureId = insertLiterature(null);
+        Long jobId = node.enqueue(literatureId, LiteratureJob.Type.GUIDE, Lane.BATCH);
+
+        node.claim(1);
+        LocalDateTime failedAt = LocalDateTime.now();
+        node.fail(jobId, new IllegalStateException("第一次失败"));
+        LiteratureJob retry = literatureJobMapper.selectById(jobId);
+        assertThat(retry.getStatus()).isEqualTo(LiteratureJob.Status.PENDING.getCode());
+        assertThat(retry.getLastError()).isEqualTo("第一次失败");
+        assertThat(retry.getNextRunTime()).isAfterOrEqualTo(failedAt.plusSeconds(30));
+        assertThat(node.claim(1)).isEmpty();
+
+        jdbcTemplate.update("UPDATE literature_job SET next_run_time = ? WHERE id = ?",
+                LocalDateTime.now().minusSeconds(1), jobId);
+        assertThat(ids(node.claim(1))).containsExactly(jobId);
+        node.fail(jobId, new IllegalStateException("第二次失败"));
+
+        assertThat(literatureJobMapper.selectById(jobId).getStatus()).isEqualTo(LiteratureJob.Status.FAILED.getCode());
+        assertThat(literatureMapper.selectById(literatureId).getStatus()).isEqualTo(Literature.Status.FAILED.getCode());
+    }
+
+    @Test
+    void resumeOrphansOnlyClassifiesWhenGuideIsComplete() {
+        LiteratureJobServiceImpl node = node(Duration.ofMinutes(1), 3);
+        Long guided = insertLiterature("已生成的阅读指南摘要");
+        Long unguided = insertLiterature(null);
+        Long pending = insertLiterature(null);
+        node.enqueue(pending, LiteratureJob.Type.GUIDE, Lane.BATCH);
+
+        assertThat(node.resumeOrphans()).isEqualTo(2);
+
+        Map<Long, String> types = jdbcTemplate.queryForList("SELECT literature_id, job_type FROM literature_job")
+                .stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("LITERATURE_ID")).longValue(),
+                        row -> (String) row.get("JOB_TYPE")));
+        assertThat(types).containsOnly(
+                Map.entry(guided, LiteratureJob.Type.CLASSIFY.name()),
+                Map.entry(unguided, LiteratureJob.Type.GUIDE.name()),
+                Map.entry(pending, LiteratureJob.Type.GUIDE.name()));
+        assertThat(node.resumeOrphans()).isZero();
+    }
+
+    /**
+     * 与容器中的服务共用映射器的另一个节点
+     */
+    private LiteratureJobServiceImpl node(Duration leaseDuration, int maxAttempts) {
+        LiteratureJobServiceImpl node = new LiteratureJobServiceImpl(literatureMapper, literatureCountCache,
+                leaseDuration, Duration.ofSeconds(30), maxAttempts);
+        ReflectionTestUtils.setField(node, "baseMapper", literatureJobMapper);
+        return node;
+    }
+
+    private List<LiteratureJob> claim(LiteratureJobService node, CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 每次只领少量，让两个节点反复争抢同一批候选任务，直到没有待领取的任务
+        List<LiteratureJob> claimed = new ArrayList<>();
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM literature_job WHERE status = 0", Integer.class) > 0) {
+            claimed.addAll(node.claim(5));
+        }
+        return claimed;
+    }
+
+    private static Set<Long> ids(List<LiteratureJob> jobs) {
+        return jobs.stream().map(LiteratureJob::getId).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private Map<String, Long> owners() {
+        return jdbcTemplate.queryForList("SELECT lease_owner FROM literature_job", String.class).stream()
+                .collect(Collectors.groupingBy(owner -> owner, Collectors.counting()));
+    }
+
+    private Long insertLiterature(String readingGuideSummary) {
+        Literature literature = new Literature();
+        literature.setOriginalName("paper.pdf");
+        literature.setFilePath("./uploads/documents/paper.pdf");
+        literature.setFileSize(1024L);
+        literature.setFileType("pdf");
+        literature.setReadingGuideSummary(readingGuideSummary);
+        literature.setStatus(Literature.Status.PROCESSING.getCode());
+        literatureMapper.insert(literature);
+        return literature.getId();
+    }
+}
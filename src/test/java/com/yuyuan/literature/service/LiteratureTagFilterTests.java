@@ -0,0 +1,148 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.controller.LiteratureController;
+import com.yuyuan.literature.dto.LiteratureQueryRequest;
+import com.yuyuan.literature.dto.LiteratureVO;
+import com.yuyuan.literature.dto.TagFacetVO;
+import com.yuyuan.literature.entity.Literature;
+import com.yuyuan.literature.mapper.LiteratureMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 标签过滤、分面统计与启动补写测试
+ * <p>
+ * 四篇文献的标签分别为「机器学习、综述」「机器学习、图像」「综述」和无标签。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:literature_tag;DB_CLOSE_DELAY=-1",
+        "literature.llm-cache.enabled=false",
+        "literature.job.poll-interval=3600000"
+})
+class LiteratureTagFilterTests {
+
+    @Autowired
+    private LiteratureService literatureService;
+
+    @Autowired
+    private LiteratureTagService literatureTagService;
+
+    @Autowired
+    private LiteratureController literatureController;
+
+    @Autowired
+    private LiteratureMapper literatureMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long survey;
+    private Long vision;
+    private Long review;
+    private Long untagged;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("DELETE FROM literature_tag");
+        jdbcTemplate.execute("DELETE FROM literature");
+        survey = insertLiterature(List.of("机器学习", "综述"));
+        vision = insertLiterature(List.of("机器学习", "图像"));
+        review = insertLiterature(List.of("综述"));
+        untagged = insertLiterature(null);
+    }
+
+    @Test
+    void anyTagMatchesByDefault() {
+        LiteratureQueryRequest request = new LiteratureQueryRequest();
+        request.setTags(List.of("机器学习", "综述"));
+
+        assertThat(ids(request)).containsExactlyInAnyOrder(survey, vision, review);
+    }
+
+    @Test
+    void andModeRequiresEveryTag() {
+        LiteratureQueryRequest request = new LiteratureQueryRequest();
+        request.setTags(List.of("机器学习", "综述", " 综述 "));
+        request.setTagMode("AND");
+
+        // 重复标签去重后再计数，否则 HAVING COUNT(*) 永远无法满足
+        assertThat(ids(request)).containsExactly(survey);
+    }
+
+    @Test
+    void excludedTagsRemoveMatches() {
+        LiteratureQueryRequest request = new LiteratureQueryRequest();
+        request.setExcludeTags(List.of("综述"));
+
+        assertThat(ids(request)).containsExactlyInAnyOrder(vision, untagged);
+
+        request.setTags(List.of("机器学习"));
+        request.setExcludeTags(List.of("图像"));
+        assertThat(ids(request)).containsExactly(survey);
+    }
+
+    @Test
+    void facetsCountMatchingLiteratures() {
+        LiteratureQueryRequest all = new LiteratureQueryRequest();
+        assertThat(facets(all, 50))
+                .extracting(TagFacetVO::getTag, TagFacetVO::getCount)
+                .containsExactly(tuple("机器学习", 2L), tuple("综述", 2L), tuple("图像", 1L));
+        assertThat(facets(all, 1)).extracting(TagFacetVO::getTag).containsExactly("机器学习");
+
+        LiteratureQueryRequest filtered = new LiteratureQueryRequest();
+        filtered.setTags(List.of("机器学习"));
+        filtered.setExcludeTags(List.of("图像"));
+        assertThat(facets(filtered, 50))
+                .extracting(TagFacetVO::getTag, TagFacetVO::getCount)
+                .containsExactly(tuple("机器学习", 1L), tuple("综述", 1L));
+    }
+
+    @Test
+    void startupBackfillsTagsClassifiedBeforeTheTagTable() {
+        jdbcTemplate.update("DELETE FROM literature_tag WHERE literature_id = ?", review);
+        jdbcTemplate.update("UPDATE literature SET tags = ? WHERE id = ?", "[\" 旧标签 \", \"综述\", \"\"]", untagged);
+
+        literatureTagService.run(null);
+
+        assertThat(tagsOf(review)).containsExactly("综述");
+        assertThat(tagsOf(untagged)).containsExactlyInAnyOrder("旧标签", "综述");
+        assertThat(tagsOf(survey)).containsExactlyInAnyOrder("机器学习", "综述");
+    }
+
+    private List<Long> ids(LiteratureQueryRequest request) {
+        return literatureService.pageLiteratures(request).getRecords().stream()
+                .map(LiteratureVO::getId)
+                .toList();
+    }
+
+    private List<TagFacetVO> facets(LiteratureQueryRequest request, int limit) {
+        return literatureController.tagFacets(request, limit).getData();
+    }
+
+    private List<String> tagsOf(Long literatureId) {
+        return jdbcTemplate.queryForList("SELECT tag FROM literature_tag WHERE literature_id = ?",
+                String.class, literatureId);
+    }
+
+    private Long insertLiterature(List<String> tags) {
+        Literature literature = new Literature();
+        literature.setOriginalName("paper.pdf");
+        literature.setFilePath("./uploads/documents/paper.pdf");
+        literature.setFileSize(1024L);
+        literature.setFileType("pdf");
+        literature.setStatus(Literature.Status.PROCESSING.getCode());
+        literatureMapper.insert(literature);
+        if (tags != null) {
+            literatureService.updateClassification(literature.getId(), tags, "标签测试文献");
+        }
+        return literature.getId();
+    }
+}
@@ -0,0 +1,27 @@
+package com.yuyuan.literature.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 标签规范化测试
+ */
+class LiteratureTagServiceTests {
+
+    @Test
+    void normalizeTrimsAndDeduplicatesInOrder() {
+        assertThat(LiteratureTagService.normalize(Arrays.asList(" 机器学习", "综述", null, "  ", "机器学习 ")))
+                .containsExactly("机器学习", "综述");
+        assertThat(LiteratureTagService.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void normalizeTruncatesOverlongTags() {
+        assertThat(LiteratureTagService.normalize(Arrays.asList("标".repeat(150))))
+                .singleElement()
+                .satisfies(tag -> assertThat(tag).hasSize(100));
+    }
+}
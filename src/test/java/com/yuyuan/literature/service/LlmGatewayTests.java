@@ -0,0 +1,250 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.pipeline.Lane;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.NonTransientAiException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 大模型调用网关测试
+ */
+class LlmGatewayTests {
+
+    private final List<LlmGateway> gateways = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        gateways.forEach(LlmGateway::shutdown);
+    }
+
+    private LlmGateway gateway(int min, int max, int initial, long requestsPerMinute, long tokensPerMinute) {
+        return gateway(min, max, initial, requestsPerMinute, tokensPerMinute, 0);
+    }
+
+    private LlmGateway gateway(int min, int max, int initial, long requestsPerMinute, long tokensPerMinute,
+                               int interactiveReserve) {
+        LlmGateway gateway = new LlmGateway(min, max, initial, requestsPerMinute, tokensPerMinute,
+                Duration.ofSeconds(60), 3, 1, interactiveReserve);
+        gateways.add(gateway);
+        return gateway;
+    }
+
+    @Test
+    void concurrentCallsNeverExceedTheLimit() throws Exception {
+        LlmGateway gateway = gateway(2, 2, 2, 0, 0);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> gateway.call(Lane.BATCH, 100, () -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(30);
+                    running.decrementAndGet();
+                    return "ok";
+                })));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+            }
+        }
+        assertThat(peak).hasValue(2);
+    }
+
+    @Test
+    void rateLimitHalvesAndSuccessGrowsTheLimit() {
+        LlmGateway gateway = gateway(1, 8, 8, 0, 0);
+
+        assertThatThrownBy(() -> gateway.call(Lane.BATCH, 100, () -> {
+            throw new NonTransientAiException("429 - {\"error\":\"Rate limit reached for requests\"}");
+        })).isInstanceOf(NonTransientAiException.class);
+        assertThat(gateway.snapshot()).containsEntry("limit", 4.0).containsEntry("rateLimited", 1L);
+
+        for (int i = 0; i < 4; i++) {
+            gateway.call(Lane.BATCH, 100, () -> "ok");
+        }
+        assertThat((double) gateway.snapshot().get("limit")).isGreaterThan(4.5).isLessThan(5.0);
+    }
+
+    @Test
+    void onlyALeading429StatusCountsAsRateLimited() {
+        assertThat(LlmGateway.isRateLimited(new RuntimeException("调用失败",
+                new NonTransientAiException("429 - Too Many Requests")))).isTrue();
+        assertThat(LlmGateway.isRateLimited(new NonTransientAiException("400 - 输入超过 4290 tokens"))).isFalse();
+        assertThat(LlmGateway.isRateLimited(new NonTransientAiException("4290 - unknown"))).isFalse();
+        assertThat(LlmGateway.isRateLimited(new IllegalStateException("429 - Too Many Requests"))).isFalse();
+        assertThat(LlmGateway.isRateLimited(new IllegalStateException("connect to 10.0.0.1:4290 failed"))).isFalse();
+    }
+
+    @Test
+    void ordinaryFailuresDoNotShrinkTheLimit() {
+        LlmGateway gateway = gateway(1, 8, 4, 0, 0);
+
+        assertThatThrownBy(() -> gateway.call(Lane.BATCH, 100, () -> {
+            throw new IllegalArgumentException("bad request");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(gateway.snapshot()).containsEntry("limit", 4.0).containsEntry("failures", 1L);
+    }
+
+    @Test
+    void requestBucketDelaysCallsBeyondTheMinuteBudget() {
+        // 每分钟 120 次，桶满时可立即放行 120 次，第 121 次需等待约 0.5 秒补充
+        LlmGateway gateway = gateway(1, 200, 200, 120, 0);
+        for (int i = 0; i < 120; i++) {
+            gateway.call(Lane.BATCH, 0, () -> "ok");
+        }
+
+        long start = System.nanoTime();
+        gateway.call(Lane.BATCH, 0, () -> "ok");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThan(Duration.ofMillis(300));
+    }
+
+    @Test
+    void interactiveCallsOvertakeQueuedBatchCalls() throws Exception {
+        LlmGateway gateway = gateway(1, 1, 1, 0, 0);
+        LlmGateway.Permit holder = gateway.acquire(Lane.BATCH, 0).get(1, TimeUnit.SECONDS);
+        List<String> order = new ArrayList<>();
+        List<LlmGateway.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            gateway.acquire(Lane.BATCH, 0).thenAccept(permit -> {
+                order.add("B");
+                permits.add(permit);
+            });
+        }
+        for (int i = 0; i < 4; i++) {
+            gateway.acquire(Lane.INTERACTIVE, 0).thenAccept(permit -> {
+                order.add("I");
+                permits.add(permit);
+            });
+        }
+
+        // 上限为 1，每归还一个许可就按加权轮询发放下一个
+        gateway.release(holder, null);
+        for (int i = 0; i < 8 && !permits.isEmpty(); i++) {
+            gateway.release(permits.get(permits.size() - 1), null);
+        }
+
+        assertThat(order).containsExactly("I", "I", "B", "I", "I", "B", "B", "B");
+    }
+
+    @Test
+    void batchCallsLeaveReservedPermitsToInteractiveCalls() throws Exception {
+        LlmGateway gateway = gateway(4, 4, 4, 0, 0, 1);
+        List<CompletableFuture<LlmGateway.Permit>> batch = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            batch.add(gateway.acquire(Lane.BATCH, 0));
+        }
+
+        assertThat(batch.stream().filter(CompletableFuture::isDone).count()).isEqualTo(3);
+        assertThat(gateway.acquire(Lane.INTERACTIVE, 0)).isCompleted();
+        assertThat(gateway.snapshot())
+                .containsEntry("batchInFlight", 3)
+                .containsEntry("interactiveInFlight", 1)
+                .containsEntry("batchQueued", 3);
+
+        gateway.release(batch.get(0).get(), null);
+        assertThat(batch.get(3)).isCompleted();
+        assertThat(batch.get(4)).isNotDone();
+    }
+
+    @Test
+    void cancelledWaitersLeaveTheQueue() throws Exception {
+        LlmGateway gateway = gateway(1, 1, 1, 0, 0);
+        LlmGateway.Permit holder = gateway.acquire(Lane.BATCH, 0).get(1, TimeUnit.SECONDS);
+        CompletableFuture<LlmGateway.Permit> cancelled = gateway.acquire(Lane.BATCH, 0);
+        CompletableFuture<LlmGateway.Permit> next = gateway.acquire(Lane.BATCH, 0);
+
+        cancelled.cancel(false);
+        gateway.release(holder, null);
+
+        assertThat(next).isCompleted();
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 1).containsEntry("batchQueued", 0);
+    }
+
+    @Test
+    void callReleasesThePermitWhenTheRequestThrowsAnError() {
+        LlmGateway gateway = gateway(1, 1, 1, 0, 0);
+
+        assertThatThrownBy(() -> gateway.call(Lane.BATCH, 0, () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 0);
+        assertThat(gateway.call(Lane.BATCH, 0, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void streamCancelledWhileQueuedLeavesTheQueue() throws Exception {
+        LlmGateway gateway = gateway(1, 1, 1, 0, 0);
+        LlmGateway.Permit holder = gateway.acquire(Lane.BATCH, 0).get(1, TimeUnit.SECONDS);
+        AtomicBoolean requested = new AtomicBoolean();
+
+        Disposable subscription = gateway.stream(Lane.BATCH, 0, () -> {
+            requested.set(true);
+            return Flux.just("token");
+        }).subscribe();
+        assertThat(gateway.snapshot()).containsEntry("batchQueued", 1);
+
+        subscription.dispose();
+        assertThat(gateway.snapshot()).containsEntry("batchQueued", 0);
+        gateway.release(holder, null);
+
+        assertThat(requested).isFalse();
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void streamReleasesThePermitOnEveryTerminalSignal() {
+        LlmGateway gateway = gateway(1, 1, 1, 0, 0);
+
+        assertThat(gateway.stream(Lane.BATCH, 0, () -> Flux.just("a", "b")).collectList().block())
+                .containsExactly("a", "b");
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 0);
+
+        assertThatThrownBy(() -> gateway.stream(Lane.BATCH, 0, () -> Flux.error(new IllegalStateException("boom")))
+                .blockLast()).isInstanceOf(IllegalStateException.class);
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 0).containsEntry("failures", 1L);
+
+        Disposable subscription = gateway.stream(Lane.BATCH, 0, Flux::never).subscribe();
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 1);
+        subscription.dispose();
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 0).containsEntry("failures", 1L);
+    }
+
+    @Test
+    void abandoningAGrantedPermitReturnsIt() {
+        LlmGateway gateway = gateway(1, 1, 1, 0, 0);
+        CompletableFuture<LlmGateway.Permit> granted = gateway.acquire(Lane.BATCH, 0);
+        assertThat(granted).isCompleted();
+
+        gateway.abandon(granted);
+
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 0);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.common.exception.BusinessException;
+import com.yuyuan.literature.common.result.ResultCode;
+import com.yuyuan.literature.pipeline.Lane;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 大模型调用超时、重试、对冲与熔断测试
+ */
+class LlmResilienceTests {
+
+    private static final Lane LANE = Lane.BATCH;
+
+    private final List<LlmGateway> gateways = new ArrayList<>();
+    private final List<LlmResilience> resiliences = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        resiliences.forEach(LlmResilience::shutdown);
+        gateways.forEach(LlmGateway::shutdown);
+    }
+
+    private LlmResilience resilience(Duration timeout, int maxRetries, int hedgeMinSamples, int failureThreshold,
+                                     Duration openDuration) {
+        return resilience(gateway(8), timeout, maxRetries, hedgeMinSamples, failureThreshold, openDuration);
+    }
+
+    private LlmGateway gateway(int concurrency) {
+        LlmGateway gateway = new LlmGateway(1, concurrency, concurrency, 0, 0, Duration.ofSeconds(60), 3, 1, 0);
+        gateways.add(gateway);
+        return gateway;
+    }
+
+    private LlmResilience resilience(LlmGateway gateway, Duration timeout, int maxRetries, int hedgeMinSamples,
+                                     int failureThreshold, Duration openDuration) {
+        LlmResilience resilience = new LlmResilience(gateway, timeout, timeout, timeout, timeout, timeout, timeout,
+                maxRetries, Duration.ofMillis(10), Duration.ofMillis(20), true, 0.5, hedgeMinSamples,
+                failureThreshold, openDuration);
+        resiliences.add(resilience);
+        return resilience;
+    }
+
+    @Test
+    void retriesRetryableErrors() {
+        LlmResilience resilience = resilience(Duration.ofSeconds(5), 2, 100, 10, Duration.ofSeconds(60));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = resilience.call(LlmResilience.Call.GUIDE, LANE, 100, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new UncheckedIOException(new IOException("connection reset"));
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+        assertThat(resilience.snapshot()).containsEntry("retries", 2L).containsEntry("consecutiveFailures", 0);
+    }
+
+    @Test
+    void nonRetryableErrorsFailImmediately() {
+        LlmResilience resilience = resilience(Duration.ofSeconds(5), 2, 100, 10, Duration.ofSeconds(60));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> resilience.call(LlmResilience.Call.GUIDE, LANE, 100, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("400 - invalid request");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void hungCallsTimeOutAndAreInterrupted() {
+        LlmResilience resilience = resilience(Duration.ofMillis(100), 0, 100, 10, Duration.ofSeconds(60));
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> resilience.call(LlmResilience.Call.NOTES, LANE, 100, () -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return "late";
+        })).isInstanceOfSatisfying(BusinessException.class,
+                e -> assertThat(e.getCode()).isEqualTo(ResultCode.TIMEOUT_ERROR.getCode()));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        sleep(100);
+        assertThat(interrupted).isTrue();
+        assertThat(resilience.snapshot()).containsEntry("timeouts", 1L);
+    }
+
+    @Test
+    void timedOutCallsKeepTheirPermitUntilTheRequestEnds() {
+        LlmGateway gateway = gateway(1);
+        LlmResilience resilience = resilience(gateway, Duration.ofMillis(100), 0, 100, 10, Duration.ofSeconds(60));
+        CountDownLatch hung = new CountDownLatch(1);
+
+        // 请求不响应中断，模拟无法被中断终止的 HTTP 交换
+        assertThatThrownBy(() -> resilience.call(LlmResilience.Call.NOTES, LANE, 100, () -> {
+            awaitUninterruptibly(hung);
+            return "late";
+        })).isInstanceOfSatisfying(BusinessException.class,
+                e -> assertThat(e.getCode()).isEqualTo(ResultCode.TIMEOUT_ERROR.getCode()));
+
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 1);
+        hung.countDown();
+        sleep(100);
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndRecovers() {
+        LlmResilience resilience = resilience(Duration.ofSeconds(5), 0, 100, 2, Duration.ofMillis(200));
+        AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> resilience.call(LlmResilience.Call.GUIDE, LANE, 100, () -> {
+                attempts.incrementAndGet();
+                throw new UncheckedIOException(new IOException("connection refused"));
+            })).isInstanceOf(UncheckedIOException.class);
+        }
+
+        assertThatThrownBy(() -> resilience.call(LlmResilience.Call.GUIDE, LANE, 100, () -> {
+            attempts.incrementAndGet();
+            return "ok";
+        })).matches(LlmResilience::isCircuitOpen);
+        assertThat(attempts).hasValue(2);
+        assertThat(resilience.snapshot()).containsEntry("circuit", "open").containsEntry("rejected", 1L);
+
+        sleep(250);
+        assertThat(resilience.call(LlmResilience.Call.GUIDE, LANE, 100, () -> "ok")).isEqualTo("ok");
+        assertThat(resilience.snapshot()).containsEntry("circuit", "closed");
+    }
+
+    @Test
+    void slowClassificationCallsAreHedged() {
+        LlmResilience resilience = resilience(Duration.ofSeconds(5), 0, 5, 10, Duration.ofSeconds(60));
+        for (int i = 0; i < 5; i++) {
+            resilience.call(LlmResilience.Call.CLASSIFICATION, LANE, 100, () -> {
+                sleep(20);
+                return "warm";
+            });
+        }
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        String result = resilience.call(LlmResilience.Call.CLASSIFICATION, LANE, 100, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    primaryCancelled.set(true);
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(attempts).hasValue(2);
+        sleep(100);
+        assertThat(primaryCancelled).isTrue();
+        assertThat(resilience.snapshot()).containsEntry("hedges", 1L).containsEntry("hedgeWins", 1L);
+    }
+
+    @Test
+    void hedgeTimerStartsOnceThePrimaryHoldsAPermit() throws Exception {
+        LlmGateway gateway = gateway(1);
+        LlmResilience resilience = resilience(gateway, Duration.ofSeconds(5), 0, 5, 10, Duration.ofSeconds(60));
+        for (int i = 0; i < 5; i++) {
+            resilience.call(LlmResilience.Call.CLASSIFICATION, LANE, 100, () -> {
+                sleep(20);
+                return "warm";
+            });
+        }
+        LlmGateway.Permit holder = gateway.acquire(LANE, 0).get(1, TimeUnit.SECONDS);
+        Thread.ofVirtual().start(() -> {
+            sleep(300);
+            gateway.release(holder, null);
+        });
+        AtomicInteger attempts = new AtomicInteger();
+
+        // 排队等待许可远超对冲阈值，但取得许可后很快返回，不应发出对冲请求
+        String result = resilience.call(LlmResilience.Call.CLASSIFICATION, LANE, 100, () -> {
+            attempts.incrementAndGet();
+            return "primary";
+        });
+
+        assertThat(result).isEqualTo("primary");
+        assertThat(attempts).hasValue(1);
+        assertThat(resilience.snapshot()).containsEntry("hedges", 0L);
+    }
+
+    @Test
+    void streamTimeoutsStartAfterThePermitAndIgnoreCancellation() throws Exception {
+        LlmGateway gateway = gateway(1);
+        LlmResilience resilience = resilience(gateway, Duration.ofMillis(200), 0, 100, 1, Duration.ofSeconds(60));
+        LlmGateway.Permit holder = gateway.acquire(LANE, 0).get(1, TimeUnit.SECONDS);
+        Thread.ofVirtual().start(() -> {
+            sleep(500);
+            gateway.release(holder, null);
+        });
+
+        // 等待许可 500 ms，超过首个分片超时 200 ms，但不应计为超时或失败
+        List<String> tokens = resilience.stream(LANE, 100, () -> Flux.just("阅读", "指南"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(tokens).containsExactly("阅读", "指南");
+        assertThat(resilience.snapshot()).containsEntry("timeouts", 0L).containsEntry("circuit", "closed");
+
+        Disposable abandoned = resilience.stream(LANE, 100, Flux::never).subscribe();
+        sleep(50);
+        abandoned.dispose();
+
+        assertThat(resilience.snapshot()).containsEntry("consecutiveFailures", 0).containsEntry("circuit", "closed");
+        assertThat(gateway.snapshot()).containsEntry("inFlight", 0).containsEntry("failures", 0L);
+    }
+
+    @Test
+    void streamsRetryOnlyBeforeTheFirstToken() {
+        LlmResilience resilience = resilience(Duration.ofSeconds(5), 2, 100, 10, Duration.ofSeconds(60));
+        AtomicInteger attempts = new AtomicInteger();
+
+        List<String> tokens = resilience.stream(LANE, 100, () -> attempts.incrementAndGet() == 1
+                        ? Flux.error(new IOException("connection reset"))
+                        : Flux.just("阅读", "指南"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(tokens).containsExactly("阅读", "指南");
+        assertThat(attempts).hasValue(2);
+
+        AtomicInteger midStreamAttempts = new AtomicInteger();
+        Flux<String> broken = resilience.stream(LANE, 100, () -> {
+            midStreamAttempts.incrementAndGet();
+            return Flux.concat(Flux.just("阅读"), Flux.error(new IOException("connection reset")));
+        });
+
+        assertThatThrownBy(() -> broken.collectList().block(Duration.ofSeconds(5)))
+                .hasRootCauseInstanceOf(IOException.class);
+        assertThat(midStreamAttempts).hasValue(1);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
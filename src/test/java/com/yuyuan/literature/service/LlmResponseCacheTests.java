@@ -0,0 +1,85 @@
+package com.yuyuan.literature.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 大模型响应缓存测试
+ */
+class LlmResponseCacheTests {
+
+    @TempDir
+    Path dir;
+
+    private LlmResponseCache cache(DataSize maxSize, Duration ttl) {
+        return new LlmResponseCache(new ObjectMapper(), true, dir.toString(), maxSize, ttl);
+    }
+
+    @Test
+    void storedChunksSurviveRestartInOrder() {
+        String key = LlmResponseCache.fingerprint("system", "user", "qwen-plus", 0.7, 20480);
+        cache(DataSize.ofMegabytes(1), Duration.ofDays(1)).put(key, List.of("# ", "核心", "摘要"));
+
+        LlmResponseCache reopened = cache(DataSize.ofMegabytes(1), Duration.ofDays(1));
+
+        assertThat(reopened.get(key)).contains(List.of("# ", "核心", "摘要"));
+        assertThat(reopened.snapshot()).containsEntry("hits", 1L);
+    }
+
+    @Test
+    void loadDeletesOnlyInterruptedWrites() throws Exception {
+        Path interrupted = Files.writeString(dir.resolve("abc123.tmp"), "{");
+        Path unrelated = Files.writeString(dir.resolve("notes.txt"), "keep");
+
+        LlmResponseCache reopened = cache(DataSize.ofMegabytes(1), Duration.ofDays(1));
+
+        assertThat(interrupted).doesNotExist();
+        assertThat(unrelated).hasContent("keep");
+        assertThat(reopened.snapshot()).containsEntry("entries", 0);
+    }
+
+    @Test
+    void fingerprintChangesWithOptions() {
+        assertThat(LlmResponseCache.fingerprint("system", "user", "qwen-plus", 0.7, 500))
+                .isNotEqualTo(LlmResponseCache.fingerprint("system", "user", "qwen-plus", 0.3, 500));
+        assertThat(LlmResponseCache.fingerprint("ab", "c"))
+                .isNotEqualTo(LlmResponseCache.fingerprint("a", "bc"));
+    }
+
+    @Test
+    void expiredEntriesAreMisses() throws InterruptedException {
+        LlmResponseCache cache = cache(DataSize.ofMegabytes(1), Duration.ofMillis(20));
+        cache.put("k", List.of("v"));
+        Thread.sleep(50);
+
+        assertThat(cache.get("k")).isEmpty();
+        assertThat(cache.snapshot()).containsEntry("entries", 0);
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedOverMaxSize() throws InterruptedException {
+        String chunk = "x".repeat(400);
+        LlmResponseCache cache = cache(DataSize.ofBytes(1000), Duration.ofDays(1));
+        cache.put("a", List.of(chunk));
+        Thread.sleep(5);
+        cache.put("b", List.of(chunk));
+        Thread.sleep(5);
+        cache.get("a");
+        Thread.sleep(5);
+        cache.put("c", List.of(chunk));
+
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("a")).isPresent();
+        assertThat(cache.get("c")).isPresent();
+        assertThat(cache.snapshot()).containsEntry("evictions", 1L);
+    }
+}
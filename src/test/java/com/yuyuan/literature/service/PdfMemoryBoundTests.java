@@ -0,0 +1,113 @@
+package com.yuyuan.literature.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PDF 限制堆内占用测试
+ * <p>
+ * 生成一批接近上传上限的图片型 PDF，在 -Xmx48m 的子进程中并发提取文本，MIXED 模式下不应内存溢出。
+ */
+class PdfMemoryBoundTests {
+
+    private static final int FILES = 8;
+    private static final int PAGES = 4;
+    private static final String HEAP = "-Xmx48m";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentLargePdfsFitInSmallHeap() throws Exception {
+        for (int i = 0; i < FILES; i++) {
+            imagePdf(dir.resolve("large-" + i + ".pdf").toFile(), new Random(i));
+        }
+
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), HEAP,
+                "-cp", System.getProperty("java.class.path"),
+                PdfMemoryBoundTests.class.getName(), PdfTextExtractor.MemoryMode.MIXED.name(), dir.toString())
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(process.waitFor(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(process.exitValue()).as(output).isZero();
+        assertThat(output).contains("extracted " + FILES);
+    }
+
+    /**
+     * 子进程入口：以指定内存模式并发提取目录下的全部 PDF，每个文档堆内最多 1MB
+     */
+    public static void main(String[] args) throws Exception {
+        PdfTextExtractor extractor = new PdfTextExtractor(1, Integer.MAX_VALUE, 16,
+                PdfTextExtractor.MemoryMode.valueOf(args[0]), DataSize.ofMegabytes(1), "");
+        File[] pdfs = new File(args[1]).listFiles((d, name) -> name.endsWith(".pdf"));
+        ExecutorService executor = Executors.newFixedThreadPool(pdfs.length);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (File pdf : pdfs) {
+                results.add(executor.submit(() -> extractor.extract(pdf)));
+            }
+            for (Future<String> result : results) {
+                if (!result.get().contains("Page 1")) {
+                    throw new IllegalStateException("提取结果缺少文本");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            extractor.shutdown();
+        }
+        System.out.println("extracted " + pdfs.length);
+    }
+
+    /**
+     * 每页一张不可压缩的噪点图片和一行文本，单个文件约 7MB
+     */
+    private static void imagePdf(File file, Random random) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= PAGES; page++) {
+                BufferedImage image = new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB);
+                for (int y = 0; y < image.getHeight(); y++) {
+                    for (int x = 0; x < image.getWidth(); x++) {
+                        image.setRGB(x, y, random.nextInt(0x1000000));
+                    }
+                }
+                PDImageXObject xObject = LosslessFactory.createFromImage(document, image);
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.drawImage(xObject, 50, 150, 400, 400);
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(50, 700);
+                    content.showText("Page " + page + " scanned figure");
+                    content.endText();
+                }
+            }
+            document.save(file);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.yuyuan.literature.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PDF 按页并行提取测试
+ */
+class PdfTextExtractorTests {
+
+    @TempDir
+    Path dir;
+
+    private final PdfTextExtractor extractor = new PdfTextExtractor(4, 8, 3,
+            PdfTextExtractor.MemoryMode.MIXED, DataSize.ofMegabytes(16), "");
+
+    @AfterEach
+    void shutdown() {
+        extractor.shutdown();
+    }
+
+    @Test
+    void parallelExtractionKeepsPageOrder() throws IOException {
+        File pdf = pdf(25);
+
+        String text = extractor.extract(pdf);
+
+        assertThat(text).isEqualTo(sequential(pdf));
+        assertThat(text.indexOf("Page 9 line 1")).isLessThan(text.indexOf("Page 10 line 1"));
+        assertThat(extractor.snapshot())
+                .containsEntry("parallelDocuments", 1L)
+                .containsEntry("parallelTasks", 9L);
+    }
+
+    @Test
+    void smallDocumentsStaySequential() throws IOException {
+        File pdf = pdf(5);
+
+        assertThat(extractor.extract(pdf)).isEqualTo(sequential(pdf));
+        assertThat(extractor.snapshot())
+                .containsEntry("sequentialDocuments", 1L)
+                .containsEntry("parallelTasks", 0L);
+    }
+
+    private File pdf(int pages) throws IOException {
+        File file = dir.resolve(pages + ".pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= pages; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 700);
+                    for (int line = 1; line <= 3; line++) {
+                        content.showText("Page " + page + " line " + line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file);
+        }
+        return file;
+    }
+
+    private static String sequential(File file) throws IOException {
+        try (PDDocument document = PDDocument.load(file)) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+}
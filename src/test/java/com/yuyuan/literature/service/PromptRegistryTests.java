@@ -0,0 +1,74 @@
+package com.yuyuan.literature.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 提示词模板注册表测试
+ */
+class PromptRegistryTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadsBundledPromptsWithContentVersions() throws IOException {
+        PromptRegistry registry = new PromptRegistry("", DataSize.ofKilobytes(256));
+
+        PromptRegistry.Prompt guide = registry.get(PromptRegistry.GUIDE);
+
+        assertThat(guide.text()).contains("阅读指南");
+        assertThat(guide.source()).isEqualTo("classpath");
+        assertThat(guide.id()).matches(PromptRegistry.GUIDE + "@[0-9a-f]{12}");
+        assertThat(new PromptRegistry("", DataSize.ofKilobytes(256)).get(PromptRegistry.GUIDE).id())
+                .isEqualTo(guide.id());
+        assertThatThrownBy(() -> registry.get("missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOversizedPromptsAtStartup() {
+        assertThatThrownBy(() -> new PromptRegistry("", DataSize.ofBytes(16)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void overrideDirectoryIsHotReloaded() throws IOException {
+        Path file = dir.resolve(PromptRegistry.CLASSIFICATION + ".txt");
+        Files.writeString(file, "分类模板 v1");
+        PromptRegistry registry = new PromptRegistry(dir.toString(), DataSize.ofKilobytes(256));
+        PromptRegistry.Prompt first = registry.get(PromptRegistry.CLASSIFICATION);
+        assertThat(first.text()).isEqualTo("分类模板 v1");
+
+        Files.writeString(file, "分类模板 v2");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        registry.reload();
+
+        PromptRegistry.Prompt second = registry.get(PromptRegistry.CLASSIFICATION);
+        assertThat(second.text()).isEqualTo("分类模板 v2");
+        assertThat(second.id()).isNotEqualTo(first.id());
+    }
+
+    @Test
+    void invalidReloadKeepsCurrentVersion() throws IOException {
+        Path file = dir.resolve(PromptRegistry.GUIDE + ".txt");
+        Files.writeString(file, "指南模板");
+        PromptRegistry registry = new PromptRegistry(dir.toString(), DataSize.ofKilobytes(256));
+
+        Files.writeString(file, "   ");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        registry.reload();
+
+        assertThat(registry.get(PromptRegistry.GUIDE).text()).isEqualTo("指南模板");
+        assertThat(registry.snapshot()).containsEntry("rejected", 1L);
+    }
+}
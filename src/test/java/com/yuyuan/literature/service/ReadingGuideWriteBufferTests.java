@@ -0,0 +1,98 @@
+package com.yuyuan.literature.service;
+
+import com.yuyuan.literature.mapper.LiteratureContentMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 阅读指南流式写入缓冲测试，同时对比逐 token 读改写方式的数据库往返次数与传输字节数
+ */
+class ReadingGuideWriteBufferTests {
+
+    private static final int GUIDE_CHARS = 20_000;
+    private static final int TOKEN_CHARS = 4;
+
+    @Test
+    void bufferedWritesMoveEachCharacterOnce() {
+        LiteratureContentMapper mapper = mock(LiteratureContentMapper.class);
+        AtomicLong statements = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        StringBuilder stored = new StringBuilder();
+        when(mapper.appendReadingGuide(anyLong(), any())).thenAnswer(invocation -> {
+            String chunk = invocation.getArgument(1);
+            statements.incrementAndGet();
+            bytes.addAndGet(utf8Length(chunk));
+            stored.append(chunk);
+            return 1;
+        });
+
+        ReadingGuideWriteBuffer buffer = new ReadingGuideWriteBuffer(mapper, 2048, Duration.ofHours(1));
+        List<String> tokens = tokens();
+        tokens.forEach(token -> buffer.append(1L, token));
+        String guide = buffer.complete(1L);
+
+        // 旧实现：每个 token 一次 getById（读出已有内容）加一次 updateById（写回拼接结果）
+        long legacyStatements = 2L * tokens.size();
+        long legacyBytes = 0;
+        long prefix = 0;
+        for (String token : tokens) {
+            long length = utf8Length(token);
+            legacyBytes += prefix + (prefix + length);
+            prefix += length;
+        }
+
+        assertThat(stored.toString()).isEqualTo(guide);
+        assertThat(guide).hasSize(GUIDE_CHARS);
+        assertThat(bytes.get()).isEqualTo(utf8Length(guide));
+        assertThat(statements.get()).isEqualTo((GUIDE_CHARS + 2047) / 2048);
+        assertThat(statements.get() * 100).isLessThan(legacyStatements);
+        assertThat(bytes.get() * 100).isLessThan(legacyBytes);
+    }
+
+    @Test
+    void abortFlushesPartialGuide() {
+        LiteratureContentMapper mapper = mock(LiteratureContentMapper.class);
+        StringBuilder stored = new StringBuilder();
+        when(mapper.appendReadingGuide(anyLong(), any())).thenAnswer(invocation -> {
+            stored.append((String) invocation.getArgument(1));
+            return 1;
+        });
+
+        ReadingGuideWriteBuffer buffer = new ReadingGuideWriteBuffer(mapper, 2048, Duration.ofHours(1));
+        buffer.append(2L, "# 核心摘要");
+        buffer.append(2L, "\n本文");
+        buffer.abort(2L);
+
+        assertThat(stored.toString()).isEqualTo("# 核心摘要\n本文");
+        assertThat(buffer.complete(2L)).isEmpty();
+    }
+
+    private static List<String> tokens() {
+        String sample = "## 分步阅读地图：本章介绍研究背景与动机，";
+        List<String> tokens = new ArrayList<>();
+        for (int written = 0; written < GUIDE_CHARS; written += TOKEN_CHARS) {
+            int start = written % sample.length();
+            StringBuilder token = new StringBuilder();
+            for (int i = 0; i < TOKEN_CHARS; i++) {
+                token.append(sample.charAt((start + i) % sample.length()));
+            }
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static long utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}